@@ -0,0 +1,45 @@
+package pl.kurs.config;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class ExecutorModeBenchmark {
+    private static final int TASKS = 200;
+
+    @Param({"PLATFORM", "VIRTUAL"})
+    private AsyncProperties.ExecutorMode mode;
+
+    @Param({"1"})
+    private long blockingMillis;
+
+    private CreditGatedExecutor executor;
+
+    @Setup
+    public void setUp() {
+        executor = AsyncConfig.createGatedExecutor("Benchmark-", mode, new AsyncProperties().getNotification());
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        executor.destroy();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TASKS)
+    public void blockingTasks() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(TASKS);
+        for (int i = 0; i < TASKS; i++) {
+            executor.execute(() -> {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(blockingMillis));
+                done.countDown();
+            });
+        }
+        done.await();
+    }
+}
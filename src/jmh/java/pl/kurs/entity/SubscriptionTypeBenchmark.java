@@ -0,0 +1,19 @@
+package pl.kurs.entity;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class SubscriptionTypeBenchmark {
+
+    @Param({"AUTHOR", "category", " Author "})
+    private String value;
+
+    @Benchmark
+    public SubscriptionType fromString() {
+        return SubscriptionType.fromString(value);
+    }
+}
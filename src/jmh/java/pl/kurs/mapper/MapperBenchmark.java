@@ -0,0 +1,72 @@
+package pl.kurs.mapper;
+
+import org.openjdk.jmh.annotations.*;
+import pl.kurs.dto.BookDto;
+import pl.kurs.dto.ClientDto;
+import pl.kurs.dto.SubscriptionDto;
+import pl.kurs.entity.Book;
+import pl.kurs.entity.Category;
+import pl.kurs.entity.Client;
+import pl.kurs.entity.Subscription;
+import pl.kurs.entity.SubscriptionType;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class MapperBenchmark {
+
+    private final BookMapper bookMapper = new BookMapperImpl();
+    private final ClientMapper clientMapper = new ClientMapperImpl();
+    private final SubscriptionMapper subscriptionMapper = new SubscriptionMapperImpl();
+
+    private Book book;
+    private BookDto bookDto;
+    private Client client;
+    private ClientDto clientDto;
+    private Subscription subscription;
+    private SubscriptionDto subscriptionDto;
+
+    @Setup
+    public void setUp() {
+        book = new Book(1L, "J.R.R. Tolkien", 7L, "The Hobbit", new Category(3L, "Fantasy"), 310, LocalDate.of(2025, 8, 15));
+        bookDto = new BookDto(null, "J.R.R. Tolkien", "The Hobbit", 3L, 310);
+        client = Client.builder().id(1L).firstName("Jan").lastName("Kowalski").email("jan@example.com")
+                .city("Warszawa").emailVerified(true).build();
+        clientDto = new ClientDto(null, "Jan", "Kowalski", "jan@example.com", false, "Warszawa");
+        subscription = new Subscription(1L, client, SubscriptionType.AUTHOR, "J.R.R. Tolkien", 7L);
+        subscriptionDto = new SubscriptionDto(null, 1L, "AUTHOR", "J.R.R. Tolkien");
+    }
+
+    @Benchmark
+    public BookDto bookToDto() {
+        return bookMapper.entityToDto(book);
+    }
+
+    @Benchmark
+    public Book bookToEntity() {
+        return bookMapper.dtoToEntity(bookDto);
+    }
+
+    @Benchmark
+    public ClientDto clientToDto() {
+        return clientMapper.entityToDto(client);
+    }
+
+    @Benchmark
+    public Client clientToEntity() {
+        return clientMapper.dtoToEntity(clientDto);
+    }
+
+    @Benchmark
+    public SubscriptionDto subscriptionToDto() {
+        return subscriptionMapper.entityToDto(subscription);
+    }
+
+    @Benchmark
+    public Subscription subscriptionToEntity() {
+        return subscriptionMapper.dtoToEntity(subscriptionDto);
+    }
+}
@@ -0,0 +1,53 @@
+package pl.kurs.messaging;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import pl.kurs.config.RabbitConfig;
+import pl.kurs.messaging.dto.EmailMessage;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class EmailMessageConversionBenchmark {
+
+    private Jackson2JsonMessageConverter converter;
+    private EmailMessage emailMessage;
+    private Message serialized;
+
+    @Setup
+    public void setUp() {
+        RabbitConfig rabbitConfig = new RabbitConfig();
+        converter = rabbitConfig.jackson2JsonMessageConverter();
+
+        StringBuilder html = new StringBuilder("<html><body><ul>");
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 10; i++) {
+            html.append("<li>Title ").append(i).append(" - Author ").append(i).append(" (Fantasy)</li>");
+            text.append("Title ").append(i).append(" - Author ").append(i).append(" (Fantasy)\n");
+        }
+        html.append("</ul></body></html>");
+
+        emailMessage = EmailMessage.builder()
+                .to("reader@example.com")
+                .subject("New books in the library - 2025-08-15")
+                .content(text.toString())
+                .htmlContent(html.toString())
+                .type(EmailMessage.EmailType.NEW_BOOK_NOTIFICATION)
+                .build();
+        serialized = converter.toMessage(emailMessage, new MessageProperties());
+    }
+
+    @Benchmark
+    public Message serialize() {
+        return converter.toMessage(emailMessage, new MessageProperties());
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return converter.fromMessage(serialized);
+    }
+}
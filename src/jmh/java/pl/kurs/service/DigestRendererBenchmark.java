@@ -0,0 +1,57 @@
+package pl.kurs.service;
+
+import org.openjdk.jmh.annotations.*;
+import pl.kurs.dto.RenderedDigest;
+import pl.kurs.entity.Book;
+import pl.kurs.entity.Category;
+import pl.kurs.repository.BookRepository;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class DigestRendererBenchmark {
+    private static final LocalDate DATE = LocalDate.of(2025, 8, 15);
+    private static final int BOOKS_ADDED = 200;
+
+    @Param({"1", "5", "25"})
+    private int booksPerRecipient;
+
+    private DigestRenderer digestRenderer;
+    private List<Long> bookIds;
+
+    @Setup
+    public void setUp() {
+        List<Book> books = new ArrayList<>(BOOKS_ADDED);
+        for (long id = 1; id <= BOOKS_ADDED; id++) {
+            books.add(new Book(id, "Author & Co " + id, id, "Title <" + id + ">", new Category(id % 10, "Category " + id % 10),
+                    300, DATE));
+        }
+        digestRenderer = new DigestRenderer(bookRepository(books));
+
+        bookIds = new ArrayList<>(booksPerRecipient);
+        for (long id = 1; id <= booksPerRecipient; id++) {
+            bookIds.add(id * 7 % BOOKS_ADDED + 1);
+        }
+        digestRenderer.render(DATE, bookIds);
+    }
+
+    @Benchmark
+    public RenderedDigest renderDigest() {
+        return digestRenderer.render(DATE, bookIds);
+    }
+
+    private static BookRepository bookRepository(List<Book> books) {
+        return (BookRepository) Proxy.newProxyInstance(BookRepository.class.getClassLoader(),
+                new Class<?>[]{BookRepository.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "findAllWithCategoryByAddedDate" -> books;
+                    case "findAllWithCategoryByIdIn" -> List.of();
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
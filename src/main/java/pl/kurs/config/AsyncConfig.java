@@ -2,6 +2,7 @@ package pl.kurs.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
@@ -12,29 +13,47 @@ import java.util.concurrent.Executor;
 public class AsyncConfig {
 
     @Bean("notificationExecutor")
-    public Executor notificationExecutor() {
-        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(10);
-        executor.setMaxPoolSize(20);
-        executor.setQueueCapacity(500);
-        executor.setThreadNamePrefix("Notification-");
-        executor.setWaitForTasksToCompleteOnShutdown(true);
-        executor.setAwaitTerminationSeconds(60);
-        executor.initialize();
-        return executor;
+    public CreditGatedExecutor notificationExecutor(AsyncProperties asyncProperties) {
+        return createGatedExecutor("Notification-", asyncProperties.getMode(), asyncProperties.getNotification());
     }
 
     @Bean("emailExecutor")
-    public Executor emailExecutor() {
+    public CreditGatedExecutor emailExecutor(AsyncProperties asyncProperties) {
+        return createGatedExecutor("Email-", asyncProperties.getMode(), asyncProperties.getEmail());
+    }
+
+    static CreditGatedExecutor createGatedExecutor(String threadNamePrefix, AsyncProperties.ExecutorMode mode,
+                                                   AsyncProperties.Pool pool) {
+        return new CreditGatedExecutor(threadNamePrefix, createExecutor(threadNamePrefix, mode, pool), credits(mode, pool));
+    }
+
+    static int credits(AsyncProperties.ExecutorMode mode, AsyncProperties.Pool pool) {
+        if (pool.getCredits() > 0) {
+            return pool.getCredits();
+        }
+        return mode == AsyncProperties.ExecutorMode.VIRTUAL
+                ? pool.getConcurrencyLimit()
+                : pool.getQueueCapacity();
+    }
+
+    static Executor createExecutor(String threadNamePrefix, AsyncProperties.ExecutorMode mode, AsyncProperties.Pool pool) {
+        if (mode == AsyncProperties.ExecutorMode.VIRTUAL) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(threadNamePrefix);
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(pool.getConcurrencyLimit());
+            executor.setTaskTerminationTimeout(60_000);
+            return executor;
+        }
+
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(5);
-        executor.setMaxPoolSize(10);
-        executor.setQueueCapacity(200);
-        executor.setThreadNamePrefix("Email-");
+        executor.setCorePoolSize(pool.getMaxPoolSize());
+        executor.setMaxPoolSize(pool.getMaxPoolSize());
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setQueueCapacity(pool.getQueueCapacity());
+        executor.setThreadNamePrefix(threadNamePrefix);
         executor.setWaitForTasksToCompleteOnShutdown(true);
         executor.setAwaitTerminationSeconds(60);
         executor.initialize();
         return executor;
     }
 }
-
@@ -0,0 +1,35 @@
+package pl.kurs.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@ConfigurationProperties(prefix = "async")
+@Data
+@Component
+public class AsyncProperties {
+    private ExecutorMode mode = ExecutorMode.PLATFORM;
+    private Pool notification = new Pool(20, 500, 16);
+    private Pool email = new Pool(10, 200, 10);
+    private long pinnedThreadThresholdMs = 20;
+
+    public enum ExecutorMode {
+        PLATFORM, VIRTUAL
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Pool {
+        private int maxPoolSize;
+        private int queueCapacity;
+        private int concurrencyLimit;
+        private int credits;
+
+        public Pool(int maxPoolSize, int queueCapacity, int concurrencyLimit) {
+            this(maxPoolSize, queueCapacity, concurrencyLimit, 0);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package pl.kurs.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String CATEGORIES = "categories";
+    public static final String CATEGORY_IDS_BY_NAME = "categoryIdsByName";
+    public static final String AUTHOR_IDS_BY_NAME = "authorIdsByName";
+    public static final String DIGEST_BODIES = "digestBodies";
+
+    @Bean
+    public CacheManager cacheManager(CacheSpecProperties cacheSpecProperties) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.registerCustomCache(CATEGORIES, Caffeine.from(cacheSpecProperties.getCategories()).build());
+        cacheManager.registerCustomCache(CATEGORY_IDS_BY_NAME,
+                Caffeine.from(cacheSpecProperties.getCategoryIdsByName()).build());
+        cacheManager.registerCustomCache(AUTHOR_IDS_BY_NAME,
+                Caffeine.from(cacheSpecProperties.getAuthorIdsByName()).build());
+        cacheManager.registerCustomCache(DIGEST_BODIES, Caffeine.from(cacheSpecProperties.getDigestBodies()).build());
+        return cacheManager;
+    }
+}
@@ -0,0 +1,15 @@
+package pl.kurs.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@ConfigurationProperties(prefix = "app.cache")
+@Data
+@Component
+public class CacheSpecProperties {
+    private String categories = "maximumSize=1000,expireAfterWrite=10m,recordStats";
+    private String categoryIdsByName = "maximumSize=1000,expireAfterWrite=10m,recordStats";
+    private String authorIdsByName = "maximumSize=100000,expireAfterAccess=1h,recordStats";
+    private String digestBodies = "maximumSize=2000,expireAfterAccess=15m,recordStats";
+}
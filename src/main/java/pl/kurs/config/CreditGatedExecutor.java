@@ -0,0 +1,107 @@
+package pl.kurs.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.task.TaskRejectedException;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+@Slf4j
+public class CreditGatedExecutor implements Executor, DisposableBean {
+    private final String name;
+    private final Executor delegate;
+    private final int credits;
+    private final Semaphore available;
+
+    private final LongAdder waitCount = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    public CreditGatedExecutor(String name, Executor delegate, int credits) {
+        if (credits < 1) {
+            throw new IllegalArgumentException("Executor " + name + " needs at least one credit");
+        }
+        this.name = name;
+        this.delegate = delegate;
+        this.credits = credits;
+        this.available = new Semaphore(credits, true);
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        acquire();
+        try {
+            delegate.execute(() -> {
+                try {
+                    task.run();
+                } finally {
+                    available.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            available.release();
+            throw e;
+        }
+    }
+
+    public Executor getDelegate() {
+        return delegate;
+    }
+
+    public int getCredits() {
+        return credits;
+    }
+
+    public int getInFlight() {
+        return credits - available.availablePermits();
+    }
+
+    public int getWaitingSubmitters() {
+        return available.getQueueLength();
+    }
+
+    public long getWaitCount() {
+        return waitCount.sum();
+    }
+
+    public long getTotalWaitTime(TimeUnit unit) {
+        return unit.convert(totalWaitNanos.sum(), TimeUnit.NANOSECONDS);
+    }
+
+    public long getMaxWaitTime(TimeUnit unit) {
+        return unit.convert(maxWaitNanos.get(), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        if (delegate instanceof DisposableBean disposable) {
+            disposable.destroy();
+        } else if (delegate instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    private void acquire() {
+        if (available.tryAcquire()) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            available.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TaskRejectedException("Interrupted while waiting for a credit on executor " + name, e);
+        }
+        long waited = System.nanoTime() - start;
+        waitCount.increment();
+        totalWaitNanos.add(waited);
+        maxWaitNanos.accumulateAndGet(waited, Math::max);
+        log.debug("Waited {} ms for a credit on executor {}, {} submitters still waiting",
+                TimeUnit.NANOSECONDS.toMillis(waited), name, available.getQueueLength());
+    }
+}
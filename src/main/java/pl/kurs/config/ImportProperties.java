@@ -0,0 +1,13 @@
+package pl.kurs.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@ConfigurationProperties(prefix = "import")
+@Data
+@Component
+public class ImportProperties {
+    private int batchSize = 500;
+    private int maxReportedErrors = 1000;
+}
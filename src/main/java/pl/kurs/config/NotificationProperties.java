@@ -11,5 +11,47 @@ public class NotificationProperties {
     private String verificationUrl;
     private int batchSize = 1000;
     private int maxRetries = 3;
+    private long retryInitialDelayMs = 5000;
+    private double retryBackoffMultiplier = 4.0;
     private long tokenExpiryHours = 24;
+    private String tokenSecret;
+    private PagingMode pagingMode = PagingMode.KEYSET;
+    private int parallelism = 1;
+    private int shardCount = 1;
+    private String nodeId;
+    private long leaseDurationMs = 300000;
+    private long leaseSweepMs = 60000;
+    private DeliveryMode deliveryMode = DeliveryMode.DAILY;
+    private long realtimeWindowMs = 5000;
+    private long subscriptionIndexRefreshMs = 300000;
+    private long publishConfirmTimeoutMs = 10000;
+    private ConsumerMode consumerMode = ConsumerMode.SINGLE;
+    private int consumerBatchSize = 50;
+    private long consumerBatchReceiveTimeoutMs = 1000;
+    private int consumerMinConcurrency = 1;
+    private int consumerMaxConcurrency = 8;
+    private int consumerMaxPrefetch = 50;
+    private long consumerPrefetchWindowMs = 1000;
+    private long consumerScalingIntervalMs = 10000;
+    private long smtpLatencyCeilingMs = 2000;
+    private int verificationConsumerConcurrency = 2;
+    private PayloadMode payloadMode = PayloadMode.INLINE;
+    private int digestBodyRetentionDays = 7;
+    private int runBatchRetentionDays = 30;
+
+    public enum PagingMode {
+        OFFSET, KEYSET
+    }
+
+    public enum DeliveryMode {
+        DAILY, REALTIME
+    }
+
+    public enum ConsumerMode {
+        SINGLE, BATCH
+    }
+
+    public enum PayloadMode {
+        INLINE, CLAIM_CHECK
+    }
 }
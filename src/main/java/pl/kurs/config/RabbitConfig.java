@@ -2,22 +2,98 @@ package pl.kurs.config;
 
 import org.springframework.amqp.core.*;
 import org.springframework.amqp.rabbit.annotation.EnableRabbit;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.amqp.support.converter.DefaultClassMapper;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import pl.kurs.messaging.dto.EmailMessage;
+
+import java.util.ArrayList;
+import java.util.List;
 
 @Configuration
 @EnableRabbit
 public class RabbitConfig {
 
     public static final String EMAIL_QUEUE = "email.queue";
+    public static final String VERIFICATION_QUEUE = "email.verification.queue";
+    public static final String EMAIL_RETRY_EXCHANGE = "email.retry";
+    public static final String EMAIL_DEAD_LETTER_QUEUE = "email.dlq";
+    public static final String RETRY_COUNT_HEADER = "x-retry-count";
+    public static final String SOURCE_QUEUE_HEADER = "x-source-queue";
+    public static final String FAILURE_REASON_HEADER = "x-failure-reason";
+    public static final String BATCH_LISTENER_CONTAINER_FACTORY = "batchListenerContainerFactory";
+    public static final String EMAIL_LISTENER_CONTAINER_FACTORY = "emailListenerContainerFactory";
+    public static final String EMAIL_LISTENER_ID = "emailListener";
+    public static final String VERIFICATION_LISTENER_CONTAINER_FACTORY = "verificationListenerContainerFactory";
+    public static final String VERIFICATION_LISTENER_ID = "verificationListener";
 
     @Bean
     public Queue emailQueue() {
-        return QueueBuilder.durable(EMAIL_QUEUE).build();
+        return QueueBuilder.durable(EMAIL_QUEUE)
+                .deadLetterExchange(EMAIL_RETRY_EXCHANGE)
+                .deadLetterRoutingKey(EMAIL_DEAD_LETTER_QUEUE)
+                .build();
+    }
+
+    @Bean
+    public Queue verificationQueue() {
+        return QueueBuilder.durable(VERIFICATION_QUEUE)
+                .deadLetterExchange(EMAIL_RETRY_EXCHANGE)
+                .deadLetterRoutingKey(EMAIL_DEAD_LETTER_QUEUE)
+                .build();
+    }
+
+    @Bean
+    public DirectExchange emailRetryExchange() {
+        return new DirectExchange(EMAIL_RETRY_EXCHANGE);
+    }
+
+    @Bean
+    public Declarables emailRetryQueues(NotificationProperties notificationProperties) {
+        return retryTopology(EMAIL_QUEUE, notificationProperties);
+    }
+
+    @Bean
+    public Declarables verificationRetryQueues(NotificationProperties notificationProperties) {
+        return retryTopology(VERIFICATION_QUEUE, notificationProperties);
+    }
+
+    @Bean
+    public Queue emailDeadLetterQueue() {
+        return QueueBuilder.durable(EMAIL_DEAD_LETTER_QUEUE).build();
+    }
+
+    @Bean
+    public Binding emailDeadLetterBinding() {
+        return BindingBuilder.bind(emailDeadLetterQueue()).to(emailRetryExchange()).with(EMAIL_DEAD_LETTER_QUEUE);
+    }
+
+    public static String queueFor(EmailMessage.EmailType type) {
+        return type == EmailMessage.EmailType.VERIFICATION ? VERIFICATION_QUEUE : EMAIL_QUEUE;
+    }
+
+    public static String retryQueueName(String queue, int attempt) {
+        return queue + ".retry." + attempt;
+    }
+
+    private Declarables retryTopology(String queue, NotificationProperties notificationProperties) {
+        List<Declarable> declarables = new ArrayList<>();
+        long delay = notificationProperties.getRetryInitialDelayMs();
+        for (int attempt = 1; attempt <= notificationProperties.getMaxRetries(); attempt++) {
+            Queue retryQueue = QueueBuilder.durable(retryQueueName(queue, attempt))
+                    .ttl((int) delay)
+                    .deadLetterExchange("")
+                    .deadLetterRoutingKey(queue)
+                    .build();
+            declarables.add(retryQueue);
+            declarables.add(BindingBuilder.bind(retryQueue).to(emailRetryExchange()).with(retryQueue.getName()));
+            delay = (long) (delay * notificationProperties.getRetryBackoffMultiplier());
+        }
+        return new Declarables(declarables);
     }
 
     @Bean
@@ -27,6 +103,43 @@ public class RabbitConfig {
         return template;
     }
 
+    @Bean(EMAIL_LISTENER_CONTAINER_FACTORY)
+    public SimpleRabbitListenerContainerFactory emailListenerContainerFactory(ConnectionFactory connectionFactory,
+                                                                             NotificationProperties notificationProperties) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        factory.setConnectionFactory(connectionFactory);
+        factory.setMessageConverter(jackson2JsonMessageConverter());
+        factory.setConcurrentConsumers(notificationProperties.getConsumerMinConcurrency());
+        factory.setPrefetchCount(notificationProperties.getConsumerMaxPrefetch());
+        return factory;
+    }
+
+    @Bean(VERIFICATION_LISTENER_CONTAINER_FACTORY)
+    public SimpleRabbitListenerContainerFactory verificationListenerContainerFactory(ConnectionFactory connectionFactory,
+                                                                                    NotificationProperties notificationProperties) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        factory.setConnectionFactory(connectionFactory);
+        factory.setMessageConverter(jackson2JsonMessageConverter());
+        factory.setConcurrentConsumers(notificationProperties.getVerificationConsumerConcurrency());
+        factory.setPrefetchCount(1);
+        return factory;
+    }
+
+    @Bean(BATCH_LISTENER_CONTAINER_FACTORY)
+    public SimpleRabbitListenerContainerFactory batchListenerContainerFactory(ConnectionFactory connectionFactory,
+                                                                             NotificationProperties notificationProperties) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        factory.setConnectionFactory(connectionFactory);
+        factory.setMessageConverter(jackson2JsonMessageConverter());
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(notificationProperties.getConsumerBatchSize());
+        factory.setPrefetchCount(notificationProperties.getConsumerBatchSize());
+        factory.setReceiveTimeout(notificationProperties.getConsumerBatchReceiveTimeoutMs());
+        factory.setAcknowledgeMode(AcknowledgeMode.MANUAL);
+        return factory;
+    }
+
     @Bean
     public Jackson2JsonMessageConverter jackson2JsonMessageConverter() {
         Jackson2JsonMessageConverter converter = new Jackson2JsonMessageConverter();
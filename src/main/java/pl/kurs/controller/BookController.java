@@ -2,21 +2,37 @@ package pl.kurs.controller;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import pl.kurs.dto.BookDto;
+import pl.kurs.dto.BulkImportResultDto;
+import pl.kurs.service.BookImportService;
 import pl.kurs.service.BookService;
 
+import java.io.InputStream;
+
 @RestController
 @RequestMapping("/books")
 @RequiredArgsConstructor
 public class BookController {
 
     private final BookService bookService;
+    private final BookImportService bookImportService;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     public BookDto createBook(@Validated @RequestBody BookDto bookDto) {
         return bookService.createBook(bookDto);
     }
+
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public BulkImportResultDto importBooksFromJson(InputStream body) {
+        return bookImportService.importJson(body);
+    }
+
+    @PostMapping(value = "/bulk", consumes = "text/csv")
+    public BulkImportResultDto importBooksFromCsv(InputStream body) {
+        return bookImportService.importCsv(body);
+    }
 }
@@ -2,18 +2,24 @@ package pl.kurs.controller;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import pl.kurs.dto.ClientDto;
+import pl.kurs.dto.ClientImportResultDto;
+import pl.kurs.service.ClientImportService;
 import pl.kurs.service.ClientService;
 
+import java.io.InputStream;
+
 @RestController
 @RequestMapping("/clients")
 @RequiredArgsConstructor
 public class ClientController {
 
     private final ClientService clientService;
+    private final ClientImportService clientImportService;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
@@ -21,6 +27,25 @@ public class ClientController {
         return clientService.registerClient(clientDto);
     }
 
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ClientImportResultDto importClientsFromNdjson(InputStream body) {
+        return clientImportService.importNdjson(body);
+    }
+
+    @PostMapping(value = "/bulk", consumes = "text/csv")
+    public ClientImportResultDto importClientsFromCsv(InputStream body) {
+        return clientImportService.importCsv(body);
+    }
+
+    @PostMapping("/{id}/verification")
+    public ResponseEntity<String> resendVerificationEmail(@PathVariable Long id) {
+        if (clientService.resendVerificationEmail(id)) {
+            return ResponseEntity.accepted().body("Verification email sent.");
+        } else {
+            return ResponseEntity.badRequest().body("Email is already verified.");
+        }
+    }
+
     @GetMapping("/verification")
     public ResponseEntity<String> verifyEmail(@RequestParam String token) {
         if (clientService.verifyEmail(token)) {
@@ -0,0 +1,22 @@
+package pl.kurs.controller;
+
+import jakarta.validation.constraints.Min;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import pl.kurs.service.EmailDeadLetterService;
+
+@RestController
+@RequestMapping("/admin/emails")
+@RequiredArgsConstructor
+public class EmailAdminController {
+
+    private final EmailDeadLetterService emailDeadLetterService;
+
+    @PostMapping("/dead-letters/replay")
+    public ResponseEntity<String> replayDeadLetters(
+            @RequestParam(defaultValue = "100") @Min(value = 1, message = "Limit must be greater than zero!") int limit) {
+        int replayed = emailDeadLetterService.replayDeadLetters(limit);
+        return ResponseEntity.ok("Replayed " + replayed + " dead-lettered emails");
+    }
+}
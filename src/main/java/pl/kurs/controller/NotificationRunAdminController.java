@@ -0,0 +1,33 @@
+package pl.kurs.controller;
+
+import jakarta.validation.constraints.Min;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import pl.kurs.dto.NotificationRunReportDto;
+import pl.kurs.dto.NotificationRunSummaryDto;
+import pl.kurs.service.NotificationRunReportService;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/admin/notification-runs")
+@RequiredArgsConstructor
+public class NotificationRunAdminController {
+
+    private final NotificationRunReportService notificationRunReportService;
+
+    @GetMapping
+    public ResponseEntity<List<NotificationRunSummaryDto>> getRecentRuns(
+            @RequestParam(defaultValue = "30") @Min(value = 1, message = "Limit must be greater than zero!") int limit) {
+        return ResponseEntity.ok(notificationRunReportService.findRecentRuns(limit));
+    }
+
+    @GetMapping("/{date}")
+    public ResponseEntity<NotificationRunReportDto> getRun(
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return ResponseEntity.ok(notificationRunReportService.findRun(date));
+    }
+}
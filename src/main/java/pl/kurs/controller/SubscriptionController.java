@@ -3,18 +3,25 @@ package pl.kurs.controller;
 import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import pl.kurs.dto.SubscriptionBulkCancelResultDto;
+import pl.kurs.dto.SubscriptionBulkCreateResultDto;
 import pl.kurs.dto.SubscriptionDto;
+import pl.kurs.service.SubscriptionBulkService;
 import pl.kurs.service.SubscriptionService;
 
+import java.io.InputStream;
+
 @RestController
 @RequestMapping("/subscriptions")
 @RequiredArgsConstructor
 public class SubscriptionController {
 
     private final SubscriptionService subscriptionService;
+    private final SubscriptionBulkService subscriptionBulkService;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
@@ -28,4 +35,14 @@ public class SubscriptionController {
         subscriptionService.cancelSubscriptionById(id);
         return ResponseEntity.ok("Subscription cancelled");
     }
+
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public SubscriptionBulkCreateResultDto createSubscriptions(InputStream body) {
+        return subscriptionBulkService.createSubscriptions(body);
+    }
+
+    @DeleteMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public SubscriptionBulkCancelResultDto cancelSubscriptions(InputStream body) {
+        return subscriptionBulkService.cancelSubscriptions(body);
+    }
 }
@@ -0,0 +1,18 @@
+package pl.kurs.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class BulkImportResultDto {
+    private int importedCount;
+    private int failedCount;
+    private List<BulkRowErrorDto> errors;
+}
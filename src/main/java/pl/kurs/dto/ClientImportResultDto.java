@@ -0,0 +1,20 @@
+package pl.kurs.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class ClientImportResultDto {
+    private int importedCount;
+    private int failedCount;
+    private int verificationEmailsQueued;
+    private List<Long> verificationPendingClientIds;
+    private List<BulkRowErrorDto> errors;
+}
@@ -0,0 +1,26 @@
+package pl.kurs.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class NotificationBatchReportDto {
+    private long afterClientId;
+    private long lastClientId;
+    private String owner;
+    private int fetchedCount;
+    private int processedCount;
+    private int failedCount;
+    private long queryTimeMs;
+    private long renderTimeMs;
+    private long publishTimeMs;
+    private long totalTimeMs;
+    private LocalDateTime recordedAt;
+}
@@ -0,0 +1,18 @@
+package pl.kurs.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@AllArgsConstructor
+@Getter
+public class NotificationBatchResult {
+    private int fetchedCount;
+    private int processedCount;
+    private int failedCount;
+    private int unconfirmedCount;
+    private long lastClientId;
+    private long queryNanos;
+    private long renderNanos;
+    private long publishNanos;
+    private long totalNanos;
+}
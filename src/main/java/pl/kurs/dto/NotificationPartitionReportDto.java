@@ -0,0 +1,28 @@
+package pl.kurs.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class NotificationPartitionReportDto {
+    private int partitionIndex;
+    private long fromClientId;
+    private long toClientId;
+    private long lastClientId;
+    private String state;
+    private String owner;
+    private int processedCount;
+    private int failedCount;
+    private String error;
+    private LocalDateTime startedAt;
+    private LocalDateTime updatedAt;
+    private List<NotificationBatchReportDto> batches;
+}
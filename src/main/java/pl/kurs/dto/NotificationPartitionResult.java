@@ -0,0 +1,18 @@
+package pl.kurs.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@AllArgsConstructor
+@Getter
+public class NotificationPartitionResult {
+    private int partition;
+    private long fromClientId;
+    private long toClientId;
+    private int processedCount;
+    private String error;
+
+    public boolean isFailed() {
+        return error != null;
+    }
+}
@@ -0,0 +1,17 @@
+package pl.kurs.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class NotificationRunReportDto {
+    private NotificationRunSummaryDto summary;
+    private List<NotificationPartitionReportDto> partitions;
+}
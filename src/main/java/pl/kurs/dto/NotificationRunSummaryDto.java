@@ -0,0 +1,30 @@
+package pl.kurs.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class NotificationRunSummaryDto {
+    private LocalDate runDate;
+    private String state;
+    private int partitionCount;
+    private int completedPartitions;
+    private int failedPartitions;
+    private long processedCount;
+    private long failedCount;
+    private long batchCount;
+    private long queryTimeMs;
+    private long renderTimeMs;
+    private long publishTimeMs;
+    private long batchTimeMs;
+    private LocalDateTime startedAt;
+    private LocalDateTime updatedAt;
+}
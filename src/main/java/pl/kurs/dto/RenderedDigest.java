@@ -0,0 +1,11 @@
+package pl.kurs.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@AllArgsConstructor
+@Getter
+public class RenderedDigest {
+    private String text;
+    private String html;
+}
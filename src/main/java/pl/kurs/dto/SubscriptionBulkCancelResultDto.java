@@ -0,0 +1,19 @@
+package pl.kurs.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class SubscriptionBulkCancelResultDto {
+    private int cancelledCount;
+    private int notFoundCount;
+    private int rejectedCount;
+    private List<BulkRowErrorDto> errors;
+}
@@ -0,0 +1,19 @@
+package pl.kurs.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class SubscriptionBulkCreateResultDto {
+    private int createdCount;
+    private int existingCount;
+    private int rejectedCount;
+    private List<BulkRowErrorDto> errors;
+}
@@ -0,0 +1,26 @@
+package pl.kurs.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import lombok.With;
+import pl.kurs.entity.SubscriptionType;
+
+@AllArgsConstructor
+@Getter
+@EqualsAndHashCode
+@ToString
+public class SubscriptionKey {
+    private long clientId;
+    private SubscriptionType subscriptionType;
+    private String subscriptionValue;
+
+    @With
+    @EqualsAndHashCode.Exclude
+    private Long targetId;
+
+    public SubscriptionKey(long clientId, SubscriptionType subscriptionType, String subscriptionValue) {
+        this(clientId, subscriptionType, subscriptionValue, null);
+    }
+}
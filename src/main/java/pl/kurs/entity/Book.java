@@ -9,7 +9,10 @@ import java.time.LocalDate;
 @Table(name = "books",indexes = {
         @Index(name = "idx_book_author", columnList = "author"),
         @Index(name = "idx_book_category", columnList = "book_category"),
-        @Index(name = "idx_book_added_date", columnList = "added_date")
+        @Index(name = "idx_book_added_date", columnList = "added_date"),
+        @Index(name = "idx_book_added_date_author", columnList = "added_date, author"),
+        @Index(name = "idx_book_added_date_category", columnList = "added_date, book_category"),
+        @Index(name = "idx_book_added_date_author_id", columnList = "added_date, author_id")
 })
 @Data
 @Builder
@@ -17,12 +20,16 @@ import java.time.LocalDate;
 @AllArgsConstructor
 public class Book {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "books_id_seq")
+    @SequenceGenerator(name = "books_id_seq", sequenceName = "books_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
     private String author;
 
+    @Column(name = "author_id")
+    private Long authorId;
+
     @Column(nullable = false)
     private String title;
 
@@ -0,0 +1,36 @@
+package pl.kurs.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "digest_bodies",
+        indexes = @Index(name = "idx_digest_body_date", columnList = "digest_date"))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DigestBody {
+    @Id
+    @Column(name = "digest_key", length = 64)
+    private String digestKey;
+
+    @Column(name = "digest_date", nullable = false)
+    private LocalDate digestDate;
+
+    @Column(name = "text_content", nullable = false, columnDefinition = "TEXT")
+    private String textContent;
+
+    @Column(name = "html_content", columnDefinition = "TEXT")
+    private String htmlContent;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+}
@@ -0,0 +1,65 @@
+package pl.kurs.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "notification_runs",
+        uniqueConstraints = @UniqueConstraint(name = "uk_notification_run_partition", columnNames = {"run_date", "partition_index"}),
+        indexes = @Index(name = "idx_notification_run_state_date", columnList = "state, run_date"))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationRun {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "run_date", nullable = false)
+    private LocalDate runDate;
+
+    @Column(name = "partition_index", nullable = false)
+    private int partitionIndex;
+
+    @Column(name = "from_client_id", nullable = false)
+    private long fromClientId;
+
+    @Column(name = "to_client_id", nullable = false)
+    private long toClientId;
+
+    @Column(name = "last_client_id", nullable = false)
+    private long lastClientId;
+
+    @Column(name = "processed_count", nullable = false)
+    private int processedCount;
+
+    @Column(name = "failed_count", nullable = false)
+    private int failedCount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private NotificationRunState state;
+
+    @Column(length = 1000)
+    private String error;
+
+    @Column(length = 100)
+    private String owner;
+
+    @Column(name = "lease_expires_at")
+    private LocalDateTime leaseExpiresAt;
+
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+}
@@ -0,0 +1,62 @@
+package pl.kurs.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "notification_run_batches",
+        indexes = {
+                @Index(name = "idx_notification_run_batch_run", columnList = "run_id, id"),
+                @Index(name = "idx_notification_run_batch_recorded_at", columnList = "recorded_at")
+        })
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationRunBatch {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "run_id", nullable = false)
+    private Long runId;
+
+    @Column(length = 100)
+    private String owner;
+
+    @Column(name = "after_client_id", nullable = false)
+    private long afterClientId;
+
+    @Column(name = "last_client_id", nullable = false)
+    private long lastClientId;
+
+    @Column(name = "fetched_count", nullable = false)
+    private int fetchedCount;
+
+    @Column(name = "processed_count", nullable = false)
+    private int processedCount;
+
+    @Column(name = "failed_count", nullable = false)
+    private int failedCount;
+
+    @Column(name = "query_time_ms", nullable = false)
+    private long queryTimeMs;
+
+    @Column(name = "render_time_ms", nullable = false)
+    private long renderTimeMs;
+
+    @Column(name = "publish_time_ms", nullable = false)
+    private long publishTimeMs;
+
+    @Column(name = "total_time_ms", nullable = false)
+    private long totalTimeMs;
+
+    @Column(name = "recorded_at", nullable = false)
+    private LocalDateTime recordedAt;
+
+}
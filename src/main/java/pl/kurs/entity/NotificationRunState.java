@@ -0,0 +1,8 @@
+package pl.kurs.entity;
+
+public enum NotificationRunState {
+    PENDING,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,25 @@
+package pl.kurs.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "pending_book_notifications")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PendingBookNotification {
+    @Id
+    @Column(name = "book_id")
+    private Long bookId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+}
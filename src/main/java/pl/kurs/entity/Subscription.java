@@ -11,7 +11,8 @@ import lombok.NoArgsConstructor;
         uniqueConstraints = @UniqueConstraint(columnNames = {"client_id", "subscription_type", "subscription_value"}),
         indexes = {
                 @Index(name = "idx_subscription_type_value", columnList = "subscription_type, subscription_value"),
-                @Index(name = "idx_subscription_client", columnList = "client_id")
+                @Index(name = "idx_subscription_client", columnList = "client_id"),
+                @Index(name = "idx_subscription_type_target_client", columnList = "subscription_type, target_id, client_id")
         })
 @Data
 @Builder
@@ -33,4 +34,7 @@ public class Subscription {
     @Column(name = "subscription_value", nullable = false)
     private String subscriptionValue;
 
+    @Column(name = "target_id")
+    private Long targetId;
+
 }
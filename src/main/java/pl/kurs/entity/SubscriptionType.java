@@ -4,6 +4,8 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import pl.kurs.exception.ResourceNotFoundException;
 
+import java.util.Optional;
+
 @AllArgsConstructor
 @Getter
 public enum SubscriptionType {
@@ -17,10 +19,19 @@ public enum SubscriptionType {
             throw new ResourceNotFoundException("Subscription type cannot be empty.");
         }
 
+        return parse(subscriptionType)
+                .orElseThrow(() -> new ResourceNotFoundException("Unknown subscription type: " + subscriptionType));
+    }
+
+    public static Optional<SubscriptionType> parse(String subscriptionType) {
+        if (subscriptionType == null) {
+            return Optional.empty();
+        }
+
         return switch (subscriptionType.trim().toUpperCase()) {
-            case "CATEGORY" -> CATEGORY;
-            case "AUTHOR" -> AUTHOR;
-            default -> throw new ResourceNotFoundException("Unknown subscription type: " + subscriptionType);
+            case "CATEGORY" -> Optional.of(CATEGORY);
+            case "AUTHOR" -> Optional.of(AUTHOR);
+            default -> Optional.empty();
         };
     }
 
@@ -33,6 +33,12 @@ public class GlobalHandlerException {
         return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY.value()).body(response);
     }
 
+    @ExceptionHandler(InvalidImportFormatException.class)
+    public ResponseEntity<ExceptionResponseDto> handleInvalidImportFormatException(InvalidImportFormatException exception) {
+        ExceptionResponseDto response = new ExceptionResponseDto(exception.getMessage(), HttpStatus.BAD_REQUEST.toString(), LocalDateTime.now());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST.value()).body(response);
+    }
+
     @ExceptionHandler(DataIntegrityViolationException.class)
     public ResponseEntity<ExceptionResponseDto> handleDataIntegrityViolationException(DataIntegrityViolationException exception) {
         String message = exception.getMessage();
@@ -0,0 +1,11 @@
+package pl.kurs.exception;
+
+public class InvalidImportFormatException extends RuntimeException {
+    public InvalidImportFormatException(String message) {
+        super(message);
+    }
+
+    public InvalidImportFormatException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,102 @@
+package pl.kurs.importer;
+
+import pl.kurs.exception.InvalidImportFormatException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public final class CsvImportReader {
+
+    private CsvImportReader() {
+    }
+
+    public static void read(InputStream input, List<String> requiredColumns, ImportRowHandler<Map<String, String>> handler) {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            List<String> header = readRecord(reader);
+            if (header == null) {
+                throw new InvalidImportFormatException("CSV header is missing");
+            }
+            header.replaceAll(String::trim);
+            for (String column : requiredColumns) {
+                if (!header.contains(column)) {
+                    throw new InvalidImportFormatException("CSV header must contain column: " + column);
+                }
+            }
+
+            long rowNumber = 0;
+            List<String> record;
+            while ((record = readRecord(reader)) != null) {
+                if (record.size() == 1 && record.get(0).isBlank()) {
+                    continue;
+                }
+                rowNumber++;
+                if (record.size() != header.size()) {
+                    handler.reject(rowNumber, "Expected " + header.size() + " columns but got " + record.size());
+                    continue;
+                }
+
+                Map<String, String> row = new HashMap<>(header.size() * 2);
+                for (int i = 0; i < header.size(); i++) {
+                    String value = record.get(i).trim();
+                    row.put(header.get(i), value.isEmpty() ? null : value);
+                }
+                handler.accept(rowNumber, row);
+            }
+        } catch (IOException e) {
+            throw new InvalidImportFormatException("Could not read import body", e);
+        }
+    }
+
+    private static List<String> readRecord(BufferedReader reader) throws IOException {
+        String line = reader.readLine();
+        if (line == null) {
+            return null;
+        }
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        while (true) {
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+                if (quoted) {
+                    if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else if (c == '"') {
+                        quoted = false;
+                    } else {
+                        field.append(c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else {
+                    field.append(c);
+                }
+            }
+
+            if (!quoted) {
+                break;
+            }
+            line = reader.readLine();
+            if (line == null) {
+                throw new InvalidImportFormatException("Unterminated quoted field in CSV");
+            }
+            field.append('\n');
+        }
+
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,8 @@
+package pl.kurs.importer;
+
+public interface ImportRowHandler<T> {
+
+    void accept(long rowNumber, T row);
+
+    void reject(long rowNumber, String message);
+}
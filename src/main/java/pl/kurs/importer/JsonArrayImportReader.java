@@ -0,0 +1,48 @@
+package pl.kurs.importer;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import pl.kurs.exception.InvalidImportFormatException;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public final class JsonArrayImportReader {
+
+    private JsonArrayImportReader() {
+    }
+
+    public static <T> void read(ObjectMapper objectMapper, InputStream input, Class<T> rowType, ImportRowHandler<T> handler) {
+        try (JsonParser parser = objectMapper.createParser(input)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new InvalidImportFormatException("Expected a JSON array");
+            }
+
+            long rowNumber = 0;
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token == null) {
+                    throw new InvalidImportFormatException("Unexpected end of JSON array after row " + rowNumber);
+                }
+                rowNumber++;
+                JsonNode node = parser.readValueAsTree();
+                if (!node.isObject()) {
+                    handler.reject(rowNumber, "Row must be a JSON object");
+                    continue;
+                }
+                try {
+                    handler.accept(rowNumber, objectMapper.treeToValue(node, rowType));
+                } catch (JsonProcessingException e) {
+                    handler.reject(rowNumber, "Malformed row: " + e.getOriginalMessage());
+                }
+            }
+        } catch (JsonProcessingException e) {
+            throw new InvalidImportFormatException("Malformed JSON: " + e.getOriginalMessage(), e);
+        } catch (IOException e) {
+            throw new InvalidImportFormatException("Could not read import body", e);
+        }
+    }
+}
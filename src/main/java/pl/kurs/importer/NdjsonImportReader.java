@@ -0,0 +1,37 @@
+package pl.kurs.importer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import pl.kurs.exception.InvalidImportFormatException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+public final class NdjsonImportReader {
+
+    private NdjsonImportReader() {
+    }
+
+    public static <T> void read(ObjectMapper objectMapper, InputStream input, Class<T> rowType, ImportRowHandler<T> handler) {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            long rowNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                rowNumber++;
+                try {
+                    handler.accept(rowNumber, objectMapper.readValue(line, rowType));
+                } catch (JsonProcessingException e) {
+                    handler.reject(rowNumber, "Malformed row: " + e.getOriginalMessage());
+                }
+            }
+        } catch (IOException e) {
+            throw new InvalidImportFormatException("Could not read import body", e);
+        }
+    }
+}
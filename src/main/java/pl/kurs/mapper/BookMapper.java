@@ -10,6 +10,7 @@ public interface BookMapper {
 
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "category", ignore = true)
+    @Mapping(target = "authorId", ignore = true)
     Book dtoToEntity(BookDto dto);
 
     @Mapping(target = "categoryId", source = "category.id")
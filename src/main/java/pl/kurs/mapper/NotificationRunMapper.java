@@ -0,0 +1,18 @@
+package pl.kurs.mapper;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import pl.kurs.dto.NotificationBatchReportDto;
+import pl.kurs.dto.NotificationPartitionReportDto;
+import pl.kurs.entity.NotificationRun;
+import pl.kurs.entity.NotificationRunBatch;
+
+@Mapper(componentModel = "spring")
+public interface NotificationRunMapper {
+
+    @Mapping(target = "batches", ignore = true)
+    NotificationPartitionReportDto entityToDto(NotificationRun entity);
+
+    NotificationBatchReportDto entityToDto(NotificationRunBatch entity);
+
+}
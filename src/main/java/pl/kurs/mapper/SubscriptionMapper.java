@@ -13,5 +13,6 @@ public interface SubscriptionMapper {
     SubscriptionDto entityToDto(Subscription entity);
 
     @Mapping(target = "client", ignore = true)
+    @Mapping(target = "targetId", ignore = true)
     Subscription dtoToEntity(SubscriptionDto dto);
 }
@@ -0,0 +1,126 @@
+package pl.kurs.messaging.consumer;
+
+import com.rabbitmq.client.Channel;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.messaging.Message;
+import org.springframework.stereotype.Component;
+import pl.kurs.config.RabbitConfig;
+import pl.kurs.dto.RenderedDigest;
+import pl.kurs.messaging.dto.EmailMessage;
+import pl.kurs.messaging.producer.EmailRetryPublisher;
+import pl.kurs.metrics.NotificationMetrics;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@Component
+@ConditionalOnProperty(name = "notification.consumer-mode", havingValue = "batch")
+@RequiredArgsConstructor
+@Slf4j
+public class EmailBatchConsumer {
+    private static final String SEND_MODE = "batch";
+
+    private final JavaMailSender mailSender;
+    private final EmailRetryPublisher emailRetryPublisher;
+    private final NotificationMetrics notificationMetrics;
+    private final EmailContentResolver emailContentResolver;
+    private final SmtpLatencyTracker smtpLatencyTracker;
+
+    @RabbitListener(queues = RabbitConfig.EMAIL_QUEUE, containerFactory = RabbitConfig.BATCH_LISTENER_CONTAINER_FACTORY)
+    public void handleEmailBatch(List<Message<EmailMessage>> deliveries, Channel channel) throws IOException {
+        MimeMessage[] mails = new MimeMessage[deliveries.size()];
+        Exception[] failures = new Exception[deliveries.size()];
+        List<MimeMessage> sendable = new ArrayList<>(deliveries.size());
+        for (int i = 0; i < deliveries.size(); i++) {
+            try {
+                mails[i] = createMimeMessage(deliveries.get(i).getPayload());
+                sendable.add(mails[i]);
+            } catch (MessagingException | RuntimeException e) {
+                failures[i] = e;
+            }
+        }
+
+        Map<Object, Exception> failedMails = Map.of();
+        Exception batchFailure = null;
+        long start = System.nanoTime();
+        try {
+            if (!sendable.isEmpty()) {
+                mailSender.send(sendable.toArray(new MimeMessage[0]));
+            }
+        } catch (MailSendException e) {
+            failedMails = e.getFailedMessages();
+            if (failedMails.isEmpty()) {
+                batchFailure = e;
+            }
+        } catch (Exception e) {
+            batchFailure = e;
+        }
+        if (!sendable.isEmpty()) {
+            long sendNanos = System.nanoTime() - start;
+            notificationMetrics.recordSend(SEND_MODE, sendNanos);
+            smtpLatencyTracker.record(sendNanos, sendable.size());
+        }
+
+        int sent = 0;
+        for (int i = 0; i < deliveries.size(); i++) {
+            EmailMessage emailMessage = deliveries.get(i).getPayload();
+            long deliveryTag = deliveries.get(i).getHeaders().get(AmqpHeaders.DELIVERY_TAG, Long.class);
+            Integer retryCount = deliveries.get(i).getHeaders().get(RabbitConfig.RETRY_COUNT_HEADER, Integer.class);
+            int attempts = retryCount != null ? retryCount : 0;
+            Exception failure = failures[i];
+            if (failure == null) {
+                failure = batchFailure != null ? batchFailure : failedMails.get(mails[i]);
+            }
+
+            if (failure == null) {
+                channel.basicAck(deliveryTag, false);
+                notificationMetrics.emailSent(emailMessage.getType());
+                sent++;
+                continue;
+            }
+
+            notificationMetrics.emailFailed(emailMessage.getType());
+            log.error("Failed to send email to: {} (type: {}), retry count: {}",
+                    emailMessage.getTo(), emailMessage.getType(), attempts, failure);
+
+            try {
+                emailRetryPublisher.retryOrDeadLetter(RabbitConfig.EMAIL_QUEUE, emailMessage, attempts, failure);
+                channel.basicAck(deliveryTag, false);
+            } catch (AmqpException e) {
+                log.error("Could not schedule retry for email to: {}, rejecting it to the dead letter queue",
+                        emailMessage.getTo(), e);
+                channel.basicNack(deliveryTag, false, false);
+            }
+        }
+
+        log.info("Email batch processed. Sent: {}, failed: {}", sent, deliveries.size() - sent);
+    }
+
+    private MimeMessage createMimeMessage(EmailMessage emailMessage) throws MessagingException {
+        RenderedDigest content = emailContentResolver.resolve(emailMessage);
+        MimeMessage mail = mailSender.createMimeMessage();
+        boolean multipart = content.getHtml() != null;
+        MimeMessageHelper helper = new MimeMessageHelper(mail, multipart, StandardCharsets.UTF_8.name());
+        helper.setTo(emailMessage.getTo());
+        helper.setSubject(emailMessage.getSubject());
+        if (multipart) {
+            helper.setText(content.getText(), content.getHtml());
+        } else {
+            helper.setText(content.getText());
+        }
+        return mail;
+    }
+}
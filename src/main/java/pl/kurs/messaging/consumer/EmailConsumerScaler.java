@@ -0,0 +1,94 @@
+package pl.kurs.messaging.consumer;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.QueueInformation;
+import org.springframework.amqp.rabbit.listener.MessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import pl.kurs.config.NotificationProperties;
+import pl.kurs.config.RabbitConfig;
+
+@Component
+@ConditionalOnProperty(name = "notification.consumer-mode", havingValue = "single", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class EmailConsumerScaler {
+    private final RabbitListenerEndpointRegistry rabbitListenerEndpointRegistry;
+    private final AmqpAdmin amqpAdmin;
+    private final SmtpLatencyTracker smtpLatencyTracker;
+    private final NotificationProperties notificationProperties;
+
+    private int consumers;
+    private int prefetch;
+
+    @Scheduled(fixedDelayString = "${notification.consumer-scaling-interval-ms:10000}",
+            initialDelayString = "${notification.consumer-scaling-interval-ms:10000}")
+    public void adjustConsumers() {
+        MessageListenerContainer listenerContainer =
+                rabbitListenerEndpointRegistry.getListenerContainer(RabbitConfig.EMAIL_LISTENER_ID);
+        if (!(listenerContainer instanceof SimpleMessageListenerContainer container) || !container.isRunning()) {
+            return;
+        }
+        if (consumers == 0) {
+            consumers = notificationProperties.getConsumerMinConcurrency();
+            prefetch = notificationProperties.getConsumerMaxPrefetch();
+        }
+
+        QueueInformation queue;
+        try {
+            queue = amqpAdmin.getQueueInfo(RabbitConfig.EMAIL_QUEUE);
+        } catch (AmqpException e) {
+            log.debug("Could not read depth of {}, keeping {} consumers", RabbitConfig.EMAIL_QUEUE, consumers, e);
+            return;
+        }
+        if (queue == null) {
+            return;
+        }
+
+        double latencyMillis = smtpLatencyTracker.hasSamples() ? smtpLatencyTracker.getAverageMillis() : 0;
+        int targetPrefetch = targetPrefetch(prefetch, latencyMillis, notificationProperties);
+        int targetConsumers = targetConsumers(consumers, queue.getMessageCount(), latencyMillis, targetPrefetch,
+                notificationProperties);
+
+        if (targetPrefetch != prefetch) {
+            container.setPrefetchCount(targetPrefetch);
+            prefetch = targetPrefetch;
+        }
+        if (targetConsumers != consumers) {
+            log.info("Scaling email consumers from {} to {} (queue depth: {}, SMTP latency: {} ms, prefetch: {})",
+                    consumers, targetConsumers, queue.getMessageCount(), Math.round(latencyMillis), prefetch);
+            container.setConcurrentConsumers(targetConsumers);
+            consumers = targetConsumers;
+        }
+    }
+
+    static int targetConsumers(int current, long queueDepth, double latencyMillis, int prefetch,
+                               NotificationProperties properties) {
+        int min = properties.getConsumerMinConcurrency();
+        int max = Math.max(min, properties.getConsumerMaxConcurrency());
+        if (queueDepth == 0) {
+            return Math.max(min, current / 2);
+        }
+        if (latencyMillis > properties.getSmtpLatencyCeilingMs()) {
+            return Math.max(min, current - Math.max(1, current / 4));
+        }
+        if (queueDepth > (long) current * prefetch) {
+            return Math.min(max, current + 1);
+        }
+        return Math.min(max, Math.max(min, current));
+    }
+
+    static int targetPrefetch(int current, double latencyMillis, NotificationProperties properties) {
+        if (latencyMillis <= 0) {
+            return current;
+        }
+        long covered = Math.round(properties.getConsumerPrefetchWindowMs() / latencyMillis);
+        return (int) Math.max(1, Math.min(properties.getConsumerMaxPrefetch(), covered));
+    }
+}
@@ -0,0 +1,25 @@
+package pl.kurs.messaging.consumer;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import pl.kurs.dto.RenderedDigest;
+import pl.kurs.messaging.dto.EmailMessage;
+import pl.kurs.service.DigestBodyStore;
+
+@Component
+@RequiredArgsConstructor
+public class EmailContentResolver {
+    private final DigestBodyStore digestBodyStore;
+
+    public RenderedDigest resolve(EmailMessage emailMessage) {
+        if (emailMessage.getDigestKey() == null) {
+            return new RenderedDigest(emailMessage.getContent(), emailMessage.getHtmlContent());
+        }
+
+        RenderedDigest body = digestBodyStore.findBody(emailMessage.getDigestKey());
+        if (body == null) {
+            throw new IllegalStateException("Digest body " + emailMessage.getDigestKey() + " is no longer stored");
+        }
+        return body;
+    }
+}
@@ -0,0 +1,83 @@
+package pl.kurs.messaging.consumer;
+
+import jakarta.mail.internet.MimeMessage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.AmqpRejectAndDontRequeueException;
+import org.springframework.mail.MailException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Component;
+import pl.kurs.config.RabbitConfig;
+import pl.kurs.dto.RenderedDigest;
+import pl.kurs.messaging.dto.EmailMessage;
+import pl.kurs.messaging.producer.EmailRetryPublisher;
+import pl.kurs.metrics.NotificationMetrics;
+
+import java.nio.charset.StandardCharsets;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EmailDeliveryHandler {
+    private static final String SEND_MODE = "single";
+
+    private final JavaMailSender mailSender;
+    private final EmailRetryPublisher emailRetryPublisher;
+    private final NotificationMetrics notificationMetrics;
+    private final EmailContentResolver emailContentResolver;
+    private final SmtpLatencyTracker smtpLatencyTracker;
+
+    public void deliver(EmailMessage emailMessage, String sourceQueue, int retryCount) {
+        long start = System.nanoTime();
+        try {
+            RenderedDigest content = emailContentResolver.resolve(emailMessage);
+            if (content.getHtml() != null) {
+                MimeMessage message = mailSender.createMimeMessage();
+                MimeMessageHelper helper = new MimeMessageHelper(message, true, StandardCharsets.UTF_8.name());
+                helper.setTo(emailMessage.getTo());
+                helper.setSubject(emailMessage.getSubject());
+                helper.setText(content.getText(), content.getHtml());
+
+                mailSender.send(message);
+            } else {
+                SimpleMailMessage message = new SimpleMailMessage();
+                message.setTo(emailMessage.getTo());
+                message.setSubject(emailMessage.getSubject());
+                message.setText(content.getText());
+
+                mailSender.send(message);
+            }
+
+            long sendNanos = System.nanoTime() - start;
+            notificationMetrics.recordSend(SEND_MODE, sendNanos);
+            recordScalingLatency(sourceQueue, sendNanos);
+            notificationMetrics.emailSent(emailMessage.getType());
+            log.info("Email sent successfully to: {} (type: {})",
+                    emailMessage.getTo(), emailMessage.getType());
+
+        } catch (Exception e) {
+            if (e instanceof MailException) {
+                recordScalingLatency(sourceQueue, System.nanoTime() - start);
+            }
+            notificationMetrics.emailFailed(emailMessage.getType());
+            log.error("Failed to send email to: {} (type: {}), retry count: {}",
+                    emailMessage.getTo(), emailMessage.getType(), retryCount, e);
+
+            try {
+                emailRetryPublisher.retryOrDeadLetter(sourceQueue, emailMessage, retryCount, e);
+            } catch (AmqpException retryFailure) {
+                throw new AmqpRejectAndDontRequeueException(
+                        "Could not schedule retry for email to: " + emailMessage.getTo(), retryFailure);
+            }
+        }
+    }
+
+    private void recordScalingLatency(String sourceQueue, long nanos) {
+        if (RabbitConfig.EMAIL_QUEUE.equals(sourceQueue)) {
+            smtpLatencyTracker.record(nanos, 1);
+        }
+    }
+}
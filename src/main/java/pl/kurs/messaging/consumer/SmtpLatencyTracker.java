@@ -0,0 +1,30 @@
+package pl.kurs.messaging.consumer;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class SmtpLatencyTracker {
+    private static final double SMOOTHING = 0.2;
+
+    private double averageMillis;
+    private boolean sampled;
+
+    public synchronized void record(long nanos, int messages) {
+        if (messages < 1) {
+            return;
+        }
+        double perMessage = (double) nanos / TimeUnit.MILLISECONDS.toNanos(1) / messages;
+        averageMillis = sampled ? averageMillis + SMOOTHING * (perMessage - averageMillis) : perMessage;
+        sampled = true;
+    }
+
+    public synchronized double getAverageMillis() {
+        return averageMillis;
+    }
+
+    public synchronized boolean hasSamples() {
+        return sampled;
+    }
+}
@@ -0,0 +1,21 @@
+package pl.kurs.messaging.consumer;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.stereotype.Component;
+import pl.kurs.config.RabbitConfig;
+import pl.kurs.messaging.dto.EmailMessage;
+
+@Component
+@RequiredArgsConstructor
+public class VerificationEmailConsumer {
+    private final EmailDeliveryHandler emailDeliveryHandler;
+
+    @RabbitListener(id = RabbitConfig.VERIFICATION_LISTENER_ID, queues = RabbitConfig.VERIFICATION_QUEUE,
+            containerFactory = RabbitConfig.VERIFICATION_LISTENER_CONTAINER_FACTORY)
+    public void handleVerificationEmail(EmailMessage emailMessage,
+                                        @Header(name = RabbitConfig.RETRY_COUNT_HEADER, defaultValue = "0") int retryCount) {
+        emailDeliveryHandler.deliver(emailMessage, RabbitConfig.VERIFICATION_QUEUE, retryCount);
+    }
+}
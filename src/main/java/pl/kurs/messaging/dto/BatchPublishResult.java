@@ -0,0 +1,17 @@
+package pl.kurs.messaging.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@AllArgsConstructor
+@Getter
+public class BatchPublishResult {
+    private int ackedCount;
+    private List<EmailMessage> failed;
+
+    public int getFailedCount() {
+        return failed.size();
+    }
+}
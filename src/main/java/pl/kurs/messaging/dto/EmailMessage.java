@@ -1,5 +1,6 @@
 package pl.kurs.messaging.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -9,10 +10,13 @@ import lombok.NoArgsConstructor;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class EmailMessage {
     private String to;
     private String subject;
     private String content;
+    private String htmlContent;
+    private String digestKey;
     private EmailType type;
     private int retryCount = 0;
 
@@ -2,12 +2,25 @@ package pl.kurs.messaging.producer;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import pl.kurs.config.NotificationProperties;
 import pl.kurs.config.RabbitConfig;
+import pl.kurs.messaging.dto.BatchPublishResult;
 import pl.kurs.messaging.dto.EmailMessage;
+import pl.kurs.metrics.NotificationMetrics;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 @Service
 @Slf4j
@@ -15,18 +28,13 @@ import pl.kurs.messaging.dto.EmailMessage;
 public class EmailProducer {
     private final RabbitTemplate rabbitTemplate;
     private final NotificationProperties notificationProperties;
+    private final NotificationMetrics notificationMetrics;
 
     @Async("emailExecutor")
     public void sendVerificationEmail(String email, String token) {
-        EmailMessage message = EmailMessage.builder()
-                .to(email)
-                .subject("Confirm your email address!")
-                .content("Click the link to confirm your email: " +
-                         notificationProperties.getVerificationUrl() + token)
-                .type(EmailMessage.EmailType.VERIFICATION)
-                .build();
+        EmailMessage message = createVerificationEmail(email, token);
 
-        rabbitTemplate.convertAndSend(RabbitConfig.EMAIL_QUEUE, message);
+        publish(message);
         log.info("Email message queued for: {}", email);
     }
 
@@ -39,8 +47,97 @@ public class EmailProducer {
                 .type(EmailMessage.EmailType.NEW_BOOK_NOTIFICATION)
                 .build();
 
-        rabbitTemplate.convertAndSend(RabbitConfig.EMAIL_QUEUE, message);
+        publish(message);
         log.info("Daily book list queued for: {}", email);
     }
 
+    private void publish(EmailMessage message) {
+        try {
+            rabbitTemplate.convertAndSend(RabbitConfig.queueFor(message.getType()), message);
+        } catch (AmqpException e) {
+            notificationMetrics.emailsPublishFailed(message.getType(), 1);
+            throw e;
+        }
+        notificationMetrics.emailsQueued(message.getType(), 1);
+    }
+
+    public EmailMessage createVerificationEmail(String email, String token) {
+        return EmailMessage.builder()
+                .to(email)
+                .subject("Confirm your email address!")
+                .content("Click the link to confirm your email: " +
+                         notificationProperties.getVerificationUrl() + token)
+                .type(EmailMessage.EmailType.VERIFICATION)
+                .build();
+    }
+
+    public BatchPublishResult publishBatch(List<EmailMessage> messages) {
+        if (messages.isEmpty()) {
+            return new BatchPublishResult(0, List.of());
+        }
+
+        List<CorrelationData> confirmations;
+        try {
+            String batchId = UUID.randomUUID().toString();
+            confirmations = rabbitTemplate.invoke(operations -> {
+                List<CorrelationData> published = new ArrayList<>(messages.size());
+                for (int i = 0; i < messages.size(); i++) {
+                    CorrelationData correlationData = new CorrelationData(batchId + "-" + i);
+                    EmailMessage message = messages.get(i);
+                    operations.convertAndSend("", RabbitConfig.queueFor(message.getType()), message, correlationData);
+                    published.add(correlationData);
+                }
+                return published;
+            });
+        } catch (Exception e) {
+            log.error("Failed to publish batch of {} email messages", messages.size(), e);
+            countByType(messages).forEach(notificationMetrics::emailsPublishFailed);
+            return new BatchPublishResult(0, new ArrayList<>(messages));
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(notificationProperties.getPublishConfirmTimeoutMs());
+        List<EmailMessage> confirmed = new ArrayList<>(messages.size());
+        List<EmailMessage> failed = new ArrayList<>();
+
+        for (int i = 0; i < confirmations.size(); i++) {
+            if (awaitConfirm(confirmations.get(i), deadline)) {
+                confirmed.add(messages.get(i));
+            } else {
+                failed.add(messages.get(i));
+            }
+        }
+
+        int acked = confirmed.size();
+        countByType(confirmed).forEach(notificationMetrics::emailsQueued);
+        if (!failed.isEmpty()) {
+            countByType(failed).forEach(notificationMetrics::emailsPublishFailed);
+            log.warn("Broker did not confirm {} of {} email messages", failed.size(), messages.size());
+        }
+        log.debug("Published batch of {} email messages, {} confirmed", messages.size(), acked);
+        return new BatchPublishResult(acked, failed);
+    }
+
+    private static Map<EmailMessage.EmailType, Integer> countByType(List<EmailMessage> messages) {
+        Map<EmailMessage.EmailType, Integer> counts = new HashMap<>();
+        for (EmailMessage message : messages) {
+            counts.merge(message.getType(), 1, Integer::sum);
+        }
+        return counts;
+    }
+
+    private boolean awaitConfirm(CorrelationData correlationData, long deadline) {
+        try {
+            CorrelationData.Confirm confirm = correlationData.getFuture()
+                    .get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            if (!confirm.isAck()) {
+                log.warn("Email message {} nacked by broker: {}", correlationData.getId(), confirm.getReason());
+            }
+            return confirm.isAck();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException | TimeoutException e) {
+            return false;
+        }
+    }
 }
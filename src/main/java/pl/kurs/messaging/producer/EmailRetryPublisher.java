@@ -0,0 +1,46 @@
+package pl.kurs.messaging.producer;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.stereotype.Service;
+import pl.kurs.config.NotificationProperties;
+import pl.kurs.config.RabbitConfig;
+import pl.kurs.messaging.dto.EmailMessage;
+import pl.kurs.metrics.NotificationMetrics;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class EmailRetryPublisher {
+    private final RabbitTemplate rabbitTemplate;
+    private final NotificationProperties notificationProperties;
+    private final NotificationMetrics notificationMetrics;
+
+    public void retryOrDeadLetter(String sourceQueue, EmailMessage emailMessage, int retryCount, Exception cause) {
+        if (retryCount < notificationProperties.getMaxRetries()) {
+            int attempt = retryCount + 1;
+            emailMessage.setRetryCount(attempt);
+
+            rabbitTemplate.convertAndSend(RabbitConfig.EMAIL_RETRY_EXCHANGE,
+                    RabbitConfig.retryQueueName(sourceQueue, attempt), emailMessage, message -> {
+                        message.getMessageProperties().setHeader(RabbitConfig.RETRY_COUNT_HEADER, attempt);
+                        return message;
+                    });
+            notificationMetrics.emailRetried(emailMessage.getType());
+            log.info("Email to: {} scheduled for retry {} of {}",
+                    emailMessage.getTo(), attempt, notificationProperties.getMaxRetries());
+            return;
+        }
+
+        rabbitTemplate.convertAndSend(RabbitConfig.EMAIL_RETRY_EXCHANGE,
+                RabbitConfig.EMAIL_DEAD_LETTER_QUEUE, emailMessage, message -> {
+                    message.getMessageProperties().setHeader(RabbitConfig.RETRY_COUNT_HEADER, retryCount);
+                    message.getMessageProperties().setHeader(RabbitConfig.SOURCE_QUEUE_HEADER, sourceQueue);
+                    message.getMessageProperties().setHeader(RabbitConfig.FAILURE_REASON_HEADER, String.valueOf(cause.getMessage()));
+                    return message;
+                });
+        notificationMetrics.emailDeadLettered(emailMessage.getType());
+        log.error("Max retries exceeded for email: {}, moved to dead letter queue", emailMessage.getTo());
+    }
+}
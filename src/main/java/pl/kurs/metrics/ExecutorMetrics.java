@@ -0,0 +1,57 @@
+package pl.kurs.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import pl.kurs.config.CreditGatedExecutor;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@Component
+@RequiredArgsConstructor
+public class ExecutorMetrics implements MeterBinder {
+    private final Map<String, CreditGatedExecutor> executors;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        executors.forEach((name, executor) -> bind(registry, name, executor));
+    }
+
+    private static void bind(MeterRegistry registry, String name, CreditGatedExecutor executor) {
+        Tags tags = Tags.of("name", name);
+
+        Gauge.builder("executor.credits", executor, CreditGatedExecutor::getCredits)
+                .description("Tasks the executor accepts before submitters have to wait")
+                .tags(tags)
+                .register(registry);
+        Gauge.builder("executor.credits.in.flight", executor, CreditGatedExecutor::getInFlight)
+                .description("Submitted tasks that have not finished yet")
+                .tags(tags)
+                .register(registry);
+        Gauge.builder("executor.credits.waiting", executor, CreditGatedExecutor::getWaitingSubmitters)
+                .description("Submitters blocked waiting for a credit")
+                .tags(tags)
+                .register(registry);
+        FunctionCounter.builder("executor.credits.waits", executor, CreditGatedExecutor::getWaitCount)
+                .description("Submissions that had to wait for a credit")
+                .tags(tags)
+                .register(registry);
+        FunctionCounter.builder("executor.credits.wait.time", executor,
+                        gated -> gated.getTotalWaitTime(TimeUnit.MILLISECONDS) / 1000.0)
+                .description("Total time submitters spent waiting for a credit")
+                .baseUnit("seconds")
+                .tags(tags)
+                .register(registry);
+
+        if (executor.getDelegate() instanceof ThreadPoolTaskExecutor threadPool) {
+            new ExecutorServiceMetrics(threadPool.getThreadPoolExecutor(), name, Tags.empty()).bindTo(registry);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package pl.kurs.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import pl.kurs.messaging.dto.EmailMessage;
+
+import java.util.concurrent.TimeUnit;
+
+@Component
+@RequiredArgsConstructor
+public class NotificationMetrics {
+    public static final String BATCH_TIMER = "notification.batch";
+    public static final String DIGEST_QUERY_TIMER = "notification.digest.query";
+    public static final String EMAIL_SEND_TIMER = "email.send";
+    public static final String EMAIL_QUEUED = "email.queued";
+    public static final String EMAIL_PUBLISH_FAILED = "email.publish.failed";
+    public static final String EMAIL_SENT = "email.sent";
+    public static final String EMAIL_SEND_FAILED = "email.send.failed";
+    public static final String EMAIL_RETRIED = "email.retried";
+    public static final String EMAIL_DEAD_LETTERED = "email.dead.lettered";
+
+    private final MeterRegistry meterRegistry;
+
+    public void recordBatch(String paging, long nanos) {
+        timer(BATCH_TIMER, "Time to load, render and publish one notification batch", "paging", paging)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordDigestQuery(String paging, long nanos) {
+        timer(DIGEST_QUERY_TIMER, "Time spent in the daily digest query", "paging", paging)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordSend(String mode, long nanos) {
+        timer(EMAIL_SEND_TIMER, "Time spent handing emails to the mail server", "mode", mode)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void emailsQueued(EmailMessage.EmailType type, int count) {
+        counter(EMAIL_QUEUED, "Emails published to the email queue", type).increment(count);
+    }
+
+    public void emailsPublishFailed(EmailMessage.EmailType type, int count) {
+        counter(EMAIL_PUBLISH_FAILED, "Emails the broker did not accept", type).increment(count);
+    }
+
+    public void emailSent(EmailMessage.EmailType type) {
+        counter(EMAIL_SENT, "Emails delivered to the mail server", type).increment();
+    }
+
+    public void emailFailed(EmailMessage.EmailType type) {
+        counter(EMAIL_SEND_FAILED, "Emails the mail server did not accept", type).increment();
+    }
+
+    public void emailRetried(EmailMessage.EmailType type) {
+        counter(EMAIL_RETRIED, "Emails scheduled for another delivery attempt", type).increment();
+    }
+
+    public void emailDeadLettered(EmailMessage.EmailType type) {
+        counter(EMAIL_DEAD_LETTERED, "Emails moved to the dead letter queue", type).increment();
+    }
+
+    private Timer timer(String name, String description, String tagKey, String tagValue) {
+        return Timer.builder(name)
+                .description(description)
+                .tag(tagKey, tagValue)
+                .register(meterRegistry);
+    }
+
+    private Counter counter(String name, String description, EmailMessage.EmailType type) {
+        return Counter.builder(name)
+                .description(description)
+                .tag("type", type != null ? type.name() : "UNKNOWN")
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,30 @@
+package pl.kurs.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+
+@Repository
+@RequiredArgsConstructor
+public class AuthorBulkRepository {
+    private final JdbcTemplate jdbcTemplate;
+
+    public int insertIgnoringExisting(Collection<String> names) {
+        if (names.isEmpty()) {
+            return 0;
+        }
+
+        StringBuilder sql = new StringBuilder("INSERT INTO authors (name) VALUES ");
+        for (int i = 0; i < names.size(); i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append("(?)");
+        }
+        sql.append(" ON CONFLICT (name) DO NOTHING");
+
+        return jdbcTemplate.update(sql.toString(), names.toArray());
+    }
+}
@@ -0,0 +1,17 @@
+package pl.kurs.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import pl.kurs.entity.Author;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface AuthorRepository extends JpaRepository<Author, Long> {
+
+    @Query("SELECT a.name, a.id FROM Author a WHERE a.name IN :names")
+    List<Object[]> findIdsByNameIn(@Param("names") Collection<String> names);
+}
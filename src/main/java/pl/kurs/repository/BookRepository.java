@@ -1,9 +1,22 @@
 package pl.kurs.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import pl.kurs.entity.Book;
 
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface BookRepository extends JpaRepository<Book, Long> {
+
+    @Query("SELECT b FROM Book b JOIN FETCH b.category WHERE b.id IN :ids")
+    List<Book> findAllWithCategoryByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT b FROM Book b JOIN FETCH b.category WHERE b.addedDate = :date")
+    List<Book> findAllWithCategoryByAddedDate(@Param("date") LocalDate date);
+
 }
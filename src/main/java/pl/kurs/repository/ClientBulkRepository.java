@@ -0,0 +1,50 @@
+package pl.kurs.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import pl.kurs.entity.Client;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Repository
+@RequiredArgsConstructor
+public class ClientBulkRepository {
+    private static final String INSERT_PREFIX =
+            "INSERT INTO clients (first_name, last_name, email, city, email_verified) VALUES ";
+    private static final String ROW_PLACEHOLDERS = "(?, ?, ?, ?, false)";
+    private static final String INSERT_SUFFIX = " ON CONFLICT (email) DO NOTHING RETURNING id, email";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public Map<String, Long> insertIgnoringDuplicateEmails(List<Client> clients) {
+        if (clients.isEmpty()) {
+            return Map.of();
+        }
+
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX.length() + clients.size() * (ROW_PLACEHOLDERS.length() + 2));
+        sql.append(INSERT_PREFIX);
+        List<Object> args = new ArrayList<>(clients.size() * 4);
+        for (int i = 0; i < clients.size(); i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(ROW_PLACEHOLDERS);
+            Client client = clients.get(i);
+            args.add(client.getFirstName());
+            args.add(client.getLastName());
+            args.add(client.getEmail());
+            args.add(client.getCity());
+        }
+        sql.append(INSERT_SUFFIX);
+
+        Map<String, Long> insertedIds = new HashMap<>(clients.size() * 2);
+        jdbcTemplate.query(sql.toString(), resultSet -> {
+            insertedIds.put(resultSet.getString("email"), resultSet.getLong("id"));
+        }, args.toArray());
+        return insertedIds;
+    }
+}
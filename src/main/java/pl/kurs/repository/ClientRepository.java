@@ -1,14 +1,33 @@
 package pl.kurs.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import pl.kurs.entity.Client;
 
-import java.util.Optional;
+import java.util.Collection;
+import java.util.List;
 
 @Repository
 public interface ClientRepository extends JpaRepository<Client, Long> {
 
-    Optional<Client> findByVerificationToken(String token);
+    @Modifying
+    @Query("UPDATE Client c SET c.emailVerified = true, c.verificationToken = null WHERE c.id = :id")
+    int markEmailVerified(@Param("id") long id);
+
+    @Modifying
+    @Query("UPDATE Client c SET c.emailVerified = true, c.verificationToken = null WHERE c.verificationToken = :token")
+    int markEmailVerifiedByLegacyToken(@Param("token") String token);
+
+    @Query("SELECT MIN(c.id), MAX(c.id) FROM Client c WHERE c.emailVerified = true")
+    List<Object[]> findVerifiedClientIdRange();
+
+    @Query("SELECT c.id, c.email FROM Client c WHERE c.id IN :ids AND c.emailVerified = true")
+    List<Object[]> findVerifiedEmailsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT c.id, c.emailVerified FROM Client c WHERE c.id IN :ids")
+    List<Object[]> findVerificationStatusByIdIn(@Param("ids") Collection<Long> ids);
 
 }
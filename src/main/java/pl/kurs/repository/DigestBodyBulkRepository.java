@@ -0,0 +1,41 @@
+package pl.kurs.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import pl.kurs.entity.DigestBody;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+public class DigestBodyBulkRepository {
+    private final JdbcTemplate jdbcTemplate;
+
+    public int insertIgnoringExisting(Collection<DigestBody> bodies) {
+        if (bodies.isEmpty()) {
+            return 0;
+        }
+
+        StringBuilder sql = new StringBuilder(
+                "INSERT INTO digest_bodies (digest_key, digest_date, text_content, html_content, created_at) VALUES ");
+        List<Object> params = new ArrayList<>(bodies.size() * 5);
+        for (DigestBody body : bodies) {
+            if (!params.isEmpty()) {
+                sql.append(", ");
+            }
+            sql.append("(?, ?, ?, ?, ?)");
+            params.add(body.getDigestKey());
+            params.add(body.getDigestDate());
+            params.add(body.getTextContent());
+            params.add(body.getHtmlContent());
+            params.add(Timestamp.valueOf(body.getCreatedAt()));
+        }
+        sql.append(" ON CONFLICT (digest_key) DO NOTHING");
+
+        return jdbcTemplate.update(sql.toString(), params.toArray());
+    }
+}
@@ -0,0 +1,18 @@
+package pl.kurs.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import pl.kurs.entity.DigestBody;
+
+import java.time.LocalDate;
+
+@Repository
+public interface DigestBodyRepository extends JpaRepository<DigestBody, String> {
+
+    @Modifying
+    @Query("DELETE FROM DigestBody d WHERE d.digestDate < :date")
+    int deleteByDigestDateBefore(@Param("date") LocalDate date);
+}
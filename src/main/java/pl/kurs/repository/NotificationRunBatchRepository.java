@@ -0,0 +1,30 @@
+package pl.kurs.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import pl.kurs.entity.NotificationRunBatch;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface NotificationRunBatchRepository extends JpaRepository<NotificationRunBatch, Long> {
+
+    List<NotificationRunBatch> findByRunIdInOrderById(Collection<Long> runIds);
+
+    @Query("""
+            SELECT b.runId, COUNT(b), SUM(b.queryTimeMs), SUM(b.renderTimeMs), SUM(b.publishTimeMs), SUM(b.totalTimeMs)
+            FROM NotificationRunBatch b
+            WHERE b.runId IN :runIds
+            GROUP BY b.runId
+            """)
+    List<Object[]> summarizeByRunIds(@Param("runIds") Collection<Long> runIds);
+
+    @Modifying
+    @Query("DELETE FROM NotificationRunBatch b WHERE b.recordedAt < :cutoff")
+    int deleteByRecordedAtBefore(@Param("cutoff") LocalDateTime cutoff);
+}
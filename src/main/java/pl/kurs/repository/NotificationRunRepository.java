@@ -0,0 +1,79 @@
+package pl.kurs.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import pl.kurs.entity.NotificationRun;
+import pl.kurs.entity.NotificationRunState;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface NotificationRunRepository extends JpaRepository<NotificationRun, Long> {
+
+    List<NotificationRun> findByRunDateOrderByPartitionIndex(LocalDate runDate);
+
+    List<NotificationRun> findByRunDateInOrderByRunDateDescPartitionIndex(Collection<LocalDate> runDates);
+
+    @Query("SELECT DISTINCT r.runDate FROM NotificationRun r ORDER BY r.runDate DESC")
+    List<LocalDate> findRecentRunDates(Pageable pageable);
+
+    @Query("SELECT DISTINCT r.runDate FROM NotificationRun r WHERE r.state <> :state ORDER BY r.runDate")
+    List<LocalDate> findRunDatesWithStateNot(@Param("state") NotificationRunState state);
+
+    @Query("SELECT DISTINCT r.runDate FROM NotificationRun r WHERE r.state IN :states ORDER BY r.runDate")
+    List<LocalDate> findRunDatesWithStateIn(@Param("states") Collection<NotificationRunState> states);
+
+    @Modifying
+    @Query("""
+            UPDATE NotificationRun r
+            SET r.owner = :owner,
+                r.leaseExpiresAt = :leaseExpiresAt,
+                r.state = pl.kurs.entity.NotificationRunState.RUNNING,
+                r.error = null,
+                r.updatedAt = :now
+            WHERE r.id = :id
+              AND r.state <> pl.kurs.entity.NotificationRunState.COMPLETED
+              AND (r.owner IS NULL OR r.leaseExpiresAt IS NULL OR r.leaseExpiresAt < :now)
+            """)
+    int claim(@Param("id") long id,
+              @Param("owner") String owner,
+              @Param("now") LocalDateTime now,
+              @Param("leaseExpiresAt") LocalDateTime leaseExpiresAt);
+
+    @Modifying
+    @Query("""
+            UPDATE NotificationRun r
+            SET r.lastClientId = :lastClientId,
+                r.processedCount = r.processedCount + :processedCount,
+                r.failedCount = r.failedCount + :failedCount,
+                r.leaseExpiresAt = :leaseExpiresAt,
+                r.updatedAt = :now
+            WHERE r.id = :id AND r.owner = :owner
+            """)
+    int checkpoint(@Param("id") long id,
+                   @Param("owner") String owner,
+                   @Param("lastClientId") long lastClientId,
+                   @Param("processedCount") int processedCount,
+                   @Param("failedCount") int failedCount,
+                   @Param("now") LocalDateTime now,
+                   @Param("leaseExpiresAt") LocalDateTime leaseExpiresAt);
+
+    @Modifying
+    @Query("""
+            UPDATE NotificationRun r
+            SET r.state = :state, r.error = :error, r.leaseExpiresAt = null, r.updatedAt = :now
+            WHERE r.id = :id AND r.owner = :owner
+            """)
+    int release(@Param("id") long id,
+                @Param("owner") String owner,
+                @Param("state") NotificationRunState state,
+                @Param("error") String error,
+                @Param("now") LocalDateTime now);
+}
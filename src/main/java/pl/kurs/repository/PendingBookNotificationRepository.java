@@ -0,0 +1,22 @@
+package pl.kurs.repository;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+import pl.kurs.entity.PendingBookNotification;
+
+import java.util.List;
+
+@Repository
+public interface PendingBookNotificationRepository extends JpaRepository<PendingBookNotification, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT p FROM PendingBookNotification p ORDER BY p.bookId")
+    List<PendingBookNotification> claimPending(Pageable pageable);
+}
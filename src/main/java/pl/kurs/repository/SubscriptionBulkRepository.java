@@ -0,0 +1,79 @@
+package pl.kurs.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import pl.kurs.dto.SubscriptionKey;
+import pl.kurs.entity.SubscriptionType;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@Repository
+@RequiredArgsConstructor
+public class SubscriptionBulkRepository {
+    private static final String RETURNING_KEYS = " RETURNING client_id, subscription_type, subscription_value, target_id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public Set<SubscriptionKey> insertIgnoringExisting(List<SubscriptionKey> keys) {
+        if (keys.isEmpty()) {
+            return Set.of();
+        }
+
+        StringBuilder sql = new StringBuilder("INSERT INTO subscriptions (client_id, subscription_type, subscription_value, target_id) VALUES ");
+        appendTuples(sql, keys.size(), "(?, ?, ?, ?)");
+        sql.append(" ON CONFLICT (client_id, subscription_type, subscription_value) DO NOTHING");
+        sql.append(RETURNING_KEYS);
+
+        List<Object> args = new ArrayList<>(keys.size() * 4);
+        for (SubscriptionKey key : keys) {
+            args.add(key.getClientId());
+            args.add(key.getSubscriptionType().name());
+            args.add(key.getSubscriptionValue());
+            args.add(key.getTargetId());
+        }
+        return queryKeys(sql.toString(), args);
+    }
+
+    public Set<SubscriptionKey> deleteExisting(List<SubscriptionKey> keys) {
+        if (keys.isEmpty()) {
+            return Set.of();
+        }
+
+        StringBuilder sql = new StringBuilder("DELETE FROM subscriptions WHERE (client_id, subscription_type, subscription_value) IN (");
+        appendTuples(sql, keys.size(), "(?, ?, ?)");
+        sql.append(')');
+        sql.append(RETURNING_KEYS);
+
+        List<Object> args = new ArrayList<>(keys.size() * 3);
+        for (SubscriptionKey key : keys) {
+            args.add(key.getClientId());
+            args.add(key.getSubscriptionType().name());
+            args.add(key.getSubscriptionValue());
+        }
+        return queryKeys(sql.toString(), args);
+    }
+
+    private Set<SubscriptionKey> queryKeys(String sql, List<Object> args) {
+        Set<SubscriptionKey> affected = new HashSet<>();
+        jdbcTemplate.query(sql, resultSet -> {
+            affected.add(new SubscriptionKey(resultSet.getLong("client_id"),
+                    SubscriptionType.valueOf(resultSet.getString("subscription_type")),
+                    resultSet.getString("subscription_value"),
+                    resultSet.getObject("target_id", Long.class)));
+        }, args.toArray());
+        return affected;
+    }
+
+    private static void appendTuples(StringBuilder sql, int count, String tuple) {
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(tuple);
+        }
+    }
+}
@@ -9,6 +9,7 @@ import org.springframework.stereotype.Repository;
 import pl.kurs.entity.Subscription;
 
 import java.time.LocalDate;
+import java.util.List;
 
 @Repository
 public interface SubscriptionRepository extends JpaRepository<Subscription, Long> {
@@ -20,10 +21,39 @@ public interface SubscriptionRepository extends JpaRepository<Subscription, Long
             JOIN clients c ON s.client_id = c.id AND c.email_verified = true
             JOIN books b ON b.added_date = :date
             JOIN categories cat ON b.book_category = cat.id
-            WHERE ((s.subscription_type = 'AUTHOR' AND s.subscription_value = b.author)
-            OR (s.subscription_type = 'CATEGORY' AND s.subscription_value = cat.name))
+            WHERE ((s.subscription_type = 'AUTHOR' AND s.target_id = b.author_id)
+            OR (s.subscription_type = 'CATEGORY' AND s.target_id = b.book_category))
             GROUP BY c.email
             """, nativeQuery = true)
     Slice<Object[]> findEmailsAndBooksForDatePaginated(@Param("date") LocalDate date, Pageable pageable);
 
+    @Query(value = """
+            WITH recipients AS (
+                SELECT DISTINCT s.client_id
+                FROM subscriptions s
+                JOIN clients c ON s.client_id = c.id AND c.email_verified = true
+                JOIN books b ON b.added_date = :date
+                WHERE s.client_id > :lastClientId AND s.client_id <= :maxClientId
+                AND ((s.subscription_type = 'AUTHOR' AND s.target_id = b.author_id)
+                OR (s.subscription_type = 'CATEGORY' AND s.target_id = b.book_category))
+                ORDER BY s.client_id
+                LIMIT :limit
+            )
+            SELECT DISTINCT c.id, c.email, b.id AS book_id
+            FROM recipients r
+            JOIN clients c ON c.id = r.client_id
+            JOIN subscriptions s ON s.client_id = c.id
+            JOIN books b ON b.added_date = :date
+            WHERE (s.subscription_type = 'AUTHOR' AND s.target_id = b.author_id)
+            OR (s.subscription_type = 'CATEGORY' AND s.target_id = b.book_category)
+            ORDER BY c.id, book_id
+            """, nativeQuery = true)
+    List<Object[]> findDigestRowsForDateAfterClient(@Param("date") LocalDate date,
+                                                    @Param("lastClientId") long lastClientId,
+                                                    @Param("maxClientId") long maxClientId,
+                                                    @Param("limit") int limit);
+
+    @Query("SELECT s.id, s.client.id, s.subscriptionType, s.targetId FROM Subscription s WHERE s.id > :lastId AND s.targetId IS NOT NULL ORDER BY s.id")
+    List<Object[]> findIndexEntriesAfter(@Param("lastId") long lastId, Pageable pageable);
+
 }
@@ -0,0 +1,51 @@
+package pl.kurs.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+@Repository
+@RequiredArgsConstructor
+public class SubscriptionTargetBackfillRepository {
+    private static final String INTERN_BOOK_AUTHORS = """
+            INSERT INTO authors (name)
+            SELECT DISTINCT b.author FROM books b
+            WHERE b.author_id IS NULL
+            AND NOT EXISTS (SELECT 1 FROM authors a WHERE a.name = b.author)
+            ON CONFLICT (name) DO NOTHING
+            """;
+    private static final String LINK_BOOK_AUTHORS = """
+            UPDATE books SET author_id = (SELECT a.id FROM authors a WHERE a.name = books.author)
+            WHERE author_id IS NULL
+            AND EXISTS (SELECT 1 FROM authors a WHERE a.name = books.author)
+            """;
+    private static final String INTERN_SUBSCRIPTION_AUTHORS = """
+            INSERT INTO authors (name)
+            SELECT DISTINCT s.subscription_value FROM subscriptions s
+            WHERE s.target_id IS NULL AND s.subscription_type = 'AUTHOR'
+            AND NOT EXISTS (SELECT 1 FROM authors a WHERE a.name = s.subscription_value)
+            ON CONFLICT (name) DO NOTHING
+            """;
+    private static final String LINK_SUBSCRIPTION_AUTHORS = """
+            UPDATE subscriptions SET target_id = (SELECT a.id FROM authors a WHERE a.name = subscriptions.subscription_value)
+            WHERE target_id IS NULL AND subscription_type = 'AUTHOR'
+            AND EXISTS (SELECT 1 FROM authors a WHERE a.name = subscriptions.subscription_value)
+            """;
+    private static final String LINK_SUBSCRIPTION_CATEGORIES = """
+            UPDATE subscriptions SET target_id = (SELECT cat.id FROM categories cat WHERE cat.name = subscriptions.subscription_value)
+            WHERE target_id IS NULL AND subscription_type = 'CATEGORY'
+            AND EXISTS (SELECT 1 FROM categories cat WHERE cat.name = subscriptions.subscription_value)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public int linkBookAuthors() {
+        jdbcTemplate.update(INTERN_BOOK_AUTHORS);
+        return jdbcTemplate.update(LINK_BOOK_AUTHORS);
+    }
+
+    public int linkSubscriptionTargets() {
+        jdbcTemplate.update(INTERN_SUBSCRIPTION_AUTHORS);
+        return jdbcTemplate.update(LINK_SUBSCRIPTION_AUTHORS) + jdbcTemplate.update(LINK_SUBSCRIPTION_CATEGORIES);
+    }
+}
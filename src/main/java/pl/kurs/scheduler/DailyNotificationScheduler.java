@@ -2,9 +2,13 @@ package pl.kurs.scheduler;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import pl.kurs.config.NotificationProperties;
 import pl.kurs.service.NotificationBatchService;
+import pl.kurs.service.SubscriptionTargetBackfillService;
 
 import java.time.LocalDate;
 
@@ -14,10 +18,19 @@ import java.time.LocalDate;
 public class DailyNotificationScheduler {
 
     private final NotificationBatchService notificationBatchService;
+    private final NotificationProperties notificationProperties;
+    private final SubscriptionTargetBackfillService subscriptionTargetBackfillService;
 
     @Scheduled(cron = "${app.scheduling.daily-notifications:0 0 0 * * *}")
     public void runDailyNotificationJob() {
+        if (notificationProperties.getDeliveryMode() == NotificationProperties.DeliveryMode.REALTIME) {
+            log.info("Daily notification job skipped, new books are delivered in real time");
+            return;
+        }
+
         try {
+            subscriptionTargetBackfillService.catchUp();
+            notificationBatchService.resumeUnfinishedRuns();
             LocalDate yesterday = LocalDate.now().minusDays(1);
             notificationBatchService.processAllNotifications(yesterday);
 
@@ -26,4 +39,31 @@ public class DailyNotificationScheduler {
             log.error("Daily notification job failed", e);
         }
     }
+
+    @Scheduled(fixedDelayString = "${notification.lease-sweep-ms:60000}",
+            initialDelayString = "${notification.lease-sweep-ms:60000}")
+    public void reclaimAbandonedPartitions() {
+        if (notificationProperties.getDeliveryMode() == NotificationProperties.DeliveryMode.REALTIME) {
+            return;
+        }
+
+        try {
+            notificationBatchService.resumeAbandonedRuns();
+        } catch (Exception e) {
+            log.error("Reclaiming abandoned notification partitions failed", e);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedRuns() {
+        if (notificationProperties.getDeliveryMode() == NotificationProperties.DeliveryMode.REALTIME) {
+            return;
+        }
+
+        try {
+            notificationBatchService.resumeUnfinishedRuns();
+        } catch (Exception e) {
+            log.error("Resuming interrupted notification runs failed", e);
+        }
+    }
 }
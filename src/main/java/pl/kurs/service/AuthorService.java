@@ -0,0 +1,80 @@
+package pl.kurs.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import pl.kurs.config.CacheConfig;
+import pl.kurs.repository.AuthorBulkRepository;
+import pl.kurs.repository.AuthorRepository;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+@Service
+@RequiredArgsConstructor
+public class AuthorService {
+
+    private final AuthorRepository authorRepository;
+    private final AuthorBulkRepository authorBulkRepository;
+    private final CacheManager cacheManager;
+
+    @Transactional
+    public Long internAuthor(String name) {
+        Long cached = authorIdsByName().get(name, Long.class);
+        if (cached != null) {
+            return cached;
+        }
+        return internAuthors(List.of(name)).get(name);
+    }
+
+    @Transactional
+    public Map<String, Long> internAuthors(Collection<String> names) {
+        if (names.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<String, Long> ids = findIdsByNames(names);
+        Set<String> missing = new TreeSet<>(names);
+        missing.removeAll(ids.keySet());
+        if (!missing.isEmpty()) {
+            authorBulkRepository.insertIgnoringExisting(missing);
+            ids.putAll(findIdsByNames(missing));
+        }
+        cacheAfterCommit(Map.copyOf(ids));
+        return ids;
+    }
+
+    private Map<String, Long> findIdsByNames(Collection<String> names) {
+        Map<String, Long> ids = new HashMap<>();
+        for (Object[] row : authorRepository.findIdsByNameIn(names)) {
+            ids.put((String) row[0], ((Number) row[1]).longValue());
+        }
+        return ids;
+    }
+
+    private void cacheAfterCommit(Map<String, Long> ids) {
+        Cache cache = authorIdsByName();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    ids.forEach(cache::put);
+                }
+            });
+        } else {
+            ids.forEach(cache::put);
+        }
+    }
+
+    private Cache authorIdsByName() {
+        return cacheManager.getCache(CacheConfig.AUTHOR_IDS_BY_NAME);
+    }
+}
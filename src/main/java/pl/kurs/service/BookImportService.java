@@ -0,0 +1,190 @@
+package pl.kurs.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import pl.kurs.config.ImportProperties;
+import pl.kurs.dto.BookDto;
+import pl.kurs.dto.BulkImportResultDto;
+import pl.kurs.dto.BulkRowErrorDto;
+import pl.kurs.entity.Book;
+import pl.kurs.entity.Category;
+import pl.kurs.event.BookCreatedEvent;
+import pl.kurs.exception.ResourceNotFoundException;
+import pl.kurs.importer.CsvImportReader;
+import pl.kurs.importer.ImportRowHandler;
+import pl.kurs.importer.JsonArrayImportReader;
+import pl.kurs.mapper.BookMapper;
+import pl.kurs.repository.BookRepository;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BookImportService {
+    private static final List<String> CSV_COLUMNS = List.of("author", "title", "categoryId", "pageCount");
+
+    private final BookRepository bookRepository;
+    private final CategoryService categoryService;
+    private final AuthorService authorService;
+    private final BookMapper bookMapper;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final ImportProperties importProperties;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    public BulkImportResultDto importJson(InputStream input) {
+        BookImport bookImport = new BookImport();
+        JsonArrayImportReader.read(objectMapper, input, BookDto.class, bookImport);
+        return bookImport.finish();
+    }
+
+    public BulkImportResultDto importCsv(InputStream input) {
+        BookImport bookImport = new BookImport();
+        CsvImportReader.read(input, CSV_COLUMNS, new ImportRowHandler<>() {
+            @Override
+            public void accept(long rowNumber, Map<String, String> row) {
+                BookDto dto = new BookDto();
+                dto.setAuthor(row.get("author"));
+                dto.setTitle(row.get("title"));
+                try {
+                    dto.setCategoryId(row.get("categoryId") != null ? Long.valueOf(row.get("categoryId")) : null);
+                    dto.setPageCount(row.get("pageCount") != null ? Integer.valueOf(row.get("pageCount")) : null);
+                } catch (NumberFormatException e) {
+                    bookImport.reject(rowNumber, "categoryId and pageCount must be numbers");
+                    return;
+                }
+                bookImport.accept(rowNumber, dto);
+            }
+
+            @Override
+            public void reject(long rowNumber, String message) {
+                bookImport.reject(rowNumber, message);
+            }
+        });
+        return bookImport.finish();
+    }
+
+    private BatchOutcome insertBatch(List<PendingBook> batch) {
+        Map<Long, Category> categories = new HashMap<>();
+        Set<String> authors = new HashSet<>();
+        for (PendingBook pending : batch) {
+            Long categoryId = pending.dto().getCategoryId();
+            if (!categories.containsKey(categoryId)) {
+                categories.put(categoryId, findCategory(categoryId));
+            }
+            if (categories.get(categoryId) != null) {
+                authors.add(pending.dto().getAuthor());
+            }
+        }
+        Map<String, Long> authorIds = authorService.internAuthors(authors);
+
+        List<Book> books = new ArrayList<>(batch.size());
+        List<BulkRowErrorDto> rejected = new ArrayList<>();
+        for (PendingBook pending : batch) {
+            Category category = categories.get(pending.dto().getCategoryId());
+            if (category == null) {
+                rejected.add(new BulkRowErrorDto(pending.rowNumber(),
+                        "Category ID: " + pending.dto().getCategoryId() + " not found"));
+                continue;
+            }
+            Book book = bookMapper.dtoToEntity(pending.dto());
+            book.setCategory(category);
+            book.setAuthorId(authorIds.get(book.getAuthor()));
+            books.add(book);
+        }
+
+        bookRepository.saveAll(books);
+        bookRepository.flush();
+        books.forEach(book -> applicationEventPublisher.publishEvent(new BookCreatedEvent(this, book.getId())));
+        entityManager.clear();
+
+        return new BatchOutcome(books.size(), rejected);
+    }
+
+    private Category findCategory(Long categoryId) {
+        try {
+            return categoryService.findById(categoryId);
+        } catch (ResourceNotFoundException e) {
+            return null;
+        }
+    }
+
+    private class BookImport implements ImportRowHandler<BookDto> {
+        private final List<PendingBook> pending = new ArrayList<>();
+        private final List<BulkRowErrorDto> errors = new ArrayList<>();
+        private int importedCount;
+        private int failedCount;
+
+        @Override
+        public void accept(long rowNumber, BookDto dto) {
+            Set<ConstraintViolation<BookDto>> violations = validator.validate(dto);
+            if (!violations.isEmpty()) {
+                reject(rowNumber, violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+                return;
+            }
+
+            pending.add(new PendingBook(rowNumber, dto));
+            if (pending.size() >= importProperties.getBatchSize()) {
+                flush();
+            }
+        }
+
+        @Override
+        public void reject(long rowNumber, String message) {
+            failedCount++;
+            if (errors.size() < importProperties.getMaxReportedErrors()) {
+                errors.add(new BulkRowErrorDto(rowNumber, message));
+            }
+        }
+
+        private void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            List<PendingBook> batch = new ArrayList<>(pending);
+            pending.clear();
+
+            try {
+                BatchOutcome outcome = transactionTemplate.execute(status -> insertBatch(batch));
+                importedCount += outcome.insertedCount();
+                outcome.rejected().forEach(error -> reject(error.getRow(), error.getMessage()));
+            } catch (RuntimeException e) {
+                log.error("Bulk book insert failed for rows {}-{}", batch.get(0).rowNumber(),
+                        batch.get(batch.size() - 1).rowNumber(), e);
+                batch.forEach(failed -> reject(failed.rowNumber(), "Batch insert failed: " + e.getMessage()));
+            }
+        }
+
+        private BulkImportResultDto finish() {
+            flush();
+            log.info("Bulk book import finished. Imported: {}, failed: {}", importedCount, failedCount);
+            return new BulkImportResultDto(importedCount, failedCount, errors);
+        }
+    }
+
+    private record PendingBook(long rowNumber, BookDto dto) {
+    }
+
+    private record BatchOutcome(int insertedCount, List<BulkRowErrorDto> rejected) {
+    }
+}
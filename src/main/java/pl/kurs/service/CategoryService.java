@@ -1,12 +1,16 @@
 package pl.kurs.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import pl.kurs.config.CacheConfig;
 import pl.kurs.entity.Category;
 import pl.kurs.exception.ResourceNotFoundException;
 import pl.kurs.repository.CategoryRepository;
 
+import java.util.Optional;
+
 @Service
 @RequiredArgsConstructor
 @Transactional
@@ -15,9 +19,16 @@ public class CategoryService {
     private final CategoryRepository categoryRepository;
 
     @Transactional(readOnly = true)
+    @Cacheable(CacheConfig.CATEGORIES)
     public Category findById(Long id) {
         return categoryRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Category ID: " + id + " not found"));
     }
 
+    @Transactional(readOnly = true)
+    @Cacheable(value = CacheConfig.CATEGORY_IDS_BY_NAME, unless = "#result == null")
+    public Optional<Long> findIdByName(String name) {
+        return categoryRepository.findByName(name).map(Category::getId);
+    }
+
 }
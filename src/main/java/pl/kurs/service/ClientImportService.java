@@ -0,0 +1,167 @@
+package pl.kurs.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import pl.kurs.config.ImportProperties;
+import pl.kurs.dto.BulkRowErrorDto;
+import pl.kurs.dto.ClientDto;
+import pl.kurs.dto.ClientImportResultDto;
+import pl.kurs.entity.Client;
+import pl.kurs.importer.CsvImportReader;
+import pl.kurs.importer.ImportRowHandler;
+import pl.kurs.importer.NdjsonImportReader;
+import pl.kurs.mapper.ClientMapper;
+import pl.kurs.messaging.dto.BatchPublishResult;
+import pl.kurs.messaging.dto.EmailMessage;
+import pl.kurs.messaging.producer.EmailProducer;
+import pl.kurs.repository.ClientBulkRepository;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ClientImportService {
+    private static final List<String> CSV_COLUMNS = List.of("firstName", "lastName", "email", "city");
+
+    private final ClientBulkRepository clientBulkRepository;
+    private final ClientMapper clientMapper;
+    private final EmailProducer emailProducer;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final ImportProperties importProperties;
+    private final TransactionTemplate transactionTemplate;
+    private final VerificationTokenService verificationTokenService;
+
+    public ClientImportResultDto importNdjson(InputStream input) {
+        ClientImport clientImport = new ClientImport();
+        NdjsonImportReader.read(objectMapper, input, ClientDto.class, clientImport);
+        return clientImport.finish();
+    }
+
+    public ClientImportResultDto importCsv(InputStream input) {
+        ClientImport clientImport = new ClientImport();
+        CsvImportReader.read(input, CSV_COLUMNS, new ImportRowHandler<>() {
+            @Override
+            public void accept(long rowNumber, Map<String, String> row) {
+                ClientDto dto = new ClientDto();
+                dto.setFirstName(row.get("firstName"));
+                dto.setLastName(row.get("lastName"));
+                dto.setEmail(row.get("email"));
+                dto.setCity(row.get("city"));
+                clientImport.accept(rowNumber, dto);
+            }
+
+            @Override
+            public void reject(long rowNumber, String message) {
+                clientImport.reject(rowNumber, message);
+            }
+        });
+        return clientImport.finish();
+    }
+
+    private class ClientImport implements ImportRowHandler<ClientDto> {
+        private final List<PendingClient> pending = new ArrayList<>();
+        private final Set<String> pendingEmails = new HashSet<>();
+        private final List<BulkRowErrorDto> errors = new ArrayList<>();
+        private final List<Long> verificationPendingClientIds = new ArrayList<>();
+        private int importedCount;
+        private int failedCount;
+        private int verificationEmailsQueued;
+
+        @Override
+        public void accept(long rowNumber, ClientDto dto) {
+            dto.setEmailVerified(false);
+            Set<ConstraintViolation<ClientDto>> violations = validator.validate(dto);
+            if (!violations.isEmpty()) {
+                reject(rowNumber, violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+                return;
+            }
+            if (!pendingEmails.add(dto.getEmail())) {
+                reject(rowNumber, "Client with this email already exists");
+                return;
+            }
+
+            Client client = clientMapper.dtoToEntity(dto);
+            pending.add(new PendingClient(rowNumber, client));
+            if (pending.size() >= importProperties.getBatchSize()) {
+                flush();
+            }
+        }
+
+        @Override
+        public void reject(long rowNumber, String message) {
+            failedCount++;
+            if (errors.size() < importProperties.getMaxReportedErrors()) {
+                errors.add(new BulkRowErrorDto(rowNumber, message));
+            }
+        }
+
+        private void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            List<PendingClient> batch = new ArrayList<>(pending);
+            pending.clear();
+            pendingEmails.clear();
+
+            Map<String, Long> insertedIds;
+            try {
+                insertedIds = transactionTemplate.execute(status -> clientBulkRepository.insertIgnoringDuplicateEmails(
+                        batch.stream().map(PendingClient::client).toList()));
+            } catch (RuntimeException e) {
+                log.error("Bulk client insert failed for rows {}-{}", batch.get(0).rowNumber(),
+                        batch.get(batch.size() - 1).rowNumber(), e);
+                batch.forEach(failed -> reject(failed.rowNumber(), "Batch insert failed: " + e.getMessage()));
+                return;
+            }
+
+            List<EmailMessage> verificationEmails = new ArrayList<>(insertedIds.size());
+            for (PendingClient pendingClient : batch) {
+                Client client = pendingClient.client();
+                Long clientId = insertedIds.get(client.getEmail());
+                if (clientId != null) {
+                    importedCount++;
+                    verificationEmails.add(emailProducer.createVerificationEmail(
+                            client.getEmail(), verificationTokenService.issue(clientId)));
+                } else {
+                    reject(pendingClient.rowNumber(), "Client with this email already exists");
+                }
+            }
+
+            BatchPublishResult publishResult = emailProducer.publishBatch(verificationEmails);
+            verificationEmailsQueued += publishResult.getAckedCount();
+            for (EmailMessage message : publishResult.getFailed()) {
+                Long clientId = insertedIds.get(message.getTo());
+                verificationPendingClientIds.add(clientId);
+                log.error("Verification email for imported client {} was not confirmed by the broker, resend it with "
+                        + "POST /clients/{}/verification", message.getTo(), clientId);
+            }
+        }
+
+        private ClientImportResultDto finish() {
+            flush();
+            log.info("Bulk client import finished. Imported: {}, failed: {}, verification emails queued: {}, pending: {}",
+                    importedCount, failedCount, verificationEmailsQueued, verificationPendingClientIds.size());
+            return new ClientImportResultDto(importedCount, failedCount, verificationEmailsQueued,
+                    verificationPendingClientIds, errors);
+        }
+    }
+
+    private record PendingClient(long rowNumber, Client client) {
+    }
+}
@@ -4,6 +4,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import pl.kurs.dto.ClientDto;
+import pl.kurs.dto.ClientIdRange;
 import pl.kurs.entity.Client;
 import pl.kurs.exception.EmailNotVerifiedException;
 import pl.kurs.exception.ResourceNotFoundException;
@@ -11,6 +12,12 @@ import pl.kurs.mapper.ClientMapper;
 import pl.kurs.messaging.producer.EmailProducer;
 import pl.kurs.repository.ClientRepository;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.UUID;
 
 @Service
@@ -21,29 +28,45 @@ public class ClientService {
     private final ClientRepository clientRepository;
     private final EmailProducer emailProducer;
     private final ClientMapper clientMapper;
+    private final VerificationTokenService verificationTokenService;
 
     @Transactional
     public ClientDto registerClient(ClientDto dto) {
-        String verificationToken = UUID.randomUUID().toString();
-
         Client client = clientMapper.dtoToEntity(dto);
-        client.setVerificationToken(verificationToken);
 
         Client savedClient = clientRepository.save(client);
-        emailProducer.sendVerificationEmail(dto.getEmail(), verificationToken);
+        emailProducer.sendVerificationEmail(dto.getEmail(), verificationTokenService.issue(savedClient.getId()));
 
         return clientMapper.entityToDto(savedClient);
     }
 
+    @Transactional(readOnly = true)
+    public boolean resendVerificationEmail(Long id) {
+        Client client = getClientById(id);
+        if (client.getEmailVerified()) {
+            return false;
+        }
+        emailProducer.sendVerificationEmail(client.getEmail(), verificationTokenService.issue(client.getId()));
+        return true;
+    }
+
     public boolean verifyEmail(String token) {
-        return clientRepository.findByVerificationToken(token)
-                .map(client -> {
-                    client.setEmailVerified(true);
-                    client.setVerificationToken(null);
-                    clientRepository.save(client);
-                    return true;
-                })
-                .orElse(false);
+        OptionalLong clientId = verificationTokenService.verify(token);
+        if (clientId.isPresent()) {
+            return clientRepository.markEmailVerified(clientId.getAsLong()) > 0;
+        }
+        return isLegacyToken(token) && clientRepository.markEmailVerifiedByLegacyToken(token) > 0;
+    }
+
+    private static boolean isLegacyToken(String token) {
+        if (token == null) {
+            return false;
+        }
+        try {
+            return UUID.fromString(token).toString().equals(token);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
     }
 
     @Transactional(readOnly = true)
@@ -61,4 +84,32 @@ public class ClientService {
         return client;
     }
 
+    @Transactional(readOnly = true)
+    public Optional<ClientIdRange> findVerifiedClientIdRange() {
+        List<Object[]> rows = clientRepository.findVerifiedClientIdRange();
+        if (rows.isEmpty() || rows.get(0)[0] == null) {
+            return Optional.empty();
+        }
+        Object[] row = rows.get(0);
+        return Optional.of(new ClientIdRange(((Number) row[0]).longValue(), ((Number) row[1]).longValue()));
+    }
+
+    @Transactional(readOnly = true)
+    public Map<Long, String> findVerifiedEmailsByIds(Collection<Long> ids) {
+        Map<Long, String> emails = new HashMap<>();
+        for (Object[] row : clientRepository.findVerifiedEmailsByIdIn(ids)) {
+            emails.put(((Number) row[0]).longValue(), (String) row[1]);
+        }
+        return emails;
+    }
+
+    @Transactional(readOnly = true)
+    public Map<Long, Boolean> findVerificationStatusByIds(Collection<Long> ids) {
+        Map<Long, Boolean> statuses = new HashMap<>();
+        for (Object[] row : clientRepository.findVerificationStatusByIdIn(ids)) {
+            statuses.put(((Number) row[0]).longValue(), (Boolean) row[1]);
+        }
+        return statuses;
+    }
+
 }
@@ -0,0 +1,97 @@
+package pl.kurs.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import pl.kurs.config.CacheConfig;
+import pl.kurs.config.NotificationProperties;
+import pl.kurs.dto.RenderedDigest;
+import pl.kurs.entity.DigestBody;
+import pl.kurs.repository.DigestBodyBulkRepository;
+import pl.kurs.repository.DigestBodyRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DigestBodyStore {
+    private final DigestBodyRepository digestBodyRepository;
+    private final DigestBodyBulkRepository digestBodyBulkRepository;
+    private final NotificationProperties notificationProperties;
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public List<String> storeAll(LocalDate date, List<RenderedDigest> digests) {
+        List<String> keys = new ArrayList<>(digests.size());
+        Map<String, DigestBody> missing = new LinkedHashMap<>();
+        LocalDateTime now = LocalDateTime.now();
+
+        for (RenderedDigest digest : digests) {
+            String key = digestKey(date, digest);
+            keys.add(key);
+            if (!missing.containsKey(key)) {
+                missing.put(key, DigestBody.builder()
+                        .digestKey(key)
+                        .digestDate(date)
+                        .textContent(digest.getText())
+                        .htmlContent(digest.getHtml())
+                        .createdAt(now)
+                        .build());
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            int inserted = digestBodyBulkRepository.insertIgnoringExisting(missing.values());
+            log.debug("Stored {} new digest bodies for {} messages", inserted, digests.size());
+        }
+        return keys;
+    }
+
+    @Transactional(readOnly = true)
+    @Cacheable(value = CacheConfig.DIGEST_BODIES, unless = "#result == null")
+    public RenderedDigest findBody(String digestKey) {
+        return digestBodyRepository.findById(digestKey)
+                .map(body -> new RenderedDigest(body.getTextContent(), body.getHtmlContent()))
+                .orElse(null);
+    }
+
+    @Scheduled(cron = "${app.scheduling.digest-body-purge:0 30 1 * * *}")
+    @Transactional
+    public void purgeExpiredBodies() {
+        LocalDate cutoff = LocalDate.now().minusDays(notificationProperties.getDigestBodyRetentionDays());
+        int purged = digestBodyRepository.deleteByDigestDateBefore(cutoff);
+        if (purged > 0) {
+            log.info("Purged {} digest bodies older than {}", purged, cutoff);
+        }
+    }
+
+    static String digestKey(LocalDate date, RenderedDigest digest) {
+        MessageDigest sha256;
+        try {
+            sha256 = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        sha256.update(date.toString().getBytes(StandardCharsets.UTF_8));
+        sha256.update((byte) 0);
+        sha256.update(digest.getText().getBytes(StandardCharsets.UTF_8));
+        sha256.update((byte) 0);
+        if (digest.getHtml() != null) {
+            sha256.update(digest.getHtml().getBytes(StandardCharsets.UTF_8));
+        }
+        return HexFormat.of().formatHex(sha256.digest());
+    }
+}
@@ -0,0 +1,148 @@
+package pl.kurs.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import pl.kurs.dto.RenderedDigest;
+import pl.kurs.entity.Book;
+import pl.kurs.repository.BookRepository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DigestRenderer {
+    private static final int CACHED_DATES = 2;
+    private static final int MAX_RETAINED_BUFFER_SIZE = 64 * 1024;
+
+    private static final DigestTemplate TEXT_BOOK = DigestTemplate.compile(
+            "{{title}} - {{author}} ({{category}})", "title", "author", "category");
+    private static final DigestTemplate HTML_BOOK = DigestTemplate.compile(
+            "<li>{{title}} - {{author}} ({{category}})</li>", "title", "author", "category");
+
+    private final BookRepository bookRepository;
+
+    private final Map<LocalDate, Map<Long, BookLines>> bookLinesByDate = new ConcurrentHashMap<>();
+    private final ThreadLocal<StringBuilder> booksBuffer = ThreadLocal.withInitial(() -> new StringBuilder(1024));
+    private final ThreadLocal<StringBuilder> digestBuffer = ThreadLocal.withInitial(() -> new StringBuilder(1024));
+
+    public RenderedDigest render(LocalDate date, List<Long> bookIds) {
+        Map<Long, BookLines> bookLines = bookLinesFor(date, bookIds);
+        StringBuilder books = booksBuffer.get();
+        StringBuilder digest = digestBuffer.get();
+
+        try {
+            for (Long bookId : bookIds) {
+                BookLines lines = bookLines.get(bookId);
+                if (lines != null) {
+                    if (!books.isEmpty()) {
+                        books.append('\n');
+                    }
+                    books.append(lines.text());
+                }
+            }
+            DigestTemplate.DAILY_TEXT.render(digest, books);
+            String text = digest.toString();
+
+            books.setLength(0);
+            digest.setLength(0);
+            for (Long bookId : bookIds) {
+                BookLines lines = bookLines.get(bookId);
+                if (lines != null) {
+                    books.append(lines.html());
+                }
+            }
+            DigestTemplate.DAILY_HTML.render(digest, books);
+
+            return new RenderedDigest(text, digest.toString());
+        } finally {
+            release(books, booksBuffer);
+            release(digest, digestBuffer);
+        }
+    }
+
+    private Map<Long, BookLines> bookLinesFor(LocalDate date, List<Long> bookIds) {
+        Map<Long, BookLines> bookLines = bookLinesByDate.get(date);
+        if (bookLines == null) {
+            bookLines = bookLinesByDate.computeIfAbsent(date, this::loadBookLines);
+            evictOldDates(date);
+        }
+
+        List<Long> missingIds = new ArrayList<>();
+        for (Long bookId : bookIds) {
+            if (!bookLines.containsKey(bookId)) {
+                missingIds.add(bookId);
+            }
+        }
+        if (!missingIds.isEmpty()) {
+            for (Book book : bookRepository.findAllWithCategoryByIdIn(missingIds)) {
+                bookLines.put(book.getId(), renderBookLines(book));
+            }
+        }
+        return bookLines;
+    }
+
+    private Map<Long, BookLines> loadBookLines(LocalDate date) {
+        Map<Long, BookLines> bookLines = new ConcurrentHashMap<>();
+        for (Book book : bookRepository.findAllWithCategoryByAddedDate(date)) {
+            bookLines.put(book.getId(), renderBookLines(book));
+        }
+        log.debug("Cached digest lines for {} books added on {}", bookLines.size(), date);
+        return bookLines;
+    }
+
+    private void evictOldDates(LocalDate currentDate) {
+        if (bookLinesByDate.size() <= CACHED_DATES) {
+            return;
+        }
+        bookLinesByDate.keySet().stream()
+                .filter(date -> !date.equals(currentDate))
+                .sorted(Comparator.reverseOrder())
+                .skip(CACHED_DATES - 1)
+                .forEach(bookLinesByDate::remove);
+    }
+
+    private static BookLines renderBookLines(Book book) {
+        StringBuilder text = new StringBuilder();
+        TEXT_BOOK.render(text, book.getTitle(), book.getAuthor(), book.getCategory().getName());
+
+        StringBuilder html = new StringBuilder();
+        HTML_BOOK.render(html, escapeHtml(book.getTitle()), escapeHtml(book.getAuthor()),
+                escapeHtml(book.getCategory().getName()));
+
+        return new BookLines(text.toString(), html.toString());
+    }
+
+    private static String escapeHtml(String value) {
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '<' -> escaped.append("&lt;");
+                case '>' -> escaped.append("&gt;");
+                case '&' -> escaped.append("&amp;");
+                case '"' -> escaped.append("&quot;");
+                case '\'' -> escaped.append("&#39;");
+                default -> escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+
+    private static void release(StringBuilder buffer, ThreadLocal<StringBuilder> holder) {
+        if (buffer.capacity() > MAX_RETAINED_BUFFER_SIZE) {
+            holder.remove();
+        } else {
+            buffer.setLength(0);
+        }
+    }
+
+    private record BookLines(String text, String html) {
+    }
+}
@@ -0,0 +1,54 @@
+package pl.kurs.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+final class DigestTemplate {
+    static final String DAILY_HEADER = "Here are the new books added to the library today, matching your subscriptions:";
+    static final DigestTemplate DAILY_TEXT = compile(DAILY_HEADER + "\n\n{{books}}", "books");
+    static final DigestTemplate DAILY_HTML = compile(
+            "<html><body><p>" + DAILY_HEADER + "</p><ul>{{books}}</ul></body></html>", "books");
+
+    private final String[] literals;
+    private final int[] slots;
+
+    private DigestTemplate(String[] literals, int[] slots) {
+        this.literals = literals;
+        this.slots = slots;
+    }
+
+    static DigestTemplate compile(String source, String... placeholders) {
+        List<String> literals = new ArrayList<>();
+        List<Integer> slots = new ArrayList<>();
+        int position = 0;
+        int start;
+
+        while ((start = source.indexOf("{{", position)) >= 0) {
+            int end = source.indexOf("}}", start);
+            String name = source.substring(start + 2, end);
+            int slot = List.of(placeholders).indexOf(name);
+            if (slot < 0) {
+                throw new IllegalArgumentException("Unknown placeholder in digest template: " + name);
+            }
+            literals.add(source.substring(position, start));
+            slots.add(slot);
+            position = end + 2;
+        }
+        literals.add(source.substring(position));
+
+        return new DigestTemplate(literals.toArray(String[]::new), slots.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    String render(CharSequence... values) {
+        StringBuilder out = new StringBuilder();
+        render(out, values);
+        return out.toString();
+    }
+
+    void render(StringBuilder out, CharSequence... values) {
+        for (int i = 0; i < slots.length; i++) {
+            out.append(literals[i]).append(values[slots[i]]);
+        }
+        out.append(literals[slots.length]);
+    }
+}
@@ -0,0 +1,79 @@
+package pl.kurs.service;
+
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.GetResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.support.DefaultMessagePropertiesConverter;
+import org.springframework.amqp.rabbit.support.MessagePropertiesConverter;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.stereotype.Service;
+import pl.kurs.config.NotificationProperties;
+import pl.kurs.config.RabbitConfig;
+import pl.kurs.messaging.dto.EmailMessage;
+
+import java.nio.charset.StandardCharsets;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EmailDeadLetterService {
+    private static final String ENCODING = StandardCharsets.UTF_8.name();
+
+    private final RabbitTemplate rabbitTemplate;
+    private final Jackson2JsonMessageConverter jackson2JsonMessageConverter;
+    private final NotificationProperties notificationProperties;
+    private final MessagePropertiesConverter messagePropertiesConverter = new DefaultMessagePropertiesConverter();
+
+    public int replayDeadLetters(int limit) {
+        Integer replayed = rabbitTemplate.execute(channel -> replay(channel, limit));
+        log.info("Replayed {} dead-lettered emails", replayed);
+        return replayed != null ? replayed : 0;
+    }
+
+    private int replay(Channel channel, int limit) throws Exception {
+        int replayed = 0;
+        GetResponse response;
+        channel.confirmSelect();
+
+        while (replayed < limit && (response = channel.basicGet(RabbitConfig.EMAIL_DEAD_LETTER_QUEUE, false)) != null) {
+            long deliveryTag = response.getEnvelope().getDeliveryTag();
+            try {
+                republish(channel, response);
+                channel.waitForConfirmsOrDie(notificationProperties.getPublishConfirmTimeoutMs());
+            } catch (Exception e) {
+                log.error("Failed to replay dead-lettered email, returning it to {}", RabbitConfig.EMAIL_DEAD_LETTER_QUEUE, e);
+                requeue(channel, deliveryTag);
+                return replayed;
+            }
+            channel.basicAck(deliveryTag, false);
+            replayed++;
+        }
+        return replayed;
+    }
+
+    private void republish(Channel channel, GetResponse response) throws Exception {
+        MessageProperties deadLetterProperties = messagePropertiesConverter.toMessageProperties(
+                response.getProps(), response.getEnvelope(), ENCODING);
+        Message deadLetter = new Message(response.getBody(), deadLetterProperties);
+        EmailMessage emailMessage = (EmailMessage) jackson2JsonMessageConverter.fromMessage(deadLetter);
+        String sourceQueue = deadLetterProperties.getHeader(RabbitConfig.SOURCE_QUEUE_HEADER);
+
+        emailMessage.setRetryCount(0);
+        Message replay = jackson2JsonMessageConverter.toMessage(emailMessage, new MessageProperties());
+        AMQP.BasicProperties properties = messagePropertiesConverter.fromMessageProperties(replay.getMessageProperties(), ENCODING);
+        channel.basicPublish("", sourceQueue != null ? sourceQueue : RabbitConfig.queueFor(emailMessage.getType()), false, properties, replay.getBody());
+    }
+
+    private void requeue(Channel channel, long deliveryTag) {
+        try {
+            channel.basicNack(deliveryTag, false, true);
+        } catch (Exception e) {
+            log.warn("Could not nack dead-lettered email, the broker requeues it when the channel closes", e);
+        }
+    }
+}
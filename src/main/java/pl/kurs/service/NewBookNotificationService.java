@@ -0,0 +1,131 @@
+package pl.kurs.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.longlong.LongIterator;
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import pl.kurs.config.NotificationProperties;
+import pl.kurs.entity.Book;
+import pl.kurs.entity.PendingBookNotification;
+import pl.kurs.event.BookCreatedEvent;
+import pl.kurs.messaging.dto.BatchPublishResult;
+import pl.kurs.messaging.dto.EmailMessage;
+import pl.kurs.messaging.producer.EmailProducer;
+import pl.kurs.repository.BookRepository;
+import pl.kurs.repository.PendingBookNotificationRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class NewBookNotificationService {
+    private static final String SUBJECT = "New books in the library";
+    private static final String CONTENT_HEADER = "Here are the new books added to the library, matching your subscriptions:\n\n";
+
+    private final BookRepository bookRepository;
+    private final PendingBookNotificationRepository pendingBookNotificationRepository;
+    private final SubscriptionIndexService subscriptionIndexService;
+    private final ClientService clientService;
+    private final EmailProducer emailProducer;
+    private final NotificationProperties notificationProperties;
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onBookCreated(BookCreatedEvent event) {
+        if (notificationProperties.getDeliveryMode() == NotificationProperties.DeliveryMode.REALTIME) {
+            pendingBookNotificationRepository.save(PendingBookNotification.builder()
+                    .bookId(event.getBookId())
+                    .createdAt(LocalDateTime.now())
+                    .build());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${notification.realtime-window-ms:5000}")
+    @Transactional
+    public void flushPendingBooks() {
+        List<PendingBookNotification> pending = pendingBookNotificationRepository.claimPending(
+                PageRequest.of(0, notificationProperties.getBatchSize()));
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        List<Long> bookIds = pending.stream().map(PendingBookNotification::getBookId).toList();
+        List<Book> books = bookRepository.findAllWithCategoryByIdIn(bookIds);
+        List<Roaring64NavigableMap> audiences = new ArrayList<>(books.size());
+        Roaring64NavigableMap recipients = new Roaring64NavigableMap();
+        for (Book book : books) {
+            Roaring64NavigableMap audience = subscriptionIndexService.findAudience(
+                    book.getAuthorId(), book.getCategory().getId());
+            audiences.add(audience);
+            recipients.or(audience);
+        }
+
+        int sent = 0;
+        List<EmailMessage> unconfirmed = new ArrayList<>();
+        List<Long> chunk = new ArrayList<>(notificationProperties.getBatchSize());
+        LongIterator iterator = recipients.getLongIterator();
+        while (iterator.hasNext()) {
+            chunk.add(iterator.next());
+            if (chunk.size() == notificationProperties.getBatchSize() || !iterator.hasNext()) {
+                BatchPublishResult result = notifyClients(chunk, books, audiences);
+                sent += result.getAckedCount();
+                unconfirmed.addAll(result.getFailed());
+                chunk.clear();
+            }
+        }
+
+        if (!unconfirmed.isEmpty()) {
+            BatchPublishResult retry = emailProducer.publishBatch(unconfirmed);
+            sent += retry.getAckedCount();
+            if (retry.getFailedCount() > 0) {
+                log.warn("{} new book notifications were not confirmed, keeping {} books pending for the next flush",
+                        retry.getFailedCount(), pending.size());
+                return;
+            }
+        }
+
+        pendingBookNotificationRepository.deleteAllInBatch(pending);
+        log.info("New book notifications flushed. Books: {}, notifications: {}", books.size(), sent);
+    }
+
+    private BatchPublishResult notifyClients(List<Long> clientIds, List<Book> books, List<Roaring64NavigableMap> audiences) {
+        Map<Long, String> emails = clientService.findVerifiedEmailsByIds(clientIds);
+        List<EmailMessage> messages = new ArrayList<>(emails.size());
+
+        for (Long clientId : clientIds) {
+            String email = emails.get(clientId);
+            if (email == null) {
+                continue;
+            }
+
+            StringBuilder booksList = new StringBuilder();
+            for (int i = 0; i < books.size(); i++) {
+                if (audiences.get(i).contains(clientId)) {
+                    Book book = books.get(i);
+                    if (!booksList.isEmpty()) {
+                        booksList.append('\n');
+                    }
+                    booksList.append(book.getTitle()).append(" - ").append(book.getAuthor())
+                            .append(" (").append(book.getCategory().getName()).append(')');
+                }
+            }
+
+            messages.add(EmailMessage.builder()
+                    .to(email)
+                    .subject(SUBJECT)
+                    .content(CONTENT_HEADER + booksList)
+                    .type(EmailMessage.EmailType.NEW_BOOK_NOTIFICATION)
+                    .build());
+        }
+        return emailProducer.publishBatch(messages);
+    }
+}
@@ -2,31 +2,61 @@ package pl.kurs.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Slice;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import pl.kurs.config.NotificationProperties;
+import pl.kurs.dto.ClientIdRange;
+import pl.kurs.dto.NotificationBatchResult;
+import pl.kurs.dto.NotificationPartitionResult;
+import pl.kurs.dto.RenderedDigest;
+import pl.kurs.entity.NotificationRun;
+import pl.kurs.entity.NotificationRunState;
+import pl.kurs.messaging.dto.BatchPublishResult;
+import pl.kurs.messaging.dto.EmailMessage;
 import pl.kurs.messaging.producer.EmailProducer;
+import pl.kurs.metrics.NotificationMetrics;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicInteger;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class NotificationBatchService {
+    private static final String DAILY_SUBJECT = "New books in the library - ";
+    private static final String OFFSET_PAGING = "offset";
+    private static final String KEYSET_PAGING = "keyset";
+
     private final SubscriptionService subscriptionService;
     private final EmailProducer emailProducer;
     private final NotificationProperties notificationProperties;
+    private final ClientService clientService;
+    private final DigestRenderer digestRenderer;
+    private final NotificationRunService notificationRunService;
+    private final NotificationMetrics notificationMetrics;
+    private final DigestBodyStore digestBodyStore;
+    @Qualifier("notificationExecutor")
+    private final Executor notificationExecutor;
 
     @Async("notificationExecutor")
     @Transactional(readOnly = true)
     public CompletableFuture<Integer> processBatch(LocalDate date, int page) {
+        long start = System.nanoTime();
         PageRequest pageRequest = PageRequest.of(page, notificationProperties.getBatchSize());
         Slice<Object[]> batch = subscriptionService.findEmailsAndBooksForDatePaginated(date, pageRequest);
+        notificationMetrics.recordDigestQuery(OFFSET_PAGING, System.nanoTime() - start);
 
         AtomicInteger processedCount = new AtomicInteger(0);
 
@@ -35,10 +65,7 @@ public class NotificationBatchService {
                 String email = (String) row[0];
                 String booksList = (String) row[1];
 
-                String subject = "New books in the library - " + date;
-                String content = "Here are the new books added to the library today, matching your subscriptions:\n\n" + booksList;
-
-                emailProducer.sendDailyBookList(email, subject, content);
+                sendDailyBookList(date, email, booksList);
                 processedCount.incrementAndGet();
 
             } catch (Exception e) {
@@ -46,11 +73,98 @@ public class NotificationBatchService {
             }
         });
 
+        notificationMetrics.recordBatch(OFFSET_PAGING, System.nanoTime() - start);
         log.debug("Processed batch page {} with {} notifications", page, processedCount.get());
         return CompletableFuture.completedFuture(processedCount.get());
     }
 
+    @Async("notificationExecutor")
+    @Transactional(readOnly = true)
+    public CompletableFuture<NotificationBatchResult> processBatchAfter(LocalDate date, long lastClientId, long maxClientId) {
+        long start = System.nanoTime();
+        List<Object[]> rows = subscriptionService.findDigestRowsForDateAfterClient(
+                date, lastClientId, maxClientId, notificationProperties.getBatchSize());
+        long queryNanos = System.nanoTime() - start;
+        notificationMetrics.recordDigestQuery(KEYSET_PAGING, queryNanos);
+
+        List<EmailMessage> messages = new ArrayList<>();
+        Map<EmailMessage, Long> clientIdsByMessage = new IdentityHashMap<>();
+        int fetchedCount = 0;
+        int failedCount = 0;
+        long batchLastClientId = lastClientId;
+        long renderNanos = 0;
+        int row = 0;
+
+        while (row < rows.size()) {
+            batchLastClientId = ((Number) rows.get(row)[0]).longValue();
+            String email = (String) rows.get(row)[1];
+            List<Long> bookIds = new ArrayList<>();
+            while (row < rows.size() && ((Number) rows.get(row)[0]).longValue() == batchLastClientId) {
+                bookIds.add(((Number) rows.get(row)[2]).longValue());
+                row++;
+            }
+            fetchedCount++;
+
+            long renderStart = System.nanoTime();
+            try {
+                EmailMessage message = createDailyDigest(date, email, digestRenderer.render(date, bookIds));
+                messages.add(message);
+                clientIdsByMessage.put(message, batchLastClientId);
+
+            } catch (Exception e) {
+                failedCount++;
+                log.error("Error processing notification for client id {}", batchLastClientId, e);
+            }
+            renderNanos += System.nanoTime() - renderStart;
+        }
+
+        long publishStart = System.nanoTime();
+        if (notificationProperties.getPayloadMode() == NotificationProperties.PayloadMode.CLAIM_CHECK) {
+            checkInBodies(date, messages);
+        }
+        BatchPublishResult publishResult = emailProducer.publishBatch(messages);
+        int processedCount = publishResult.getAckedCount();
+        List<EmailMessage> unconfirmed = publishResult.getFailed();
+        if (!unconfirmed.isEmpty()) {
+            BatchPublishResult retryResult = emailProducer.publishBatch(unconfirmed);
+            processedCount += retryResult.getAckedCount();
+            unconfirmed = retryResult.getFailed();
+        }
+        long publishNanos = System.nanoTime() - publishStart;
+        failedCount += unconfirmed.size();
+        if (!unconfirmed.isEmpty()) {
+            long firstUnconfirmedClientId = unconfirmed.stream()
+                    .mapToLong(clientIdsByMessage::get)
+                    .min()
+                    .getAsLong();
+            batchLastClientId = firstUnconfirmedClientId - 1;
+            log.warn("Broker did not confirm {} daily book lists, resuming after client id {}",
+                    unconfirmed.size(), batchLastClientId);
+        }
+
+        long totalNanos = System.nanoTime() - start;
+        notificationMetrics.recordBatch(KEYSET_PAGING, totalNanos);
+        log.debug("Processed batch after client id {} with {} notifications", lastClientId, processedCount);
+        return CompletableFuture.completedFuture(new NotificationBatchResult(
+                fetchedCount, processedCount, failedCount, unconfirmed.size(), batchLastClientId,
+                queryNanos, renderNanos, publishNanos, totalNanos));
+    }
+
     public void processAllNotifications(LocalDate date) {
+        List<NotificationRun> existingRuns = notificationRunService.findRuns(date);
+        if (!existingRuns.isEmpty()) {
+            processRuns(date, existingRuns);
+            return;
+        }
+        if (partitionCount() > 1) {
+            processAllNotificationsPartitioned(date);
+            return;
+        }
+        if (notificationProperties.getPagingMode() == NotificationProperties.PagingMode.KEYSET) {
+            processAllNotificationsKeyset(date);
+            return;
+        }
+
         int page = 0;
         int totalProcessed = 0;
         boolean hasMore = true;
@@ -77,5 +191,221 @@ public class NotificationBatchService {
 
         log.info("Daily notification processing completed. Total processed: {}", totalProcessed);
     }
-}
 
+    public void resumeUnfinishedRuns() {
+        for (LocalDate date : notificationRunService.findUnfinishedRunDates()) {
+            log.info("Resuming unfinished notification run for {}", date);
+            processRuns(date, notificationRunService.findRuns(date));
+        }
+    }
+
+    public void resumeAbandonedRuns() {
+        for (LocalDate date : notificationRunService.findInterruptedRunDates()) {
+            processRuns(date, notificationRunService.findRuns(date).stream()
+                    .filter(run -> run.getState() != NotificationRunState.FAILED)
+                    .toList());
+        }
+    }
+
+    private void processAllNotificationsKeyset(LocalDate date) {
+        List<long[]> bounds = new ArrayList<>();
+        bounds.add(new long[]{0L, Long.MAX_VALUE});
+        processRuns(date, startOrJoinRuns(date, bounds));
+    }
+
+    private void processAllNotificationsPartitioned(LocalDate date) {
+        Optional<ClientIdRange> clientIdRange = clientService.findVerifiedClientIdRange();
+        if (clientIdRange.isEmpty()) {
+            log.info("Daily notification processing completed. No verified clients to notify");
+            return;
+        }
+
+        processRuns(date, startOrJoinRuns(date, splitRange(clientIdRange.get(), partitionCount())));
+    }
+
+    private List<NotificationRun> startOrJoinRuns(LocalDate date, List<long[]> bounds) {
+        try {
+            return notificationRunService.startRuns(date, bounds);
+        } catch (DataIntegrityViolationException e) {
+            log.info("Notification run for {} was started by another node, joining it", date);
+            return notificationRunService.findRuns(date);
+        }
+    }
+
+    private int partitionCount() {
+        return Math.max(notificationProperties.getParallelism(), notificationProperties.getShardCount());
+    }
+
+    private void processRuns(LocalDate date, List<NotificationRun> runs) {
+        List<NotificationRun> pendingRuns = runs.stream()
+                .filter(run -> run.getState() != NotificationRunState.COMPLETED)
+                .toList();
+        if (pendingRuns.isEmpty()) {
+            log.info("Daily notification processing for {} already completed", date);
+            return;
+        }
+
+        if (notificationProperties.getParallelism() <= 1) {
+            int totalProcessed = 0;
+            int failedPartitions = 0;
+            int claimedPartitions = 0;
+            for (NotificationRun run : pendingRuns) {
+                Optional<NotificationPartitionResult> result = processPartition(date, run);
+                if (result.isPresent()) {
+                    claimedPartitions++;
+                    totalProcessed += result.get().getProcessedCount();
+                    if (result.get().isFailed()) {
+                        failedPartitions++;
+                    }
+                }
+            }
+            logRunSummary(date, totalProcessed, claimedPartitions, failedPartitions);
+            return;
+        }
+
+        List<CompletableFuture<Optional<NotificationPartitionResult>>> partitions = new ArrayList<>();
+        for (NotificationRun run : pendingRuns) {
+            try {
+                partitions.add(CompletableFuture.supplyAsync(() -> processPartition(date, run), notificationExecutor));
+            } catch (Exception e) {
+                log.error("Could not schedule partition {} ({}, {}]", run.getPartitionIndex(),
+                        run.getFromClientId(), run.getToClientId(), e);
+                partitions.add(CompletableFuture.completedFuture(Optional.of(new NotificationPartitionResult(
+                        run.getPartitionIndex(), run.getFromClientId(), run.getToClientId(), 0, e.getMessage()))));
+            }
+        }
+
+        int totalProcessed = 0;
+        int claimedPartitions = 0;
+        int failedPartitions = 0;
+        for (CompletableFuture<Optional<NotificationPartitionResult>> partition : partitions) {
+            Optional<NotificationPartitionResult> claimed = partition.join();
+            if (claimed.isEmpty()) {
+                continue;
+            }
+            NotificationPartitionResult result = claimed.get();
+            claimedPartitions++;
+            totalProcessed += result.getProcessedCount();
+            if (result.isFailed()) {
+                failedPartitions++;
+                log.error("Partition {} ({}, {}] failed after {} notifications: {}", result.getPartition(),
+                        result.getFromClientId(), result.getToClientId(), result.getProcessedCount(), result.getError());
+            }
+        }
+
+        logRunSummary(date, totalProcessed, claimedPartitions, failedPartitions);
+    }
+
+    private void logRunSummary(LocalDate date, int totalProcessed, int claimedPartitions, int failedPartitions) {
+        if (claimedPartitions == 0) {
+            log.debug("No notification partitions for {} could be claimed, they are leased by other nodes", date);
+            return;
+        }
+        log.info("Daily notification processing completed. Total processed: {}, partitions: {}, failed partitions: {}",
+                totalProcessed, claimedPartitions, failedPartitions);
+    }
+
+    private Optional<NotificationPartitionResult> processPartition(LocalDate date, NotificationRun candidate) {
+        NotificationRun run = candidate;
+        long lastClientId = run.getLastClientId();
+        int totalProcessed = 0;
+        boolean hasMore = true;
+
+        try {
+            Optional<NotificationRun> claimed = notificationRunService.claim(candidate.getId());
+            if (claimed.isEmpty()) {
+                return Optional.empty();
+            }
+            run = claimed.get();
+            lastClientId = run.getLastClientId();
+            if (lastClientId != run.getFromClientId()) {
+                log.info("Resuming partition {} of {} after client id {}", run.getPartitionIndex(), date, lastClientId);
+            }
+
+            while (hasMore) {
+                long afterClientId = lastClientId;
+                NotificationBatchResult batchResult = processBatchAfter(date, afterClientId, run.getToClientId()).get();
+                totalProcessed += batchResult.getProcessedCount();
+                boolean renewed = notificationRunService.checkpoint(run.getId(), afterClientId, batchResult);
+                lastClientId = batchResult.getLastClientId();
+                if (!renewed) {
+                    log.warn("Lease on partition {} of {} was lost after client id {}, leaving it to its new owner",
+                            run.getPartitionIndex(), date, lastClientId);
+                    return Optional.of(new NotificationPartitionResult(run.getPartitionIndex(), run.getFromClientId(),
+                            run.getToClientId(), totalProcessed, null));
+                }
+                if (batchResult.getUnconfirmedCount() > 0 && lastClientId == afterClientId) {
+                    throw new IllegalStateException("Broker did not confirm the daily book list after client id " + lastClientId);
+                }
+
+                hasMore = batchResult.getFetchedCount() == notificationProperties.getBatchSize()
+                        || batchResult.getUnconfirmedCount() > 0;
+            }
+            notificationRunService.complete(run.getId());
+
+        } catch (Exception e) {
+            log.error("Error processing batch after client id {}", lastClientId, e);
+            recordFailure(run, e);
+            return Optional.of(new NotificationPartitionResult(run.getPartitionIndex(), run.getFromClientId(),
+                    run.getToClientId(), totalProcessed, e.getMessage()));
+        }
+
+        return Optional.of(new NotificationPartitionResult(run.getPartitionIndex(), run.getFromClientId(),
+                run.getToClientId(), totalProcessed, null));
+    }
+
+    private void recordFailure(NotificationRun run, Exception cause) {
+        try {
+            notificationRunService.fail(run.getId(), String.valueOf(cause.getMessage()));
+        } catch (RuntimeException e) {
+            log.error("Could not record failure of notification run {}", run.getId(), e);
+        }
+    }
+
+    private static List<long[]> splitRange(ClientIdRange range, int partitions) {
+        long lowerBound = range.getMinId() - 1;
+        long span = range.getMaxId() - lowerBound;
+        int partitionCount = (int) Math.max(1, Math.min(partitions, span));
+        long step = span / partitionCount;
+
+        List<long[]> bounds = new ArrayList<>(partitionCount);
+        for (int i = 0; i < partitionCount; i++) {
+            long from = lowerBound + i * step;
+            long to = i == partitionCount - 1 ? range.getMaxId() : from + step;
+            bounds.add(new long[]{from, to});
+        }
+        return bounds;
+    }
+
+    private void sendDailyBookList(LocalDate date, String email, String booksList) {
+        emailProducer.sendDailyBookList(email, DAILY_SUBJECT + date, DigestTemplate.DAILY_TEXT.render(booksList));
+    }
+
+    private void checkInBodies(LocalDate date, List<EmailMessage> messages) {
+        if (messages.isEmpty()) {
+            return;
+        }
+
+        List<RenderedDigest> bodies = new ArrayList<>(messages.size());
+        for (EmailMessage message : messages) {
+            bodies.add(new RenderedDigest(message.getContent(), message.getHtmlContent()));
+        }
+        List<String> keys = digestBodyStore.storeAll(date, bodies);
+        for (int i = 0; i < messages.size(); i++) {
+            EmailMessage message = messages.get(i);
+            message.setDigestKey(keys.get(i));
+            message.setContent(null);
+            message.setHtmlContent(null);
+        }
+    }
+
+    private EmailMessage createDailyDigest(LocalDate date, String email, RenderedDigest digest) {
+        return EmailMessage.builder()
+                .to(email)
+                .subject(DAILY_SUBJECT + date)
+                .content(digest.getText())
+                .htmlContent(digest.getHtml())
+                .type(EmailMessage.EmailType.NEW_BOOK_NOTIFICATION)
+                .build();
+    }
+}
@@ -0,0 +1,134 @@
+package pl.kurs.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import pl.kurs.dto.NotificationBatchReportDto;
+import pl.kurs.dto.NotificationPartitionReportDto;
+import pl.kurs.dto.NotificationRunReportDto;
+import pl.kurs.dto.NotificationRunSummaryDto;
+import pl.kurs.entity.NotificationRun;
+import pl.kurs.entity.NotificationRunBatch;
+import pl.kurs.entity.NotificationRunState;
+import pl.kurs.exception.ResourceNotFoundException;
+import pl.kurs.mapper.NotificationRunMapper;
+import pl.kurs.repository.NotificationRunBatchRepository;
+import pl.kurs.repository.NotificationRunRepository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class NotificationRunReportService {
+    private final NotificationRunRepository notificationRunRepository;
+    private final NotificationRunBatchRepository notificationRunBatchRepository;
+    private final NotificationRunMapper notificationRunMapper;
+
+    public List<NotificationRunSummaryDto> findRecentRuns(int limit) {
+        List<LocalDate> dates = notificationRunRepository.findRecentRunDates(PageRequest.of(0, limit));
+        if (dates.isEmpty()) {
+            return List.of();
+        }
+
+        List<NotificationRun> runs = notificationRunRepository.findByRunDateInOrderByRunDateDescPartitionIndex(dates);
+        Map<Long, BatchTotals> totalsByRun = new HashMap<>();
+        for (Object[] row : notificationRunBatchRepository.summarizeByRunIds(runs.stream().map(NotificationRun::getId).toList())) {
+            totalsByRun.put(((Number) row[0]).longValue(), new BatchTotals(((Number) row[1]).longValue(),
+                    ((Number) row[2]).longValue(), ((Number) row[3]).longValue(),
+                    ((Number) row[4]).longValue(), ((Number) row[5]).longValue()));
+        }
+
+        Map<LocalDate, List<NotificationRun>> runsByDate = new LinkedHashMap<>();
+        runs.forEach(run -> runsByDate.computeIfAbsent(run.getRunDate(), date -> new ArrayList<>()).add(run));
+
+        List<NotificationRunSummaryDto> summaries = new ArrayList<>(runsByDate.size());
+        runsByDate.forEach((date, dateRuns) -> {
+            BatchTotals totals = BatchTotals.EMPTY;
+            for (NotificationRun run : dateRuns) {
+                totals = totals.plus(totalsByRun.getOrDefault(run.getId(), BatchTotals.EMPTY));
+            }
+            summaries.add(summarize(date, dateRuns, totals));
+        });
+        return summaries;
+    }
+
+    public NotificationRunReportDto findRun(LocalDate date) {
+        List<NotificationRun> runs = notificationRunRepository.findByRunDateOrderByPartitionIndex(date);
+        if (runs.isEmpty()) {
+            throw new ResourceNotFoundException("Notification run for " + date + " not found");
+        }
+
+        Map<Long, List<NotificationBatchReportDto>> batchesByRun = new HashMap<>();
+        BatchTotals totals = BatchTotals.EMPTY;
+        for (NotificationRunBatch batch : notificationRunBatchRepository.findByRunIdInOrderById(
+                runs.stream().map(NotificationRun::getId).toList())) {
+            batchesByRun.computeIfAbsent(batch.getRunId(), runId -> new ArrayList<>())
+                    .add(notificationRunMapper.entityToDto(batch));
+            totals = totals.plus(new BatchTotals(1, batch.getQueryTimeMs(), batch.getRenderTimeMs(),
+                    batch.getPublishTimeMs(), batch.getTotalTimeMs()));
+        }
+
+        List<NotificationPartitionReportDto> partitions = new ArrayList<>(runs.size());
+        for (NotificationRun run : runs) {
+            NotificationPartitionReportDto partition = notificationRunMapper.entityToDto(run);
+            partition.setBatches(batchesByRun.getOrDefault(run.getId(), List.of()));
+            partitions.add(partition);
+        }
+        return new NotificationRunReportDto(summarize(date, runs, totals), partitions);
+    }
+
+    private static NotificationRunSummaryDto summarize(LocalDate date, List<NotificationRun> runs, BatchTotals totals) {
+        int completed = 0;
+        int failed = 0;
+        long processedCount = 0;
+        long failedCount = 0;
+        for (NotificationRun run : runs) {
+            if (run.getState() == NotificationRunState.COMPLETED) {
+                completed++;
+            } else if (run.getState() == NotificationRunState.FAILED) {
+                failed++;
+            }
+            processedCount += run.getProcessedCount();
+            failedCount += run.getFailedCount();
+        }
+
+        LocalDateTime startedAt = runs.stream().map(NotificationRun::getStartedAt)
+                .min(Comparator.naturalOrder()).orElse(null);
+        LocalDateTime updatedAt = runs.stream().map(NotificationRun::getUpdatedAt)
+                .max(Comparator.naturalOrder()).orElse(null);
+
+        return new NotificationRunSummaryDto(date, overallState(runs, completed, failed).name(), runs.size(),
+                completed, failed, processedCount, failedCount, totals.batches(), totals.queryTimeMs(),
+                totals.renderTimeMs(), totals.publishTimeMs(), totals.totalTimeMs(), startedAt, updatedAt);
+    }
+
+    private static NotificationRunState overallState(List<NotificationRun> runs, int completed, int failed) {
+        if (failed > 0) {
+            return NotificationRunState.FAILED;
+        }
+        if (completed == runs.size()) {
+            return NotificationRunState.COMPLETED;
+        }
+        boolean running = runs.stream().anyMatch(run -> run.getState() == NotificationRunState.RUNNING);
+        return running || completed > 0 ? NotificationRunState.RUNNING : NotificationRunState.PENDING;
+    }
+
+    private record BatchTotals(long batches, long queryTimeMs, long renderTimeMs, long publishTimeMs, long totalTimeMs) {
+        private static final BatchTotals EMPTY = new BatchTotals(0, 0, 0, 0, 0);
+
+        BatchTotals plus(BatchTotals other) {
+            return new BatchTotals(batches + other.batches, queryTimeMs + other.queryTimeMs,
+                    renderTimeMs + other.renderTimeMs, publishTimeMs + other.publishTimeMs,
+                    totalTimeMs + other.totalTimeMs);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package pl.kurs.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+import pl.kurs.config.NotificationProperties;
+import pl.kurs.dto.NotificationBatchResult;
+import pl.kurs.entity.NotificationRun;
+import pl.kurs.entity.NotificationRunBatch;
+import pl.kurs.entity.NotificationRunState;
+import pl.kurs.repository.NotificationRunBatchRepository;
+import pl.kurs.repository.NotificationRunRepository;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@Service
+@Slf4j
+@Transactional
+public class NotificationRunService {
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final NotificationRunRepository notificationRunRepository;
+    private final NotificationRunBatchRepository notificationRunBatchRepository;
+    private final Duration leaseDuration;
+    private final int runBatchRetentionDays;
+    private final String nodeId;
+
+    public NotificationRunService(NotificationRunRepository notificationRunRepository,
+                                  NotificationRunBatchRepository notificationRunBatchRepository,
+                                  NotificationProperties notificationProperties) {
+        this.notificationRunRepository = notificationRunRepository;
+        this.notificationRunBatchRepository = notificationRunBatchRepository;
+        this.leaseDuration = Duration.ofMillis(notificationProperties.getLeaseDurationMs());
+        this.runBatchRetentionDays = notificationProperties.getRunBatchRetentionDays();
+        this.nodeId = StringUtils.hasText(notificationProperties.getNodeId())
+                ? notificationProperties.getNodeId()
+                : defaultNodeId();
+        log.info("Notification runs are leased as node {}", nodeId);
+    }
+
+    @Transactional(readOnly = true)
+    public List<NotificationRun> findRuns(LocalDate date) {
+        return notificationRunRepository.findByRunDateOrderByPartitionIndex(date);
+    }
+
+    @Transactional(readOnly = true)
+    public List<LocalDate> findUnfinishedRunDates() {
+        return notificationRunRepository.findRunDatesWithStateNot(NotificationRunState.COMPLETED);
+    }
+
+    @Transactional(readOnly = true)
+    public List<LocalDate> findInterruptedRunDates() {
+        return notificationRunRepository.findRunDatesWithStateIn(
+                EnumSet.of(NotificationRunState.PENDING, NotificationRunState.RUNNING));
+    }
+
+    public List<NotificationRun> startRuns(LocalDate date, List<long[]> bounds) {
+        LocalDateTime now = LocalDateTime.now();
+        List<NotificationRun> runs = new ArrayList<>(bounds.size());
+        for (long[] partitionBounds : bounds) {
+            runs.add(NotificationRun.builder()
+                    .runDate(date)
+                    .partitionIndex(runs.size())
+                    .fromClientId(partitionBounds[0])
+                    .toClientId(partitionBounds[1])
+                    .lastClientId(partitionBounds[0])
+                    .state(NotificationRunState.PENDING)
+                    .startedAt(now)
+                    .updatedAt(now)
+                    .build());
+        }
+        List<NotificationRun> saved = notificationRunRepository.saveAllAndFlush(runs);
+        log.info("Started notification run for {} with {} partitions", date, saved.size());
+        return saved;
+    }
+
+    public Optional<NotificationRun> claim(long runId) {
+        LocalDateTime now = LocalDateTime.now();
+        if (notificationRunRepository.claim(runId, nodeId, now, now.plus(leaseDuration)) == 0) {
+            return Optional.empty();
+        }
+        return notificationRunRepository.findById(runId);
+    }
+
+    public boolean checkpoint(long runId, long afterClientId, NotificationBatchResult batch) {
+        LocalDateTime now = LocalDateTime.now();
+        if (notificationRunRepository.checkpoint(runId, nodeId, batch.getLastClientId(), batch.getProcessedCount(),
+                batch.getFailedCount(), now, now.plus(leaseDuration)) == 0) {
+            return false;
+        }
+
+        notificationRunBatchRepository.save(NotificationRunBatch.builder()
+                .runId(runId)
+                .owner(nodeId)
+                .afterClientId(afterClientId)
+                .lastClientId(batch.getLastClientId())
+                .fetchedCount(batch.getFetchedCount())
+                .processedCount(batch.getProcessedCount())
+                .failedCount(batch.getFailedCount())
+                .queryTimeMs(TimeUnit.NANOSECONDS.toMillis(batch.getQueryNanos()))
+                .renderTimeMs(TimeUnit.NANOSECONDS.toMillis(batch.getRenderNanos()))
+                .publishTimeMs(TimeUnit.NANOSECONDS.toMillis(batch.getPublishNanos()))
+                .totalTimeMs(TimeUnit.NANOSECONDS.toMillis(batch.getTotalNanos()))
+                .recordedAt(now)
+                .build());
+        return true;
+    }
+
+    public void complete(long runId) {
+        notificationRunRepository.release(runId, nodeId, NotificationRunState.COMPLETED, null, LocalDateTime.now());
+    }
+
+    public void fail(long runId, String error) {
+        String truncated = error != null && error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+        notificationRunRepository.release(runId, nodeId, NotificationRunState.FAILED, truncated, LocalDateTime.now());
+    }
+
+    @Scheduled(cron = "${app.scheduling.run-batch-purge:0 45 1 * * *}")
+    public void purgeExpiredBatches() {
+        LocalDateTime cutoff = LocalDate.now().minusDays(runBatchRetentionDays).atStartOfDay();
+        int purged = notificationRunBatchRepository.deleteByRecordedAtBefore(cutoff);
+        if (purged > 0) {
+            log.info("Purged {} notification run batches recorded before {}", purged, cutoff);
+        }
+    }
+
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "unknown";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
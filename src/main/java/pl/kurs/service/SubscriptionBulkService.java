@@ -0,0 +1,252 @@
+package pl.kurs.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import pl.kurs.config.ImportProperties;
+import pl.kurs.dto.BulkRowErrorDto;
+import pl.kurs.dto.SubscriptionBulkCancelResultDto;
+import pl.kurs.dto.SubscriptionBulkCreateResultDto;
+import pl.kurs.dto.SubscriptionDto;
+import pl.kurs.dto.SubscriptionKey;
+import pl.kurs.entity.SubscriptionType;
+import pl.kurs.importer.ImportRowHandler;
+import pl.kurs.importer.JsonArrayImportReader;
+import pl.kurs.repository.SubscriptionBulkRepository;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SubscriptionBulkService {
+    private final SubscriptionBulkRepository subscriptionBulkRepository;
+    private final SubscriptionIndexService subscriptionIndexService;
+    private final ClientService clientService;
+    private final AuthorService authorService;
+    private final CategoryService categoryService;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final ImportProperties importProperties;
+    private final TransactionTemplate transactionTemplate;
+
+    public SubscriptionBulkCreateResultDto createSubscriptions(InputStream input) {
+        BulkCreate bulkCreate = new BulkCreate();
+        JsonArrayImportReader.read(objectMapper, input, SubscriptionDto.class, bulkCreate);
+        return bulkCreate.finish();
+    }
+
+    public SubscriptionBulkCancelResultDto cancelSubscriptions(InputStream input) {
+        BulkCancel bulkCancel = new BulkCancel();
+        JsonArrayImportReader.read(objectMapper, input, SubscriptionDto.class, bulkCancel);
+        return bulkCancel.finish();
+    }
+
+    private abstract class BulkOperation implements ImportRowHandler<SubscriptionDto> {
+        protected final List<PendingKey> pending = new ArrayList<>();
+        private final Set<SubscriptionKey> pendingKeys = new HashSet<>();
+        protected final List<BulkRowErrorDto> errors = new ArrayList<>();
+        protected int rejectedCount;
+
+        @Override
+        public void accept(long rowNumber, SubscriptionDto dto) {
+            Set<ConstraintViolation<SubscriptionDto>> violations = validator.validate(dto);
+            if (!violations.isEmpty()) {
+                reject(rowNumber, violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+                return;
+            }
+            Optional<SubscriptionType> subscriptionType = SubscriptionType.parse(dto.getSubscriptionType());
+            if (subscriptionType.isEmpty()) {
+                reject(rowNumber, "Unknown subscription type: " + dto.getSubscriptionType());
+                return;
+            }
+
+            SubscriptionKey key = new SubscriptionKey(dto.getClientId(), subscriptionType.get(), dto.getSubscriptionValue());
+            if (!pendingKeys.add(key)) {
+                onDuplicateInBatch();
+                return;
+            }
+            pending.add(new PendingKey(rowNumber, key));
+            if (pending.size() >= importProperties.getBatchSize()) {
+                flush();
+            }
+        }
+
+        @Override
+        public void reject(long rowNumber, String message) {
+            rejectedCount++;
+            if (errors.size() < importProperties.getMaxReportedErrors()) {
+                errors.add(new BulkRowErrorDto(rowNumber, message));
+            }
+        }
+
+        protected void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            List<PendingKey> batch = new ArrayList<>(pending);
+            pending.clear();
+            pendingKeys.clear();
+            process(batch);
+        }
+
+        protected void rejectFailedBatch(List<PendingKey> batch, String operation, RuntimeException e) {
+            log.error("Bulk subscription {} failed for rows {}-{}", operation, batch.get(0).rowNumber(),
+                    batch.get(batch.size() - 1).rowNumber(), e);
+            batch.forEach(failed -> reject(failed.rowNumber(), "Batch " + operation + " failed: " + e.getMessage()));
+        }
+
+        protected abstract void onDuplicateInBatch();
+
+        protected abstract void process(List<PendingKey> batch);
+    }
+
+    private class BulkCreate extends BulkOperation {
+        private int createdCount;
+        private int existingCount;
+
+        @Override
+        protected void onDuplicateInBatch() {
+            existingCount++;
+        }
+
+        @Override
+        protected void process(List<PendingKey> batch) {
+            Map<Long, Boolean> verificationStatuses = clientService.findVerificationStatusByIds(
+                    batch.stream().map(pendingKey -> pendingKey.key().getClientId()).collect(Collectors.toSet()));
+
+            List<PendingKey> verified = new ArrayList<>(batch.size());
+            for (PendingKey pendingKey : batch) {
+                Boolean emailVerified = verificationStatuses.get(pendingKey.key().getClientId());
+                if (emailVerified == null) {
+                    reject(pendingKey.rowNumber(), "Client not found with id: " + pendingKey.key().getClientId());
+                } else if (!emailVerified) {
+                    reject(pendingKey.rowNumber(), "Email must be verified before creating subscription");
+                } else {
+                    verified.add(pendingKey);
+                }
+            }
+            if (verified.isEmpty()) {
+                return;
+            }
+
+            List<PendingKey> accepted;
+            try {
+                accepted = resolveTargets(verified);
+            } catch (RuntimeException e) {
+                rejectFailedBatch(verified, "insert", e);
+                return;
+            }
+            if (accepted.isEmpty()) {
+                return;
+            }
+
+            Set<SubscriptionKey> created;
+            try {
+                created = transactionTemplate.execute(status -> {
+                    Set<SubscriptionKey> inserted = subscriptionBulkRepository.insertIgnoringExisting(
+                            accepted.stream().map(PendingKey::key).toList());
+                    inserted.forEach(key -> subscriptionIndexService.onSubscriptionCreated(
+                            key.getSubscriptionType(), key.getTargetId(), key.getClientId()));
+                    return inserted;
+                });
+            } catch (RuntimeException e) {
+                rejectFailedBatch(accepted, "insert", e);
+                return;
+            }
+
+            createdCount += created.size();
+            existingCount += accepted.size() - created.size();
+        }
+
+        private List<PendingKey> resolveTargets(List<PendingKey> batch) {
+            Set<String> authors = new HashSet<>();
+            Map<String, Optional<Long>> categoryIds = new HashMap<>();
+            for (PendingKey pendingKey : batch) {
+                String value = pendingKey.key().getSubscriptionValue();
+                switch (pendingKey.key().getSubscriptionType()) {
+                    case AUTHOR -> authors.add(value);
+                    case CATEGORY -> categoryIds.computeIfAbsent(value, categoryService::findIdByName);
+                }
+            }
+            Map<String, Long> authorIds = authorService.internAuthors(authors);
+
+            List<PendingKey> resolved = new ArrayList<>(batch.size());
+            for (PendingKey pendingKey : batch) {
+                String value = pendingKey.key().getSubscriptionValue();
+                Long targetId = switch (pendingKey.key().getSubscriptionType()) {
+                    case AUTHOR -> authorIds.get(value);
+                    case CATEGORY -> categoryIds.get(value).orElse(null);
+                };
+                if (targetId == null) {
+                    reject(pendingKey.rowNumber(), "Category not found with name: " + value);
+                } else {
+                    resolved.add(new PendingKey(pendingKey.rowNumber(), pendingKey.key().withTargetId(targetId)));
+                }
+            }
+            return resolved;
+        }
+
+        private SubscriptionBulkCreateResultDto finish() {
+            flush();
+            log.info("Bulk subscription create finished. Created: {}, existing: {}, rejected: {}",
+                    createdCount, existingCount, rejectedCount);
+            return new SubscriptionBulkCreateResultDto(createdCount, existingCount, rejectedCount, errors);
+        }
+    }
+
+    private class BulkCancel extends BulkOperation {
+        private int cancelledCount;
+        private int notFoundCount;
+
+        @Override
+        protected void onDuplicateInBatch() {
+            notFoundCount++;
+        }
+
+        @Override
+        protected void process(List<PendingKey> batch) {
+            Set<SubscriptionKey> deleted;
+            try {
+                deleted = transactionTemplate.execute(status -> {
+                    Set<SubscriptionKey> removed = subscriptionBulkRepository.deleteExisting(
+                            batch.stream().map(PendingKey::key).toList());
+                    removed.forEach(key -> subscriptionIndexService.onSubscriptionCancelled(
+                            key.getSubscriptionType(), key.getTargetId(), key.getClientId()));
+                    return removed;
+                });
+            } catch (RuntimeException e) {
+                rejectFailedBatch(batch, "delete", e);
+                return;
+            }
+
+            cancelledCount += deleted.size();
+            notFoundCount += batch.size() - deleted.size();
+        }
+
+        private SubscriptionBulkCancelResultDto finish() {
+            flush();
+            log.info("Bulk subscription cancel finished. Cancelled: {}, not found: {}, rejected: {}",
+                    cancelledCount, notFoundCount, rejectedCount);
+            return new SubscriptionBulkCancelResultDto(cancelledCount, notFoundCount, rejectedCount, errors);
+        }
+    }
+
+    private record PendingKey(long rowNumber, SubscriptionKey key) {
+    }
+}
@@ -0,0 +1,188 @@
+package pl.kurs.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import pl.kurs.entity.Subscription;
+import pl.kurs.entity.SubscriptionType;
+import pl.kurs.repository.SubscriptionRepository;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SubscriptionIndexService {
+    private static final int REBUILD_CHUNK_SIZE = 10_000;
+
+    private final SubscriptionRepository subscriptionRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<SubscriptionType, Map<Long, Roaring64NavigableMap>> index = emptyIndex();
+    private List<IndexChange> rebuildJournal;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${notification.subscription-index-refresh-ms:300000}",
+            fixedDelayString = "${notification.subscription-index-refresh-ms:300000}")
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            rebuildJournal = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Map<SubscriptionType, Map<Long, Roaring64NavigableMap>> rebuilt = emptyIndex();
+        long lastId = 0;
+        long entries = 0;
+        List<Object[]> chunk;
+
+        try {
+            do {
+                chunk = subscriptionRepository.findIndexEntriesAfter(lastId, PageRequest.of(0, REBUILD_CHUNK_SIZE));
+                for (Object[] row : chunk) {
+                    lastId = ((Number) row[0]).longValue();
+                    long clientId = ((Number) row[1]).longValue();
+                    long targetId = ((Number) row[3]).longValue();
+                    apply(rebuilt, new IndexChange((SubscriptionType) row[2], targetId, clientId, true));
+                }
+                entries += chunk.size();
+            } while (chunk.size() == REBUILD_CHUNK_SIZE);
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                rebuildJournal = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            rebuildJournal.forEach(change -> apply(rebuilt, change));
+            rebuildJournal = null;
+            rebuilt.values().forEach(bitmaps -> bitmaps.values().forEach(Roaring64NavigableMap::runOptimize));
+            index = rebuilt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        log.info("Subscription index rebuilt from {} subscriptions", entries);
+    }
+
+    public void rebuildAfterCommit() {
+        afterCommit(this::rebuild);
+    }
+
+    public void onSubscriptionCreated(Subscription subscription) {
+        onSubscriptionCreated(subscription.getSubscriptionType(), subscription.getTargetId(),
+                subscription.getClient().getId());
+    }
+
+    public void onSubscriptionCreated(SubscriptionType type, Long targetId, long clientId) {
+        if (targetId != null) {
+            IndexChange change = new IndexChange(type, targetId, clientId, true);
+            afterCommit(() -> applyToLiveIndex(change));
+        }
+    }
+
+    public void onSubscriptionCancelled(Subscription subscription) {
+        onSubscriptionCancelled(subscription.getSubscriptionType(), subscription.getTargetId(),
+                subscription.getClient().getId());
+    }
+
+    public void onSubscriptionCancelled(SubscriptionType type, Long targetId, long clientId) {
+        if (targetId != null) {
+            IndexChange change = new IndexChange(type, targetId, clientId, false);
+            afterCommit(() -> applyToLiveIndex(change));
+        }
+    }
+
+    public Roaring64NavigableMap findSubscribers(SubscriptionType type, long targetId) {
+        lock.readLock().lock();
+        try {
+            Roaring64NavigableMap subscribers = index.get(type).get(targetId);
+            Roaring64NavigableMap copy = new Roaring64NavigableMap();
+            if (subscribers != null) {
+                copy.or(subscribers);
+            }
+            return copy;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Roaring64NavigableMap findAudience(Long authorId, long categoryId) {
+        Roaring64NavigableMap audience = findSubscribers(SubscriptionType.CATEGORY, categoryId);
+        if (authorId != null) {
+            audience.or(findSubscribers(SubscriptionType.AUTHOR, authorId));
+        }
+        return audience;
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private void applyToLiveIndex(IndexChange change) {
+        lock.writeLock().lock();
+        try {
+            apply(index, change);
+            if (rebuildJournal != null) {
+                rebuildJournal.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void apply(Map<SubscriptionType, Map<Long, Roaring64NavigableMap>> target, IndexChange change) {
+        Map<Long, Roaring64NavigableMap> bitmaps = target.get(change.type());
+        if (change.added()) {
+            bitmaps.computeIfAbsent(change.targetId(), key -> new Roaring64NavigableMap()).addLong(change.clientId());
+            return;
+        }
+
+        Roaring64NavigableMap subscribers = bitmaps.get(change.targetId());
+        if (subscribers != null) {
+            subscribers.removeLong(change.clientId());
+            if (subscribers.isEmpty()) {
+                bitmaps.remove(change.targetId());
+            }
+        }
+    }
+
+    private static Map<SubscriptionType, Map<Long, Roaring64NavigableMap>> emptyIndex() {
+        Map<SubscriptionType, Map<Long, Roaring64NavigableMap>> empty = new EnumMap<>(SubscriptionType.class);
+        for (SubscriptionType type : SubscriptionType.values()) {
+            empty.put(type, new HashMap<>());
+        }
+        return empty;
+    }
+
+    private record IndexChange(SubscriptionType type, long targetId, long clientId, boolean added) {
+    }
+}
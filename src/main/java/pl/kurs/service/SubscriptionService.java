@@ -9,10 +9,12 @@ import pl.kurs.dto.SubscriptionDto;
 import pl.kurs.entity.Client;
 import pl.kurs.entity.Subscription;
 import pl.kurs.entity.SubscriptionType;
+import pl.kurs.exception.ResourceNotFoundException;
 import pl.kurs.mapper.SubscriptionMapper;
 import pl.kurs.repository.SubscriptionRepository;
 
 import java.time.LocalDate;
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
@@ -22,6 +24,9 @@ public class SubscriptionService {
     private final SubscriptionRepository subscriptionRepository;
     private final ClientService clientService;
     private final SubscriptionMapper subscriptionMapper;
+    private final SubscriptionIndexService subscriptionIndexService;
+    private final AuthorService authorService;
+    private final CategoryService categoryService;
 
     public SubscriptionDto createSubscription(SubscriptionDto dto) {
         Client client = clientService.getVerifiedClientById(dto.getClientId());
@@ -31,17 +36,32 @@ public class SubscriptionService {
         Subscription subscription = subscriptionMapper.dtoToEntity(dto);
         subscription.setClient(client);
         subscription.setSubscriptionType(subscriptionType);
+        subscription.setTargetId(resolveTargetId(subscriptionType, dto.getSubscriptionValue()));
 
         Subscription savedSubscription = subscriptionRepository.save(subscription);
+        subscriptionIndexService.onSubscriptionCreated(savedSubscription);
 
         return subscriptionMapper.entityToDto(savedSubscription);
     }
 
     public void cancelSubscriptionById(Long id) {
+        subscriptionRepository.findById(id).ifPresent(subscriptionIndexService::onSubscriptionCancelled);
         subscriptionRepository.deleteById(id);
     }
 
     public Slice<Object[]> findEmailsAndBooksForDatePaginated(LocalDate date, PageRequest pageRequest) {
         return subscriptionRepository.findEmailsAndBooksForDatePaginated(date, pageRequest);
     }
+
+    public List<Object[]> findDigestRowsForDateAfterClient(LocalDate date, long lastClientId, long maxClientId, int limit) {
+        return subscriptionRepository.findDigestRowsForDateAfterClient(date, lastClientId, maxClientId, limit);
+    }
+
+    private Long resolveTargetId(SubscriptionType subscriptionType, String subscriptionValue) {
+        return switch (subscriptionType) {
+            case AUTHOR -> authorService.internAuthor(subscriptionValue);
+            case CATEGORY -> categoryService.findIdByName(subscriptionValue)
+                    .orElseThrow(() -> new ResourceNotFoundException("Category not found with name: " + subscriptionValue));
+        };
+    }
 }
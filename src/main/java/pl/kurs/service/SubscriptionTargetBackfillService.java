@@ -0,0 +1,29 @@
+package pl.kurs.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import pl.kurs.repository.SubscriptionTargetBackfillRepository;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SubscriptionTargetBackfillService {
+
+    private final SubscriptionTargetBackfillRepository subscriptionTargetBackfillRepository;
+    private final SubscriptionIndexService subscriptionIndexService;
+
+    @Transactional
+    public int catchUp() {
+        int books = subscriptionTargetBackfillRepository.linkBookAuthors();
+        int subscriptions = subscriptionTargetBackfillRepository.linkSubscriptionTargets();
+        if (books > 0 || subscriptions > 0) {
+            log.info("Linked {} books and {} subscriptions written without target ids", books, subscriptions);
+        }
+        if (subscriptions > 0) {
+            subscriptionIndexService.rebuildAfterCommit();
+        }
+        return books + subscriptions;
+    }
+}
@@ -0,0 +1,95 @@
+package pl.kurs.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import pl.kurs.config.NotificationProperties;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.OptionalLong;
+
+@Service
+@Slf4j
+public class VerificationTokenService {
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecretKeySpec key;
+    private final Duration expiry;
+    private final Clock clock;
+
+    @Autowired
+    public VerificationTokenService(NotificationProperties notificationProperties) {
+        this(notificationProperties, Clock.systemUTC());
+    }
+
+    VerificationTokenService(NotificationProperties notificationProperties, Clock clock) {
+        this.key = new SecretKeySpec(secret(notificationProperties.getTokenSecret()), ALGORITHM);
+        this.expiry = Duration.ofHours(notificationProperties.getTokenExpiryHours());
+        this.clock = clock;
+    }
+
+    public String issue(long clientId) {
+        String payload = clientId + "." + Instant.now(clock).getEpochSecond();
+        return payload + "." + ENCODER.encodeToString(sign(payload));
+    }
+
+    public OptionalLong verify(String token) {
+        if (token == null) {
+            return OptionalLong.empty();
+        }
+        int signatureStart = token.lastIndexOf('.');
+        int issuedAtStart = token.lastIndexOf('.', signatureStart - 1);
+        if (issuedAtStart <= 0) {
+            return OptionalLong.empty();
+        }
+
+        String payload = token.substring(0, signatureStart);
+        byte[] signature;
+        long clientId;
+        long issuedAt;
+        try {
+            signature = DECODER.decode(token.substring(signatureStart + 1));
+            clientId = Long.parseLong(token.substring(0, issuedAtStart));
+            issuedAt = Long.parseLong(token.substring(issuedAtStart + 1, signatureStart));
+        } catch (IllegalArgumentException e) {
+            return OptionalLong.empty();
+        }
+
+        if (!MessageDigest.isEqual(sign(payload), signature)) {
+            return OptionalLong.empty();
+        }
+        if (Instant.ofEpochSecond(issuedAt).plus(expiry).isBefore(Instant.now(clock))) {
+            log.debug("Verification token for client id {} expired", clientId);
+            return OptionalLong.empty();
+        }
+        return OptionalLong.of(clientId);
+    }
+
+    private byte[] sign(String payload) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(payload.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Could not sign verification token", e);
+        }
+    }
+
+    private static byte[] secret(String configuredSecret) {
+        if (configuredSecret == null || configuredSecret.isBlank()) {
+            throw new IllegalStateException("notification.token-secret must be set (VERIFICATION_TOKEN_SECRET); "
+                    + "every instance has to sign verification tokens with the same secret");
+        }
+        return configuredSecret.getBytes(StandardCharsets.UTF_8);
+    }
+}
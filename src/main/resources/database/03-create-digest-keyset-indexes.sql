@@ -0,0 +1,5 @@
+--liquibase formatted sql
+--changeset test_3R:3
+
+CREATE INDEX idx_book_added_date_author ON books(added_date, author);
+CREATE INDEX idx_book_added_date_category ON books(added_date, book_category);
@@ -0,0 +1,4 @@
+--liquibase formatted sql
+--changeset test_3R:4 dbms:postgresql
+
+ALTER SEQUENCE books_id_seq INCREMENT BY 50;
@@ -0,0 +1,10 @@
+--liquibase formatted sql
+--changeset test_3R:5
+
+CREATE TABLE authors (
+    id BIGSERIAL PRIMARY KEY,
+    name VARCHAR(255) NOT NULL UNIQUE
+);
+
+ALTER TABLE books ADD COLUMN author_id BIGINT;
+ALTER TABLE subscriptions ADD COLUMN target_id BIGINT;
@@ -0,0 +1,61 @@
+--liquibase formatted sql
+--changeset test_3R:6 dbms:postgresql runInTransaction:false splitStatements:false
+
+DO $$
+DECLARE
+    chunk_size CONSTANT BIGINT := 10000;
+    last_id BIGINT;
+    max_id BIGINT;
+BEGIN
+    last_id := 0;
+    SELECT COALESCE(MAX(id), 0) INTO max_id FROM books;
+    WHILE last_id < max_id LOOP
+        INSERT INTO authors (name)
+        SELECT DISTINCT b.author
+        FROM books b
+        WHERE b.id > last_id AND b.id <= last_id + chunk_size
+        AND NOT EXISTS (SELECT 1 FROM authors a WHERE a.name = b.author)
+        ON CONFLICT (name) DO NOTHING;
+
+        UPDATE books b
+        SET author_id = a.id
+        FROM authors a
+        WHERE a.name = b.author
+        AND b.author_id IS NULL
+        AND b.id > last_id AND b.id <= last_id + chunk_size;
+
+        last_id := last_id + chunk_size;
+        COMMIT;
+    END LOOP;
+
+    last_id := 0;
+    SELECT COALESCE(MAX(id), 0) INTO max_id FROM subscriptions;
+    WHILE last_id < max_id LOOP
+        INSERT INTO authors (name)
+        SELECT DISTINCT s.subscription_value
+        FROM subscriptions s
+        WHERE s.subscription_type = 'AUTHOR'
+        AND s.id > last_id AND s.id <= last_id + chunk_size
+        AND NOT EXISTS (SELECT 1 FROM authors a WHERE a.name = s.subscription_value)
+        ON CONFLICT (name) DO NOTHING;
+
+        UPDATE subscriptions s
+        SET target_id = a.id
+        FROM authors a
+        WHERE s.subscription_type = 'AUTHOR'
+        AND a.name = s.subscription_value
+        AND s.target_id IS NULL
+        AND s.id > last_id AND s.id <= last_id + chunk_size;
+
+        UPDATE subscriptions s
+        SET target_id = cat.id
+        FROM categories cat
+        WHERE s.subscription_type = 'CATEGORY'
+        AND cat.name = s.subscription_value
+        AND s.target_id IS NULL
+        AND s.id > last_id AND s.id <= last_id + chunk_size;
+
+        last_id := last_id + chunk_size;
+        COMMIT;
+    END LOOP;
+END $$;
@@ -0,0 +1,8 @@
+--liquibase formatted sql
+--changeset test_3R:7 dbms:postgresql runInTransaction:false
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_book_added_date_author_id ON books(added_date, author_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_subscription_type_target_client ON subscriptions(subscription_type, target_id, client_id);
+
+ALTER TABLE books ADD CONSTRAINT fk_books_author FOREIGN KEY (author_id) REFERENCES authors(id) NOT VALID;
+ALTER TABLE books VALIDATE CONSTRAINT fk_books_author;
@@ -0,0 +1,20 @@
+--liquibase formatted sql
+--changeset test_3R:8
+
+CREATE TABLE notification_runs (
+    id BIGSERIAL PRIMARY KEY,
+    run_date DATE NOT NULL,
+    partition_index INTEGER NOT NULL,
+    from_client_id BIGINT NOT NULL,
+    to_client_id BIGINT NOT NULL,
+    last_client_id BIGINT NOT NULL,
+    processed_count INTEGER NOT NULL DEFAULT 0,
+    failed_count INTEGER NOT NULL DEFAULT 0,
+    state VARCHAR(20) NOT NULL,
+    error VARCHAR(1000),
+    started_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    CONSTRAINT uk_notification_run_partition UNIQUE (run_date, partition_index)
+);
+
+CREATE INDEX idx_notification_run_state_date ON notification_runs(state, run_date);
@@ -0,0 +1,5 @@
+--liquibase formatted sql
+--changeset test_3R:9
+
+ALTER TABLE notification_runs ADD COLUMN owner VARCHAR(100);
+ALTER TABLE notification_runs ADD COLUMN lease_expires_at TIMESTAMP;
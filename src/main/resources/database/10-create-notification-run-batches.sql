@@ -0,0 +1,20 @@
+--liquibase formatted sql
+--changeset test_3R:10
+
+CREATE TABLE notification_run_batches (
+    id BIGSERIAL PRIMARY KEY,
+    run_id BIGINT NOT NULL REFERENCES notification_runs(id),
+    owner VARCHAR(100),
+    after_client_id BIGINT NOT NULL,
+    last_client_id BIGINT NOT NULL,
+    fetched_count INTEGER NOT NULL,
+    processed_count INTEGER NOT NULL,
+    failed_count INTEGER NOT NULL,
+    query_time_ms BIGINT NOT NULL,
+    render_time_ms BIGINT NOT NULL,
+    publish_time_ms BIGINT NOT NULL,
+    total_time_ms BIGINT NOT NULL,
+    recorded_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_notification_run_batch_run ON notification_run_batches(run_id, id);
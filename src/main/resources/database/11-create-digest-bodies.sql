@@ -0,0 +1,12 @@
+--liquibase formatted sql
+--changeset test_3R:11
+
+CREATE TABLE digest_bodies (
+    digest_key VARCHAR(64) PRIMARY KEY,
+    digest_date DATE NOT NULL,
+    text_content TEXT NOT NULL,
+    html_content TEXT,
+    created_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_digest_body_date ON digest_bodies(digest_date);
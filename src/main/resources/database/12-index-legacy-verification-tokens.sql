@@ -0,0 +1,5 @@
+--liquibase formatted sql
+--changeset test_3R:12 dbms:postgresql runInTransaction:false
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_client_legacy_verification_token ON clients(verification_token)
+    WHERE verification_token IS NOT NULL;
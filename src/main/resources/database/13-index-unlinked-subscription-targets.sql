@@ -0,0 +1,5 @@
+--liquibase formatted sql
+--changeset test_3R:13 dbms:postgresql runInTransaction:false
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_book_unlinked_author ON books(id) WHERE author_id IS NULL;
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_subscription_unlinked_target ON subscriptions(id) WHERE target_id IS NULL;
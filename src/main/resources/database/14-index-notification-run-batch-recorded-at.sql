@@ -0,0 +1,4 @@
+--liquibase formatted sql
+--changeset test_3R:14
+
+CREATE INDEX idx_notification_run_batch_recorded_at ON notification_run_batches(recorded_at);
@@ -0,0 +1,7 @@
+--liquibase formatted sql
+--changeset test_3R:15
+
+CREATE TABLE pending_book_notifications (
+    book_id BIGINT PRIMARY KEY REFERENCES books(id) ON DELETE CASCADE,
+    created_at TIMESTAMP NOT NULL
+);
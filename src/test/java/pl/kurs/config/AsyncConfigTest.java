@@ -0,0 +1,112 @@
+package pl.kurs.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AsyncConfigTest {
+
+    private final AsyncProperties.Pool pool = new AsyncProperties.Pool(4, 50, 3);
+
+    @Test
+    void shouldCreateBoundedPlatformThreadPoolByDefault() {
+        //when
+        Executor executor = AsyncConfig.createExecutor("Test-", AsyncProperties.ExecutorMode.PLATFORM, pool);
+
+        //then
+        assertThat(executor).isInstanceOf(ThreadPoolTaskExecutor.class);
+        ThreadPoolTaskExecutor threadPool = (ThreadPoolTaskExecutor) executor;
+        assertThat(threadPool.getCorePoolSize()).isEqualTo(4);
+        assertThat(threadPool.getMaxPoolSize()).isEqualTo(4);
+        assertThat(threadPool.getQueueCapacity()).isEqualTo(50);
+        threadPool.shutdown();
+    }
+
+    @Test
+    void shouldRunTasksOnConcurrencyLimitedVirtualThreads() {
+        //when
+        Executor executor = AsyncConfig.createExecutor("Test-", AsyncProperties.ExecutorMode.VIRTUAL, pool);
+        boolean virtual = CompletableFuture.supplyAsync(() -> Thread.currentThread().isVirtual(), executor).join();
+
+        //then
+        assertThat(virtual).isTrue();
+        assertThat(executor).isInstanceOf(SimpleAsyncTaskExecutor.class);
+        assertThat(((SimpleAsyncTaskExecutor) executor).getConcurrencyLimit()).isEqualTo(3);
+        assertThat(((SimpleAsyncTaskExecutor) executor).isThrottleActive()).isTrue();
+    }
+
+    @Test
+    void shouldSizeCreditsSoPlatformPoolNeverRejects() throws Exception {
+        //when
+        CreditGatedExecutor executor = AsyncConfig.createGatedExecutor("Test-", AsyncProperties.ExecutorMode.PLATFORM, pool);
+
+        //then
+        assertThat(executor.getCredits()).isEqualTo(50);
+        executor.destroy();
+    }
+
+    @Test
+    void shouldNeverRejectSubmissionsUnderChurn() throws Exception {
+        //given
+        CreditGatedExecutor executor = AsyncConfig.createGatedExecutor("Test-", AsyncProperties.ExecutorMode.PLATFORM, pool);
+        ThreadPoolTaskExecutor threadPool = (ThreadPoolTaskExecutor) executor.getDelegate();
+        int submitters = 8;
+        int tasksPerSubmitter = 5_000;
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch completed = new CountDownLatch(submitters * tasksPerSubmitter);
+        ExecutorService submitterPool = Executors.newFixedThreadPool(submitters);
+
+        //when
+        for (int s = 0; s < submitters; s++) {
+            submitterPool.execute(() -> {
+                for (int i = 0; i < tasksPerSubmitter; i++) {
+                    try {
+                        executor.execute(completed::countDown);
+                    } catch (TaskRejectedException e) {
+                        rejected.incrementAndGet();
+                        completed.countDown();
+                    }
+                }
+            });
+        }
+
+        //then
+        assertThat(completed.await(30, TimeUnit.SECONDS)).isTrue();
+        assertThat(rejected).hasValue(0);
+        assertThat(threadPool.getThreadPoolExecutor().getLargestPoolSize()).isEqualTo(4);
+        submitterPool.shutdown();
+        executor.destroy();
+    }
+
+    @Test
+    void shouldUseConcurrencyLimitAsCreditsInVirtualMode() {
+        //when
+        int credits = AsyncConfig.credits(AsyncProperties.ExecutorMode.VIRTUAL, pool);
+
+        //then
+        assertThat(credits).isEqualTo(3);
+    }
+
+    @Test
+    void shouldPreferConfiguredCredits() {
+        //given
+        AsyncProperties.Pool configured = new AsyncProperties.Pool(4, 50, 3, 7);
+
+        //when
+        int credits = AsyncConfig.credits(AsyncProperties.ExecutorMode.PLATFORM, configured);
+
+        //then
+        assertThat(credits).isEqualTo(7);
+    }
+}
@@ -0,0 +1,39 @@
+package pl.kurs.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CacheConfigTest {
+
+    @Test
+    void shouldSizeEachCacheWithItsOwnSpec() {
+        //given
+        CacheSpecProperties cacheSpecProperties = new CacheSpecProperties();
+        cacheSpecProperties.setAuthorIdsByName("maximumSize=50000,expireAfterAccess=1h");
+        cacheSpecProperties.setDigestBodies("maximumSize=200,expireAfterAccess=5m");
+
+        //when
+        CacheManager cacheManager = new CacheConfig().cacheManager(cacheSpecProperties);
+
+        //then
+        Cache<Object, Object> authors = nativeCache(cacheManager, CacheConfig.AUTHOR_IDS_BY_NAME);
+        Cache<Object, Object> digestBodies = nativeCache(cacheManager, CacheConfig.DIGEST_BODIES);
+        Cache<Object, Object> categories = nativeCache(cacheManager, CacheConfig.CATEGORIES);
+        assertThat(authors.policy().eviction().orElseThrow().getMaximum()).isEqualTo(50000);
+        assertThat(authors.policy().expireAfterAccess().orElseThrow().getExpiresAfter(TimeUnit.HOURS)).isEqualTo(1);
+        assertThat(digestBodies.policy().eviction().orElseThrow().getMaximum()).isEqualTo(200);
+        assertThat(digestBodies.policy().expireAfterAccess().orElseThrow().getExpiresAfter(TimeUnit.MINUTES)).isEqualTo(5);
+        assertThat(categories.policy().eviction().orElseThrow().getMaximum()).isEqualTo(1000);
+        assertThat(categories.policy().expireAfterWrite().orElseThrow().getExpiresAfter(TimeUnit.MINUTES)).isEqualTo(10);
+    }
+
+    private static Cache<Object, Object> nativeCache(CacheManager cacheManager, String name) {
+        return ((CaffeineCache) cacheManager.getCache(name)).getNativeCache();
+    }
+}
@@ -0,0 +1,88 @@
+package pl.kurs.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskRejectedException;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CreditGatedExecutorTest {
+
+    @Test
+    void shouldBlockSubmitterUntilACreditIsReturned() throws Exception {
+        //given
+        ExecutorService delegate = Executors.newFixedThreadPool(2);
+        CreditGatedExecutor executor = new CreditGatedExecutor("Test-", delegate, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch secondRan = new CountDownLatch(1);
+        executor.execute(() -> await(release));
+
+        //when
+        ExecutorService submitter = Executors.newSingleThreadExecutor();
+        Future<?> submission = submitter.submit(() -> executor.execute(secondRan::countDown));
+
+        //then
+        assertThat(secondRan.await(200, TimeUnit.MILLISECONDS)).isFalse();
+        assertThat(executor.getInFlight()).isEqualTo(1);
+        release.countDown();
+        submission.get(5, TimeUnit.SECONDS);
+        assertThat(secondRan.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(executor.getWaitCount()).isEqualTo(1);
+        assertThat(executor.getMaxWaitTime(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(100);
+
+        submitter.shutdown();
+        delegate.shutdown();
+    }
+
+    @Test
+    void shouldReturnCreditWhenTaskCompletes() throws Exception {
+        //given
+        ExecutorService delegate = Executors.newSingleThreadExecutor();
+        CreditGatedExecutor executor = new CreditGatedExecutor("Test-", delegate, 2);
+        CountDownLatch done = new CountDownLatch(3);
+
+        //when
+        for (int i = 0; i < 3; i++) {
+            executor.execute(done::countDown);
+        }
+
+        //then
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        delegate.shutdown();
+        assertThat(delegate.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(executor.getInFlight()).isZero();
+    }
+
+    @Test
+    void shouldReturnCreditWhenDelegateRejectsTask() {
+        //given
+        CreditGatedExecutor executor = new CreditGatedExecutor("Test-", task -> {
+            throw new TaskRejectedException("Shut down");
+        }, 1);
+
+        //when then
+        assertThatThrownBy(() -> executor.execute(() -> { })).isInstanceOf(TaskRejectedException.class);
+        assertThat(executor.getInFlight()).isZero();
+    }
+
+    @Test
+    void shouldRequireAtLeastOneCredit() {
+        //when then
+        assertThatThrownBy(() -> new CreditGatedExecutor("Test-", Runnable::run, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -16,6 +16,7 @@ import org.testcontainers.junit.jupiter.Testcontainers;
 import pl.kurs.dto.ClientDto;
 import pl.kurs.entity.Client;
 import pl.kurs.repository.ClientRepository;
+import pl.kurs.service.VerificationTokenService;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -49,6 +50,9 @@ public class ClientControllerTest {
     @Autowired
     private ClientRepository clientRepository;
 
+    @Autowired
+    private VerificationTokenService verificationTokenService;
+
     @Test
     void shouldCreateClient() throws Exception {
         //given
@@ -75,17 +79,16 @@ public class ClientControllerTest {
     @Test
     void shouldVerifyEmailSuccessfully() throws Exception {
         //given
-        String testToken = "test-token-123";
         Client client = Client.builder()
                 .firstName("Anna")
                 .lastName("Nowak")
                 .email("anna.nowak@example.com")
                 .emailVerified(false)
                 .city("London")
-                .verificationToken(testToken)
                 .build();
 
-        clientRepository.save(client);
+        Client savedClient = clientRepository.save(client);
+        String testToken = verificationTokenService.issue(savedClient.getId());
 
         //when then
         mockMvc.perform(get("/clients/verification")
@@ -102,4 +105,21 @@ public class ClientControllerTest {
                 .andExpect(status().isBadRequest())
                 .andExpect(content().string("Invalid verification token."));
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldResendVerificationEmailForUnverifiedClient() throws Exception {
+        //given
+        Client savedClient = clientRepository.save(Client.builder()
+                .firstName("Piotr")
+                .lastName("Zielinski")
+                .email("piotr.zielinski@example.com")
+                .emailVerified(false)
+                .city("Gdansk")
+                .build());
+
+        //when then
+        mockMvc.perform(post("/clients/{id}/verification", savedClient.getId()))
+                .andExpect(status().isAccepted())
+                .andExpect(content().string("Verification email sent."));
+    }
+}
@@ -10,7 +10,9 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import pl.kurs.dto.SubscriptionDto;
+import pl.kurs.entity.Category;
 import pl.kurs.entity.Client;
+import pl.kurs.repository.CategoryRepository;
 import pl.kurs.repository.ClientRepository;
 import pl.kurs.service.SubscriptionService;
 
@@ -36,6 +38,9 @@ public class SubscriptionControllerTest {
     @Autowired
     private ClientRepository clientRepository;
 
+    @Autowired
+    private CategoryRepository categoryRepository;
+
     @Test
     void shouldCreateSubscription() throws Exception {
         //given
@@ -48,6 +53,7 @@ public class SubscriptionControllerTest {
                 .verificationToken(null)
                 .build();
         Client savedClient = clientRepository.save(client);
+        categoryRepository.save(Category.builder().name("Fantasy").build());
         SubscriptionDto subscriptionDto = new SubscriptionDto();
         subscriptionDto.setClientId(savedClient.getId());
         subscriptionDto.setSubscriptionType("CATEGORY");
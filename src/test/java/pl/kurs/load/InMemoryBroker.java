@@ -0,0 +1,142 @@
+package pl.kurs.load;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+@Slf4j
+class InMemoryBroker extends RabbitTemplate {
+    private final BlockingQueue<Delivery> queue = new LinkedBlockingQueue<>();
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong handled = new AtomicLong();
+    private final LatencyRecorder latencyRecorder;
+    private final List<Thread> consumers = new ArrayList<>();
+
+    InMemoryBroker(ConnectionFactory connectionFactory, MessageConverter messageConverter, LatencyRecorder latencyRecorder) {
+        super(connectionFactory);
+        this.latencyRecorder = latencyRecorder;
+        setMessageConverter(messageConverter);
+    }
+
+    @Override
+    public <T> T invoke(OperationsCallback<T> action) {
+        return action.doInRabbit(this);
+    }
+
+    @Override
+    public void convertAndSend(String exchange, String routingKey, Object object, CorrelationData correlationData) {
+        queue.add(new Delivery(getMessageConverter().toMessage(object, new MessageProperties()), System.nanoTime()));
+        published.incrementAndGet();
+        if (correlationData != null) {
+            correlationData.getFuture().complete(new CorrelationData.Confirm(true, null));
+        }
+    }
+
+    @Override
+    public void convertAndSend(String routingKey, Object object) {
+        convertAndSend("", routingKey, object, (CorrelationData) null);
+    }
+
+    void startConsumers(int count, Consumer<Object> listener) {
+        for (int i = 0; i < count; i++) {
+            Thread consumer = Thread.ofPlatform().name("load-consumer-" + i).daemon().start(() -> consume(listener));
+            consumers.add(consumer);
+        }
+    }
+
+    void startBatchConsumers(int count, int batchSize, Duration receiveTimeout, Consumer<List<Object>> listener) {
+        for (int i = 0; i < count; i++) {
+            Thread consumer = Thread.ofPlatform().name("load-batch-consumer-" + i).daemon()
+                    .start(() -> consumeBatches(batchSize, receiveTimeout, listener));
+            consumers.add(consumer);
+        }
+    }
+
+    boolean awaitDrained(Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (handled.get() < published.get()) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            Thread.sleep(20);
+        }
+        return true;
+    }
+
+    void stopConsumers() {
+        consumers.forEach(Thread::interrupt);
+    }
+
+    long getPublished() {
+        return published.get();
+    }
+
+    private void consume(Consumer<Object> listener) {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Delivery delivery = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (delivery == null) {
+                    continue;
+                }
+                latencyRecorder.record("broker.queue-wait", System.nanoTime() - delivery.enqueuedAt());
+                try {
+                    listener.accept(getMessageConverter().fromMessage(delivery.message()));
+                } catch (RuntimeException e) {
+                    log.error("Load consumer failed to handle message", e);
+                } finally {
+                    handled.incrementAndGet();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void consumeBatches(int batchSize, Duration receiveTimeout, Consumer<List<Object>> listener) {
+        List<Object> batch = new ArrayList<>(batchSize);
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Delivery first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                long deadline = System.nanoTime() + receiveTimeout.toNanos();
+                Delivery delivery = first;
+                while (delivery != null) {
+                    latencyRecorder.record("broker.queue-wait", System.nanoTime() - delivery.enqueuedAt());
+                    batch.add(getMessageConverter().fromMessage(delivery.message()));
+                    if (batch.size() == batchSize) {
+                        break;
+                    }
+                    delivery = queue.poll(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                }
+                try {
+                    listener.accept(batch);
+                } catch (RuntimeException e) {
+                    log.error("Load batch consumer failed to handle {} messages", batch.size(), e);
+                } finally {
+                    handled.addAndGet(batch.size());
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record Delivery(Message message, long enqueuedAt) {
+    }
+}
@@ -0,0 +1,160 @@
+package pl.kurs.load;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+@RequiredArgsConstructor
+@Slf4j
+class LoadDataGenerator {
+    private static final int INSERT_CHUNK = 5_000;
+    private static final int HISTORY_DAYS = 30;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Volumes volumes;
+
+    void generate(LocalDate date) {
+        Random random = new Random(volumes.seed());
+        ZipfSampler authorPopularity = new ZipfSampler(volumes.authors(), volumes.skew());
+        ZipfSampler categoryPopularity = new ZipfSampler(volumes.categories(), volumes.skew());
+
+        List<Object[]> rows = new ArrayList<>(INSERT_CHUNK);
+        for (long id = 1; id <= volumes.categories(); id++) {
+            rows.add(new Object[]{id, "Category " + id});
+        }
+        insert("INSERT INTO categories (id, name) VALUES (?, ?)", rows);
+
+        for (long id = 1; id <= volumes.authors(); id++) {
+            rows.add(new Object[]{id, "Author " + id});
+            flushIfFull("INSERT INTO authors (id, name) VALUES (?, ?)", rows);
+        }
+        insert("INSERT INTO authors (id, name) VALUES (?, ?)", rows);
+
+        String bookInsert = "INSERT INTO books (id, author, author_id, title, book_category, page_count, added_date) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+        for (long id = 1; id <= volumes.books(); id++) {
+            long authorId = authorPopularity.next(random);
+            LocalDate addedDate = id <= volumes.booksOnDate()
+                    ? date
+                    : date.minusDays(1 + random.nextInt(HISTORY_DAYS));
+            rows.add(new Object[]{id, "Author " + authorId, authorId, "Title " + id,
+                    categoryPopularity.next(random), 100 + random.nextInt(900), addedDate});
+            flushIfFull(bookInsert, rows);
+        }
+        insert(bookInsert, rows);
+
+        String clientInsert = "INSERT INTO clients (id, first_name, last_name, email, city, email_verified) "
+                + "VALUES (?, ?, ?, ?, ?, ?)";
+        for (long id = 1; id <= volumes.clients(); id++) {
+            rows.add(new Object[]{id, "First" + id, "Last" + id, "client" + id + "@example.com", "City " + id % 100,
+                    random.nextDouble() < volumes.verifiedRatio()});
+            flushIfFull(clientInsert, rows);
+        }
+        insert(clientInsert, rows);
+
+        String subscriptionInsert = "INSERT INTO subscriptions (id, client_id, subscription_type, subscription_value, target_id) "
+                + "VALUES (?, ?, ?, ?, ?)";
+        long subscriptionId = 0;
+        Set<String> targets = new HashSet<>();
+        for (long clientId = 1; clientId <= volumes.clients(); clientId++) {
+            int count = 1 + random.nextInt(volumes.maxSubscriptionsPerClient());
+            targets.clear();
+            for (int i = 0; i < count; i++) {
+                boolean author = random.nextDouble() < volumes.authorSubscriptionRatio();
+                long targetId = author ? authorPopularity.next(random) : categoryPopularity.next(random);
+                String type = author ? "AUTHOR" : "CATEGORY";
+                if (targets.add(type + targetId)) {
+                    rows.add(new Object[]{++subscriptionId, clientId, type,
+                            (author ? "Author " : "Category ") + targetId, targetId});
+                    flushIfFull(subscriptionInsert, rows);
+                }
+            }
+        }
+        insert(subscriptionInsert, rows);
+
+        log.warn("Generated {} clients, {} books ({} on {}), {} authors, {} categories, {} subscriptions",
+                volumes.clients(), volumes.books(), volumes.booksOnDate(), date, volumes.authors(),
+                volumes.categories(), subscriptionId);
+    }
+
+    long countExpectedRecipients(LocalDate date) {
+        return jdbcTemplate.queryForObject("""
+                SELECT COUNT(DISTINCT s.client_id)
+                FROM subscriptions s
+                JOIN clients c ON c.id = s.client_id AND c.email_verified = true
+                JOIN books b ON b.added_date = ?
+                WHERE (s.subscription_type = 'AUTHOR' AND s.target_id = b.author_id)
+                OR (s.subscription_type = 'CATEGORY' AND s.target_id = b.book_category)
+                """, Long.class, date);
+    }
+
+    private void flushIfFull(String sql, List<Object[]> rows) {
+        if (rows.size() == INSERT_CHUNK) {
+            insert(sql, rows);
+        }
+    }
+
+    private void insert(String sql, List<Object[]> rows) {
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, rows);
+            rows.clear();
+        }
+    }
+
+    record Volumes(int clients, int books, int booksOnDate, int authors, int categories,
+                   int maxSubscriptionsPerClient, double authorSubscriptionRatio, double verifiedRatio,
+                   double skew, long seed) {
+
+        static Volumes fromSystemProperties() {
+            return new Volumes(
+                    Integer.getInteger("load.clients", 50_000),
+                    Integer.getInteger("load.books", 20_000),
+                    Integer.getInteger("load.books-on-date", 500),
+                    Integer.getInteger("load.authors", 5_000),
+                    Integer.getInteger("load.categories", 50),
+                    Integer.getInteger("load.max-subscriptions-per-client", 5),
+                    Double.parseDouble(System.getProperty("load.author-subscription-ratio", "0.6")),
+                    Double.parseDouble(System.getProperty("load.verified-ratio", "0.9")),
+                    Double.parseDouble(System.getProperty("load.skew", "1.1")),
+                    Long.getLong("load.seed", 42L));
+        }
+    }
+
+    static final class ZipfSampler {
+        private final double[] cumulative;
+
+        ZipfSampler(int size, double skew) {
+            cumulative = new double[size];
+            double sum = 0;
+            for (int rank = 1; rank <= size; rank++) {
+                sum += 1 / Math.pow(rank, skew);
+                cumulative[rank - 1] = sum;
+            }
+            for (int i = 0; i < size; i++) {
+                cumulative[i] /= sum;
+            }
+        }
+
+        long next(Random random) {
+            double value = random.nextDouble();
+            int low = 0;
+            int high = cumulative.length - 1;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (cumulative[middle] < value) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low + 1;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package pl.kurs.load;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import pl.kurs.messaging.producer.EmailProducer;
+import pl.kurs.service.DigestRenderer;
+import pl.kurs.service.SubscriptionService;
+
+import java.util.Map;
+import java.util.Set;
+
+@TestConfiguration
+class LoadHarnessConfig {
+    private static final Map<Class<?>, Set<String>> TIMED_STAGES = Map.of(
+            SubscriptionService.class, Set.of("findDigestRowsForDateAfterClient"),
+            DigestRenderer.class, Set.of("render"),
+            EmailProducer.class, Set.of("publishBatch"));
+
+    private static final LatencyRecorder LATENCY_RECORDER = new LatencyRecorder();
+
+    @Bean
+    LatencyRecorder latencyRecorder() {
+        return LATENCY_RECORDER;
+    }
+
+    @Bean
+    @Primary
+    InMemoryBroker inMemoryBroker(ConnectionFactory connectionFactory,
+                                  Jackson2JsonMessageConverter jackson2JsonMessageConverter) {
+        return new InMemoryBroker(connectionFactory, jackson2JsonMessageConverter, LATENCY_RECORDER);
+    }
+
+    @Bean
+    @Primary
+    RecordingMailSender recordingMailSender() {
+        return new RecordingMailSender(LATENCY_RECORDER, Long.getLong("load.smtp-latency-ms", 0L),
+                Long.getLong("load.smtp-session-latency-ms", 0L));
+    }
+
+    @Bean
+    LoadDataGenerator loadDataGenerator(JdbcTemplate jdbcTemplate) {
+        return new LoadDataGenerator(jdbcTemplate, LoadDataGenerator.Volumes.fromSystemProperties());
+    }
+
+    @Bean
+    static BeanPostProcessor stageTimingPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                for (Map.Entry<Class<?>, Set<String>> stage : TIMED_STAGES.entrySet()) {
+                    if (stage.getKey().isInstance(bean)) {
+                        return timed(bean, stage.getKey().getSimpleName(), stage.getValue());
+                    }
+                }
+                return bean;
+            }
+        };
+    }
+
+    private static Object timed(Object bean, String component, Set<String> methods) {
+        MethodInterceptor timer = invocation -> {
+            if (!methods.contains(invocation.getMethod().getName())) {
+                return invocation.proceed();
+            }
+            long start = System.nanoTime();
+            try {
+                return invocation.proceed();
+            } finally {
+                LATENCY_RECORDER.record(component + "." + invocation.getMethod().getName(), System.nanoTime() - start);
+            }
+        };
+
+        if (bean instanceof Advised advised && !advised.isFrozen()) {
+            advised.addAdvice(0, timer);
+            return bean;
+        }
+        ProxyFactory proxyFactory = new ProxyFactory(bean);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvice(timer);
+        return proxyFactory.getProxy();
+    }
+}
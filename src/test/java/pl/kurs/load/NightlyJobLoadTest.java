@@ -0,0 +1,181 @@
+package pl.kurs.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.rabbitmq.client.Channel;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.test.context.ActiveProfiles;
+import pl.kurs.config.NotificationProperties;
+import pl.kurs.messaging.consumer.EmailBatchConsumer;
+import pl.kurs.messaging.consumer.EmailConsumer;
+import pl.kurs.messaging.dto.EmailMessage;
+import pl.kurs.service.NotificationBatchService;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+@Tag("load")
+@SpringBootTest
+@ActiveProfiles({"test", "load"})
+@Import(LoadHarnessConfig.class)
+class NightlyJobLoadTest {
+    private static final LocalDate RUN_DATE = LocalDate.of(2025, 8, 15);
+    private static final int CONSUMERS = Integer.getInteger("load.consumers", 4);
+
+    @Autowired
+    private LoadDataGenerator loadDataGenerator;
+
+    @Autowired
+    private NotificationBatchService notificationBatchService;
+
+    @Autowired
+    private ObjectProvider<EmailConsumer> emailConsumer;
+
+    @Autowired
+    private ObjectProvider<EmailBatchConsumer> emailBatchConsumer;
+
+    @Autowired
+    private NotificationProperties notificationProperties;
+
+    @Autowired
+    private InMemoryBroker inMemoryBroker;
+
+    @Autowired
+    private RecordingMailSender recordingMailSender;
+
+    @Autowired
+    private LatencyRecorder latencyRecorder;
+
+    @Test
+    void shouldDeliverNightlyDigestToEveryMatchingClient() throws Exception {
+        //given
+        long generationStart = System.nanoTime();
+        loadDataGenerator.generate(RUN_DATE);
+        long expectedRecipients = loadDataGenerator.countExpectedRecipients(RUN_DATE);
+        long generationNanos = System.nanoTime() - generationStart;
+        startConsumers();
+        System.gc();
+        resetPeakHeap();
+        long gcCountBefore = gcCount();
+
+        //when
+        long jobStart = System.nanoTime();
+        notificationBatchService.processAllNotifications(RUN_DATE);
+        long jobNanos = System.nanoTime() - jobStart;
+        boolean drained = inMemoryBroker.awaitDrained(Duration.ofMinutes(30));
+        long deliveryNanos = System.nanoTime() - jobStart;
+        inMemoryBroker.stopConsumers();
+
+        //then
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("consumerMode", notificationProperties.getConsumerMode());
+        report.put("consumers", CONSUMERS);
+        report.put("expectedRecipients", expectedRecipients);
+        report.put("published", inMemoryBroker.getPublished());
+        report.put("delivered", recordingMailSender.getSent());
+        report.put("smtpSessions", recordingMailSender.getSessions());
+        report.put("dataGenerationSeconds", seconds(generationNanos));
+        report.put("jobSeconds", seconds(jobNanos));
+        report.put("deliverySeconds", seconds(deliveryNanos));
+        report.put("publishedPerSecond", inMemoryBroker.getPublished() / seconds(jobNanos));
+        report.put("deliveredPerSecond", recordingMailSender.getSent() / seconds(deliveryNanos));
+        report.put("stages", latencyRecorder.summary());
+        report.put("peakHeapMb", peakHeapBytes() / (1024 * 1024));
+        report.put("gcCount", gcCount() - gcCountBefore);
+        writeReport(report);
+
+        assertThat(drained).isTrue();
+        assertThat(inMemoryBroker.getPublished()).isEqualTo(expectedRecipients);
+        assertThat(recordingMailSender.getSent()).isEqualTo(expectedRecipients);
+    }
+
+    private void startConsumers() {
+        if (notificationProperties.getConsumerMode() != NotificationProperties.ConsumerMode.BATCH) {
+            EmailConsumer consumer = emailConsumer.getObject();
+            inMemoryBroker.startConsumers(CONSUMERS, message -> consumer.handleEmailMessage((EmailMessage) message, 0));
+            return;
+        }
+
+        EmailBatchConsumer batchConsumer = emailBatchConsumer.getObject();
+        Channel channel = mock(Channel.class);
+        AtomicLong deliveryTags = new AtomicLong();
+        inMemoryBroker.startBatchConsumers(CONSUMERS, notificationProperties.getConsumerBatchSize(),
+                Duration.ofMillis(notificationProperties.getConsumerBatchReceiveTimeoutMs()), messages -> {
+                    List<Message<EmailMessage>> deliveries = new ArrayList<>(messages.size());
+                    for (Object message : messages) {
+                        deliveries.add(MessageBuilder.withPayload((EmailMessage) message)
+                                .setHeader(AmqpHeaders.DELIVERY_TAG, deliveryTags.incrementAndGet())
+                                .build());
+                    }
+                    try {
+                        batchConsumer.handleEmailBatch(deliveries, channel);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+
+    private void writeReport(Map<String, Object> report) throws Exception {
+        String json = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValueAsString(report);
+        Path reportFile = Path.of("target",
+                "load-report-" + notificationProperties.getConsumerMode().name().toLowerCase(Locale.ROOT) + ".json");
+        Files.createDirectories(reportFile.getParent());
+        Files.writeString(reportFile, json);
+        System.out.println("Nightly job load report (" + reportFile + "):\n" + json);
+    }
+
+    private static double seconds(long nanos) {
+        return Math.max(nanos, 1) / 1_000_000_000.0;
+    }
+
+    private static void resetPeakHeap() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+            }
+        }
+    }
+
+    private static long peakHeapBytes() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+
+    private static long gcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, collector.getCollectionCount());
+        }
+        return count;
+    }
+}
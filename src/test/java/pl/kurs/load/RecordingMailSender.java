@@ -0,0 +1,59 @@
+package pl.kurs.load;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+class RecordingMailSender extends JavaMailSenderImpl {
+    private final LatencyRecorder latencyRecorder;
+    private final long simulatedLatencyNanos;
+    private final long simulatedSessionLatencyNanos;
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong sessions = new AtomicLong();
+
+    RecordingMailSender(LatencyRecorder latencyRecorder, long simulatedLatencyMs, long simulatedSessionLatencyMs) {
+        this.latencyRecorder = latencyRecorder;
+        this.simulatedLatencyNanos = TimeUnit.MILLISECONDS.toNanos(simulatedLatencyMs);
+        this.simulatedSessionLatencyNanos = TimeUnit.MILLISECONDS.toNanos(simulatedSessionLatencyMs);
+    }
+
+    @Override
+    protected void doSend(MimeMessage[] mimeMessages, Object[] originalMessages) throws MailException {
+        long sessionStart = System.nanoTime();
+        if (simulatedSessionLatencyNanos > 0) {
+            LockSupport.parkNanos(simulatedSessionLatencyNanos);
+        }
+        sessions.incrementAndGet();
+        latencyRecorder.record("smtp.session-open", System.nanoTime() - sessionStart);
+        for (MimeMessage mimeMessage : mimeMessages) {
+            long start = System.nanoTime();
+            try {
+                mimeMessage.saveChanges();
+                mimeMessage.writeTo(OutputStream.nullOutputStream());
+            } catch (MessagingException | IOException e) {
+                throw new MailSendException("Could not render message", e);
+            }
+            if (simulatedLatencyNanos > 0) {
+                LockSupport.parkNanos(simulatedLatencyNanos);
+            }
+            sent.incrementAndGet();
+            latencyRecorder.record("smtp.send", System.nanoTime() - start);
+        }
+    }
+
+    long getSent() {
+        return sent.get();
+    }
+
+    long getSessions() {
+        return sessions.get();
+    }
+}
@@ -38,7 +38,7 @@ public class BookMapperTest {
         //then
         assertThat(entity)
                 .usingRecursiveComparison()
-                .ignoringFields("id", "category")
+                .ignoringFields("id", "authorId", "category")
                 .isEqualTo(testBook);
     }
 
@@ -71,7 +71,7 @@ public class BookMapperTest {
     }
 
     private Book createTestBook() {
-        return new Book(1L, "George Orwell", "Rok 1984", new Category(1L, "Science Fiction"), 328, null);
+        return new Book(1L, "George Orwell", 1L, "Rok 1984", new Category(1L, "Science Fiction"), 328, null);
     }
 
     private BookDto createTestBookDto() {
@@ -39,7 +39,7 @@ public class SubscriptionMapperTest {
         //then
         assertThat(entity)
                 .usingRecursiveComparison()
-                .ignoringFields("client")
+                .ignoringFields("client", "targetId")
                 .isEqualTo(testSubscription);
     }
 
@@ -104,7 +104,7 @@ public class SubscriptionMapperTest {
 
     private Subscription createSubscriptionTest() {
         Client clientTest = new Client(1L, "John", "Cena", "j.cena@mail.com", "Tampa", true, null, null);
-        return new Subscription(1L, clientTest, SubscriptionType.CATEGORY, "Science");
+        return new Subscription(1L, clientTest, SubscriptionType.CATEGORY, "Science", 8L);
     }
 
     private SubscriptionDto createSubscriptionDtoTest() {
@@ -0,0 +1,186 @@
+package pl.kurs.messaging.consumer;
+
+import com.rabbitmq.client.Channel;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import jakarta.mail.internet.MimeMultipart;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.AmqpConnectException;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
+import pl.kurs.config.RabbitConfig;
+import pl.kurs.dto.RenderedDigest;
+import pl.kurs.messaging.dto.EmailMessage;
+import pl.kurs.messaging.producer.EmailRetryPublisher;
+import pl.kurs.metrics.NotificationMetrics;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EmailBatchConsumerTest {
+
+    @Mock
+    private JavaMailSender mailSenderMock;
+
+    @Mock
+    private EmailRetryPublisher emailRetryPublisherMock;
+
+    @Mock
+    private NotificationMetrics notificationMetricsMock;
+
+    @Mock
+    private EmailContentResolver emailContentResolverMock;
+
+    @Mock
+    private SmtpLatencyTracker smtpLatencyTrackerMock;
+
+    @Mock
+    private Channel channelMock;
+
+    @InjectMocks
+    private EmailBatchConsumer emailBatchConsumer;
+
+    private final List<MimeMessage> createdMails = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(emailContentResolverMock.resolve(any(EmailMessage.class))).thenAnswer(invocation -> {
+            EmailMessage emailMessage = invocation.getArgument(0);
+            return new RenderedDigest(emailMessage.getContent(), emailMessage.getHtmlContent());
+        });
+        when(mailSenderMock.createMimeMessage()).thenAnswer(invocation -> {
+            MimeMessage mail = new MimeMessage((Session) null);
+            createdMails.add(mail);
+            return mail;
+        });
+    }
+
+    @Test
+    void shouldSendWholeBatchInSingleCallAndAckEachMessage() throws Exception {
+        //given
+        List<Message<EmailMessage>> deliveries = List.of(
+                createDelivery("first@example.com", 0, 1L),
+                createDelivery("second@example.com", 0, 2L));
+
+        //when
+        emailBatchConsumer.handleEmailBatch(deliveries, channelMock);
+
+        //then
+        verify(mailSenderMock).send(createdMails.toArray(new MimeMessage[0]));
+        assertThat(createdMails).hasSize(2);
+        assertThat(createdMails.get(0).getAllRecipients()[0].toString()).isEqualTo("first@example.com");
+        assertThat(createdMails.get(1).getAllRecipients()[0].toString()).isEqualTo("second@example.com");
+        assertThat(createdMails.get(0).getSubject()).isEqualTo("Test Subject");
+        assertThat(createdMails.get(0).getContent()).isEqualTo("Test Content");
+
+        verify(channelMock).basicAck(1L, false);
+        verify(channelMock).basicAck(2L, false);
+        verify(channelMock, never()).basicNack(anyLong(), anyBoolean(), anyBoolean());
+    }
+
+    @Test
+    void shouldRetryOnlyRejectedMessageAndAckWholeBatch() throws IOException {
+        //given
+        List<Message<EmailMessage>> deliveries = List.of(
+                createDelivery("bad@example.com", 1, 1L),
+                createDelivery("good@example.com", 0, 2L));
+        doAnswer(invocation -> {
+            throw new MailSendException(Map.of(createdMails.get(0), new RuntimeException("550 No such user")));
+        }).when(mailSenderMock).send(any(MimeMessage[].class));
+
+        //when
+        emailBatchConsumer.handleEmailBatch(deliveries, channelMock);
+
+        //then
+        verify(emailRetryPublisherMock).retryOrDeadLetter(eq(RabbitConfig.EMAIL_QUEUE),
+                eq(deliveries.get(0).getPayload()), eq(1), any(RuntimeException.class));
+        verifyNoMoreInteractions(emailRetryPublisherMock);
+        verify(channelMock).basicAck(1L, false);
+        verify(channelMock).basicAck(2L, false);
+    }
+
+    @Test
+    void shouldSendHtmlAlternativeWhenPresent() throws Exception {
+        //given
+        Message<EmailMessage> delivery = MessageBuilder.withPayload(EmailMessage.builder()
+                        .to("reader@example.com")
+                        .subject("Digest")
+                        .content("Plain digest")
+                        .htmlContent("<p>Html digest</p>")
+                        .build())
+                .setHeader(AmqpHeaders.DELIVERY_TAG, 1L)
+                .build();
+
+        //when
+        emailBatchConsumer.handleEmailBatch(List.of(delivery), channelMock);
+
+        //then
+        assertThat(createdMails.get(0).getContent()).isInstanceOf(MimeMultipart.class);
+        verify(channelMock).basicAck(1L, false);
+    }
+
+    @Test
+    void shouldRetryWholeBatchWhenMailServerIsUnavailable() throws IOException {
+        //given
+        List<Message<EmailMessage>> deliveries = List.of(
+                createDelivery("first@example.com", 0, 1L),
+                createDelivery("second@example.com", 0, 2L));
+        doThrow(new RuntimeException("Connection refused"))
+                .when(mailSenderMock).send(any(MimeMessage[].class));
+
+        //when
+        emailBatchConsumer.handleEmailBatch(deliveries, channelMock);
+
+        //then
+        verify(emailRetryPublisherMock, times(2)).retryOrDeadLetter(eq(RabbitConfig.EMAIL_QUEUE), any(EmailMessage.class),
+                eq(0), any(RuntimeException.class));
+        verify(channelMock).basicAck(1L, false);
+        verify(channelMock).basicAck(2L, false);
+    }
+
+    @Test
+    void shouldRejectMessageToDeadLetterQueueWhenRetryCannotBeScheduled() throws IOException {
+        //given
+        List<Message<EmailMessage>> deliveries = List.of(createDelivery("bad@example.com", 0, 1L));
+        doThrow(new RuntimeException("Connection refused"))
+                .when(mailSenderMock).send(any(MimeMessage[].class));
+        doThrow(new AmqpConnectException(new RuntimeException("Broker down")))
+                .when(emailRetryPublisherMock).retryOrDeadLetter(any(), any(), anyInt(), any());
+
+        //when
+        emailBatchConsumer.handleEmailBatch(deliveries, channelMock);
+
+        //then
+        verify(channelMock).basicNack(1L, false, false);
+        verify(channelMock, never()).basicAck(anyLong(), anyBoolean());
+    }
+
+    private Message<EmailMessage> createDelivery(String to, int retryCount, long deliveryTag) {
+        EmailMessage emailMessage = EmailMessage.builder()
+                .to(to)
+                .subject("Test Subject")
+                .content("Test Content")
+                .type(EmailMessage.EmailType.NEW_BOOK_NOTIFICATION)
+                .build();
+        return MessageBuilder.withPayload(emailMessage)
+                .setHeader(AmqpHeaders.DELIVERY_TAG, deliveryTag)
+                .setHeader(RabbitConfig.RETRY_COUNT_HEADER, retryCount)
+                .build();
+    }
+}
@@ -0,0 +1,142 @@
+package pl.kurs.messaging.consumer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.AmqpConnectException;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.QueueInformation;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import pl.kurs.config.NotificationProperties;
+import pl.kurs.config.RabbitConfig;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EmailConsumerScalerTest {
+
+    @Mock
+    private RabbitListenerEndpointRegistry rabbitListenerEndpointRegistryMock;
+
+    @Mock
+    private AmqpAdmin amqpAdminMock;
+
+    @Mock
+    private SmtpLatencyTracker smtpLatencyTrackerMock;
+
+    @Mock
+    private SimpleMessageListenerContainer containerMock;
+
+    private final NotificationProperties notificationProperties = new NotificationProperties();
+
+    private EmailConsumerScaler emailConsumerScaler;
+
+    @BeforeEach
+    void setUp() {
+        notificationProperties.setConsumerMinConcurrency(1);
+        notificationProperties.setConsumerMaxConcurrency(4);
+        notificationProperties.setConsumerMaxPrefetch(50);
+        notificationProperties.setConsumerPrefetchWindowMs(1000);
+        notificationProperties.setSmtpLatencyCeilingMs(2000);
+        emailConsumerScaler = new EmailConsumerScaler(rabbitListenerEndpointRegistryMock, amqpAdminMock,
+                smtpLatencyTrackerMock, notificationProperties);
+    }
+
+    @Test
+    void shouldAddConsumerWhileBacklogExceedsWhatConsumersHold() {
+        //when //then
+        assertThat(EmailConsumerScaler.targetConsumers(2, 500, 100, 10, notificationProperties)).isEqualTo(3);
+        assertThat(EmailConsumerScaler.targetConsumers(4, 500, 100, 10, notificationProperties)).isEqualTo(4);
+        assertThat(EmailConsumerScaler.targetConsumers(2, 15, 100, 10, notificationProperties)).isEqualTo(2);
+    }
+
+    @Test
+    void shouldBackOffWhenSmtpLatencyExceedsCeiling() {
+        //when //then
+        assertThat(EmailConsumerScaler.targetConsumers(4, 5000, 2500, 1, notificationProperties)).isEqualTo(3);
+        assertThat(EmailConsumerScaler.targetConsumers(1, 5000, 2500, 1, notificationProperties)).isEqualTo(1);
+    }
+
+    @Test
+    void shouldShrinkIdleConsumersWhenQueueIsEmpty() {
+        //when //then
+        assertThat(EmailConsumerScaler.targetConsumers(4, 0, 100, 10, notificationProperties)).isEqualTo(2);
+        assertThat(EmailConsumerScaler.targetConsumers(2, 0, 100, 10, notificationProperties)).isEqualTo(1);
+        assertThat(EmailConsumerScaler.targetConsumers(1, 0, 100, 10, notificationProperties)).isEqualTo(1);
+    }
+
+    @Test
+    void shouldSizePrefetchToCoverWindowAtObservedLatency() {
+        //when //then
+        assertThat(EmailConsumerScaler.targetPrefetch(50, 100, notificationProperties)).isEqualTo(10);
+        assertThat(EmailConsumerScaler.targetPrefetch(50, 5, notificationProperties)).isEqualTo(50);
+        assertThat(EmailConsumerScaler.targetPrefetch(50, 3000, notificationProperties)).isEqualTo(1);
+        assertThat(EmailConsumerScaler.targetPrefetch(50, 0, notificationProperties)).isEqualTo(50);
+    }
+
+    @Test
+    void shouldApplyTargetsToRunningContainer() {
+        //given
+        when(rabbitListenerEndpointRegistryMock.getListenerContainer(RabbitConfig.EMAIL_LISTENER_ID)).thenReturn(containerMock);
+        when(containerMock.isRunning()).thenReturn(true);
+        when(amqpAdminMock.getQueueInfo(RabbitConfig.EMAIL_QUEUE))
+                .thenReturn(new QueueInformation(RabbitConfig.EMAIL_QUEUE, 1000, 1));
+        when(smtpLatencyTrackerMock.hasSamples()).thenReturn(true);
+        when(smtpLatencyTrackerMock.getAverageMillis()).thenReturn(100.0);
+
+        //when
+        emailConsumerScaler.adjustConsumers();
+
+        //then
+        verify(containerMock).setPrefetchCount(10);
+        verify(containerMock).setConcurrentConsumers(2);
+    }
+
+    @Test
+    void shouldKeepConsumersWhenQueueDepthCannotBeRead() {
+        //given
+        when(rabbitListenerEndpointRegistryMock.getListenerContainer(RabbitConfig.EMAIL_LISTENER_ID)).thenReturn(containerMock);
+        when(containerMock.isRunning()).thenReturn(true);
+        when(amqpAdminMock.getQueueInfo(RabbitConfig.EMAIL_QUEUE))
+                .thenThrow(new AmqpConnectException(new RuntimeException("Connection refused")));
+
+        //when
+        emailConsumerScaler.adjustConsumers();
+
+        //then
+        verify(containerMock, never()).setConcurrentConsumers(anyInt());
+        verify(containerMock, never()).setPrefetchCount(anyInt());
+    }
+
+    @Test
+    void shouldIgnoreStoppedContainer() {
+        //given
+        when(rabbitListenerEndpointRegistryMock.getListenerContainer(RabbitConfig.EMAIL_LISTENER_ID)).thenReturn(containerMock);
+        when(containerMock.isRunning()).thenReturn(false);
+
+        //when
+        emailConsumerScaler.adjustConsumers();
+
+        //then
+        verifyNoInteractions(amqpAdminMock);
+    }
+
+    @Test
+    void shouldSmoothSmtpLatencyPerMessage() {
+        //given
+        SmtpLatencyTracker tracker = new SmtpLatencyTracker();
+
+        //when
+        tracker.record(1_000_000_000L, 10);
+        tracker.record(200_000_000L, 1);
+
+        //then
+        assertThat(tracker.hasSamples()).isTrue();
+        assertThat(tracker.getAverageMillis()).isEqualTo(120.0);
+    }
+}
@@ -0,0 +1,292 @@
+package pl.kurs.messaging.consumer;
+
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import jakarta.mail.internet.MimeMultipart;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.AmqpConnectException;
+import org.springframework.amqp.AmqpRejectAndDontRequeueException;
+import org.springframework.mail.MailException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import pl.kurs.config.RabbitConfig;
+import pl.kurs.dto.RenderedDigest;
+import pl.kurs.messaging.dto.EmailMessage;
+import pl.kurs.messaging.producer.EmailRetryPublisher;
+import pl.kurs.metrics.NotificationMetrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EmailDeliveryHandlerTest {
+
+    @Mock
+    private JavaMailSender mailSenderMock;
+
+    @Mock
+    private EmailRetryPublisher emailRetryPublisherMock;
+
+    @Mock
+    private NotificationMetrics notificationMetricsMock;
+
+    @Mock
+    private EmailContentResolver emailContentResolverMock;
+
+    @Mock
+    private SmtpLatencyTracker smtpLatencyTrackerMock;
+
+    @InjectMocks
+    private EmailDeliveryHandler emailDeliveryHandler;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(emailContentResolverMock.resolve(any(EmailMessage.class))).thenAnswer(invocation -> {
+            EmailMessage emailMessage = invocation.getArgument(0);
+            return new RenderedDigest(emailMessage.getContent(), emailMessage.getHtmlContent());
+        });
+    }
+
+    @Test
+    void shouldSendEmailSuccessfully() {
+        //given
+        EmailMessage testEmailMessage = createTestEmailMessage();
+        doNothing().when(mailSenderMock).send(any(SimpleMailMessage.class));
+
+        //when
+        emailDeliveryHandler.deliver(testEmailMessage, RabbitConfig.EMAIL_QUEUE, 0);
+
+        //then
+        ArgumentCaptor<SimpleMailMessage> messageCaptor = ArgumentCaptor.forClass(SimpleMailMessage.class);
+        verify(mailSenderMock).send(messageCaptor.capture());
+
+        SimpleMailMessage capturedMessage = messageCaptor.getValue();
+        assertThat(capturedMessage.getTo()).containsExactly("test@example.com");
+        assertThat(capturedMessage.getSubject()).isEqualTo("Test Subject");
+        assertThat(capturedMessage.getText()).isEqualTo("Test Content");
+        verify(notificationMetricsMock).emailSent(EmailMessage.EmailType.VERIFICATION);
+        verify(notificationMetricsMock).recordSend(eq("single"), anyLong());
+        verify(smtpLatencyTrackerMock).record(anyLong(), eq(1));
+    }
+
+    @Test
+    void shouldHandOverToRetryPublisherWhenMailSendingFails() {
+        //given
+        EmailMessage messageWithRetries = EmailMessage.builder()
+                .to("test@example.com")
+                .subject("Test Subject")
+                .content("Test Content")
+                .type(EmailMessage.EmailType.NEW_BOOK_NOTIFICATION)
+                .retryCount(1)
+                .build();
+        MailException failure = new MailException("SMTP server unavailable") {};
+        doThrow(failure).when(mailSenderMock).send(any(SimpleMailMessage.class));
+
+        //when
+        emailDeliveryHandler.deliver(messageWithRetries, RabbitConfig.EMAIL_QUEUE, 1);
+
+        //then
+        verify(mailSenderMock).send(any(SimpleMailMessage.class));
+        verify(emailRetryPublisherMock).retryOrDeadLetter(RabbitConfig.EMAIL_QUEUE, messageWithRetries, 1, failure);
+        verify(notificationMetricsMock).emailFailed(EmailMessage.EmailType.NEW_BOOK_NOTIFICATION);
+        verify(notificationMetricsMock, never()).emailSent(any());
+    }
+
+    @Test
+    void shouldHandleVerificationEmailType() {
+        //given
+        EmailMessage verificationEmail = EmailMessage.builder()
+                .to("verify@example.com")
+                .subject("Confirm your email")
+                .content("Click to verify")
+                .type(EmailMessage.EmailType.VERIFICATION)
+                .retryCount(0)
+                .build();
+
+        //when
+        emailDeliveryHandler.deliver(verificationEmail, RabbitConfig.EMAIL_QUEUE, 0);
+
+        //then
+        ArgumentCaptor<SimpleMailMessage> messageCaptor = ArgumentCaptor.forClass(SimpleMailMessage.class);
+        verify(mailSenderMock).send(messageCaptor.capture());
+
+        SimpleMailMessage capturedMessage = messageCaptor.getValue();
+        assertThat(capturedMessage.getTo()).containsExactly("verify@example.com");
+        assertThat(capturedMessage.getSubject()).isEqualTo("Confirm your email");
+        assertThat(capturedMessage.getText()).isEqualTo("Click to verify");
+    }
+
+    @Test
+    void shouldHandleNewBookNotificationEmailType() {
+        //given
+        EmailMessage bookNotification = EmailMessage.builder()
+                .to("reader@example.com")
+                .subject("New books available")
+                .content("Check out these new books")
+                .type(EmailMessage.EmailType.NEW_BOOK_NOTIFICATION)
+                .retryCount(0)
+                .build();
+
+        //when
+        emailDeliveryHandler.deliver(bookNotification, RabbitConfig.EMAIL_QUEUE, 0);
+
+        //then
+        ArgumentCaptor<SimpleMailMessage> messageCaptor = ArgumentCaptor.forClass(SimpleMailMessage.class);
+        verify(mailSenderMock).send(messageCaptor.capture());
+
+        SimpleMailMessage capturedMessage = messageCaptor.getValue();
+        assertThat(capturedMessage.getTo()).containsExactly("reader@example.com");
+        assertThat(capturedMessage.getSubject()).isEqualTo("New books available");
+        assertThat(capturedMessage.getText()).isEqualTo("Check out these new books");
+    }
+
+    @Test
+    void shouldNotThrowWhenUnexpectedErrorOccursDuringEmailSending() {
+        //given
+        EmailMessage testEmailMessage = createTestEmailMessage();
+        doThrow(new RuntimeException("Unexpected error"))
+                .when(mailSenderMock).send(any(SimpleMailMessage.class));
+
+        //when
+        emailDeliveryHandler.deliver(testEmailMessage, RabbitConfig.EMAIL_QUEUE, 0);
+
+        //then
+        verify(mailSenderMock).send(any(SimpleMailMessage.class));
+        verify(emailRetryPublisherMock).retryOrDeadLetter(eq(RabbitConfig.EMAIL_QUEUE), same(testEmailMessage), eq(0), any(RuntimeException.class));
+    }
+
+    @Test
+    void shouldNotRetrySuccessfulEmail() {
+        //given
+        EmailMessage testEmailMessage = createTestEmailMessage();
+
+        //when
+        emailDeliveryHandler.deliver(testEmailMessage, RabbitConfig.EMAIL_QUEUE, 0);
+
+        //then
+        verifyNoInteractions(emailRetryPublisherMock);
+    }
+
+    @Test
+    void shouldLogSuccessfulEmailSending() {
+        //given
+        EmailMessage testEmailMessage = createTestEmailMessage();
+        doNothing().when(mailSenderMock).send(any(SimpleMailMessage.class));
+
+        //when
+        emailDeliveryHandler.deliver(testEmailMessage, RabbitConfig.EMAIL_QUEUE, 0);
+
+        //then
+        verify(mailSenderMock).send(any(SimpleMailMessage.class));
+    }
+
+    @Test
+    void shouldSendClaimCheckedDigestWithStoredBody() throws Exception {
+        //given
+        EmailMessage claimChecked = EmailMessage.builder()
+                .to("reader@example.com")
+                .subject("New books in the library - 2025-08-15")
+                .digestKey("abc123")
+                .type(EmailMessage.EmailType.NEW_BOOK_NOTIFICATION)
+                .build();
+        when(emailContentResolverMock.resolve(claimChecked))
+                .thenReturn(new RenderedDigest("Stored text", "<p>Stored html</p>"));
+        MimeMessage mail = new MimeMessage((Session) null);
+        when(mailSenderMock.createMimeMessage()).thenReturn(mail);
+
+        //when
+        emailDeliveryHandler.deliver(claimChecked, RabbitConfig.EMAIL_QUEUE, 0);
+
+        //then
+        verify(mailSenderMock).send(mail);
+        assertThat(mail.getSubject()).isEqualTo("New books in the library - 2025-08-15");
+        assertThat(((MimeMultipart) mail.getContent()).getCount()).isPositive();
+        verifyNoInteractions(emailRetryPublisherMock);
+    }
+
+    @Test
+    void shouldRetryWhenDigestBodyCannotBeResolved() {
+        //given
+        EmailMessage claimChecked = EmailMessage.builder()
+                .to("reader@example.com")
+                .digestKey("gone")
+                .type(EmailMessage.EmailType.NEW_BOOK_NOTIFICATION)
+                .build();
+        IllegalStateException failure = new IllegalStateException("Digest body gone is no longer stored");
+        when(emailContentResolverMock.resolve(claimChecked)).thenThrow(failure);
+
+        //when
+        emailDeliveryHandler.deliver(claimChecked, RabbitConfig.EMAIL_QUEUE, 0);
+
+        //then
+        verify(emailRetryPublisherMock).retryOrDeadLetter(RabbitConfig.EMAIL_QUEUE, claimChecked, 0, failure);
+        verifyNoMoreInteractions(mailSenderMock);
+    }
+
+    @Test
+    void shouldRetryThroughTheQueueTheMessageCameFrom() {
+        //given
+        EmailMessage verificationEmail = createTestEmailMessage();
+        MailException failure = new MailException("SMTP server unavailable") {};
+        doThrow(failure).when(mailSenderMock).send(any(SimpleMailMessage.class));
+
+        //when
+        emailDeliveryHandler.deliver(verificationEmail, RabbitConfig.VERIFICATION_QUEUE, 0);
+
+        //then
+        verify(emailRetryPublisherMock).retryOrDeadLetter(RabbitConfig.VERIFICATION_QUEUE, verificationEmail, 0, failure);
+    }
+
+    @Test
+    void shouldKeepVerificationLatencyOutOfDigestScaling() {
+        //given
+        EmailMessage verificationEmail = createTestEmailMessage();
+        doNothing()
+                .doThrow(new MailException("SMTP server unavailable") {})
+                .when(mailSenderMock).send(any(SimpleMailMessage.class));
+
+        //when
+        emailDeliveryHandler.deliver(verificationEmail, RabbitConfig.VERIFICATION_QUEUE, 0);
+        emailDeliveryHandler.deliver(verificationEmail, RabbitConfig.VERIFICATION_QUEUE, 0);
+
+        //then
+        verify(mailSenderMock, times(2)).send(any(SimpleMailMessage.class));
+        verifyNoInteractions(smtpLatencyTrackerMock);
+    }
+
+    @Test
+    void shouldRejectWithoutRequeueWhenRetryCannotBeScheduled() {
+        //given
+        EmailMessage testEmailMessage = createTestEmailMessage();
+        MailException failure = new MailException("SMTP server unavailable") {};
+        doThrow(failure).when(mailSenderMock).send(any(SimpleMailMessage.class));
+        doThrow(new AmqpConnectException(new RuntimeException("Broker down")))
+                .when(emailRetryPublisherMock).retryOrDeadLetter(RabbitConfig.EMAIL_QUEUE, testEmailMessage, 2, failure);
+
+        //when //then
+        assertThatThrownBy(() -> emailDeliveryHandler.deliver(testEmailMessage, RabbitConfig.EMAIL_QUEUE, 2))
+                .isInstanceOf(AmqpRejectAndDontRequeueException.class)
+                .hasCauseInstanceOf(AmqpConnectException.class);
+    }
+
+    private EmailMessage createTestEmailMessage() {
+        return EmailMessage.builder()
+                .to("test@example.com")
+                .subject("Test Subject")
+                .content("Test Content")
+                .type(EmailMessage.EmailType.VERIFICATION)
+                .retryCount(0)
+                .build();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,45 @@
+package pl.kurs.messaging.consumer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import pl.kurs.config.RabbitConfig;
+import pl.kurs.messaging.dto.EmailMessage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class VerificationEmailConsumerTest {
+
+    @Mock
+    private EmailDeliveryHandler emailDeliveryHandlerMock;
+
+    @InjectMocks
+    private VerificationEmailConsumer verificationEmailConsumer;
+
+    @Test
+    void shouldDeliverVerificationWithItsOwnQueueAsRetrySource() {
+        //given
+        EmailMessage emailMessage = EmailMessage.builder()
+                .to("patron@example.com")
+                .type(EmailMessage.EmailType.VERIFICATION)
+                .build();
+
+        //when
+        verificationEmailConsumer.handleVerificationEmail(emailMessage, 2);
+
+        //then
+        verify(emailDeliveryHandlerMock).deliver(emailMessage, RabbitConfig.VERIFICATION_QUEUE, 2);
+    }
+
+    @Test
+    void shouldRouteOnlyVerificationEmailsToTheVerificationLane() {
+        //when //then
+        assertThat(RabbitConfig.queueFor(EmailMessage.EmailType.VERIFICATION)).isEqualTo(RabbitConfig.VERIFICATION_QUEUE);
+        assertThat(RabbitConfig.queueFor(EmailMessage.EmailType.NEW_BOOK_NOTIFICATION)).isEqualTo(RabbitConfig.EMAIL_QUEUE);
+        assertThat(RabbitConfig.queueFor(null)).isEqualTo(RabbitConfig.EMAIL_QUEUE);
+    }
+}
@@ -6,15 +6,30 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.AmqpConnectException;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import pl.kurs.config.NotificationProperties;
 import pl.kurs.config.RabbitConfig;
+import pl.kurs.messaging.dto.BatchPublishResult;
 import pl.kurs.messaging.dto.EmailMessage;
+import pl.kurs.metrics.NotificationMetrics;
+
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -26,6 +41,9 @@ class EmailProducerTest {
     @Mock
     private NotificationProperties notificationPropertiesMock;
 
+    @Mock
+    private NotificationMetrics notificationMetricsMock;
+
     @InjectMocks
     private EmailProducer emailProducer;
 
@@ -43,7 +61,7 @@ class EmailProducerTest {
 
         //then
         ArgumentCaptor<EmailMessage> messageCaptor = ArgumentCaptor.forClass(EmailMessage.class);
-        verify(rabbitTemplateMock).convertAndSend(eq(RabbitConfig.EMAIL_QUEUE), messageCaptor.capture());
+        verify(rabbitTemplateMock).convertAndSend(eq(RabbitConfig.VERIFICATION_QUEUE), messageCaptor.capture());
 
         EmailMessage capturedMessage = messageCaptor.getValue();
         assertThat(capturedMessage.getTo()).isEqualTo(testEmail);
@@ -86,7 +104,7 @@ class EmailProducerTest {
 
         //then
         ArgumentCaptor<EmailMessage> messageCaptor = ArgumentCaptor.forClass(EmailMessage.class);
-        verify(rabbitTemplateMock).convertAndSend(eq(RabbitConfig.EMAIL_QUEUE), messageCaptor.capture());
+        verify(rabbitTemplateMock).convertAndSend(eq(RabbitConfig.VERIFICATION_QUEUE), messageCaptor.capture());
 
         EmailMessage capturedMessage = messageCaptor.getValue();
         assertThat(capturedMessage.getContent()).contains(customUrl + token);
@@ -101,6 +119,147 @@ class EmailProducerTest {
         emailProducer.sendVerificationEmail(testEmail, token);
 
         //then
-        verify(rabbitTemplateMock).convertAndSend(eq(RabbitConfig.EMAIL_QUEUE), any(EmailMessage.class));
+        verify(rabbitTemplateMock).convertAndSend(eq(RabbitConfig.VERIFICATION_QUEUE), any(EmailMessage.class));
+        verify(notificationMetricsMock).emailsQueued(EmailMessage.EmailType.VERIFICATION, 1);
+    }
+
+    @Test
+    void shouldCountPublishFailureAndRethrow() {
+        //given
+        AmqpConnectException failure = new AmqpConnectException(new RuntimeException("Connection refused"));
+        doThrow(failure).when(rabbitTemplateMock).convertAndSend(eq(RabbitConfig.EMAIL_QUEUE), any(EmailMessage.class));
+
+        //when
+        Throwable thrown = catchThrowable(() -> emailProducer.sendDailyBookList(testEmail, "Subject", "Content"));
+
+        //then
+        assertThat(thrown).isSameAs(failure);
+        verify(notificationMetricsMock).emailsPublishFailed(EmailMessage.EmailType.NEW_BOOK_NOTIFICATION, 1);
+        verify(notificationMetricsMock, never()).emailsQueued(any(), anyInt());
+    }
+
+    @Test
+    void shouldPublishBatchAndCountConfirmedMessages() {
+        //given
+        EmailMessage first = EmailMessage.builder().to("first@example.com").build();
+        EmailMessage second = EmailMessage.builder().to("second@example.com").build();
+        when(notificationPropertiesMock.getPublishConfirmTimeoutMs()).thenReturn(1000L);
+        stubInvokeOnTemplate();
+        doAnswer(invocation -> {
+            CorrelationData correlationData = invocation.getArgument(3);
+            boolean ack = !correlationData.getId().endsWith("-1");
+            correlationData.getFuture().complete(new CorrelationData.Confirm(ack, ack ? null : "queue full"));
+            return null;
+        }).when(rabbitTemplateMock).convertAndSend(eq(""), eq(RabbitConfig.EMAIL_QUEUE), any(Object.class),
+                any(CorrelationData.class));
+
+        //when
+        BatchPublishResult result = emailProducer.publishBatch(List.of(first, second));
+
+        //then
+        assertThat(result.getAckedCount()).isEqualTo(1);
+        assertThat(result.getFailed()).containsExactly(second);
+        verify(rabbitTemplateMock).invoke(any());
+        verify(notificationMetricsMock).emailsQueued(null, 1);
+        verify(notificationMetricsMock).emailsPublishFailed(null, 1);
+    }
+
+    @Test
+    void shouldUseUniqueCorrelationIdsAcrossBatches() {
+        //given
+        EmailMessage message = EmailMessage.builder().to("first@example.com").build();
+        when(notificationPropertiesMock.getPublishConfirmTimeoutMs()).thenReturn(1000L);
+        stubInvokeOnTemplate();
+        List<String> correlationIds = new ArrayList<>();
+        doAnswer(invocation -> {
+            CorrelationData correlationData = invocation.getArgument(3);
+            correlationIds.add(correlationData.getId());
+            correlationData.getFuture().complete(new CorrelationData.Confirm(true, null));
+            return null;
+        }).when(rabbitTemplateMock).convertAndSend(eq(""), eq(RabbitConfig.EMAIL_QUEUE), any(Object.class),
+                any(CorrelationData.class));
+
+        //when
+        emailProducer.publishBatch(List.of(message, message));
+        emailProducer.publishBatch(List.of(message, message));
+
+        //then
+        assertThat(correlationIds).hasSize(4).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void shouldTagBatchMetricsWithEachMessageType() {
+        //given
+        EmailMessage digest = EmailMessage.builder().to("first@example.com")
+                .type(EmailMessage.EmailType.NEW_BOOK_NOTIFICATION).build();
+        EmailMessage verification = EmailMessage.builder().to("second@example.com")
+                .type(EmailMessage.EmailType.VERIFICATION).build();
+        EmailMessage anotherDigest = EmailMessage.builder().to("third@example.com")
+                .type(EmailMessage.EmailType.NEW_BOOK_NOTIFICATION).build();
+        when(notificationPropertiesMock.getPublishConfirmTimeoutMs()).thenReturn(1000L);
+        stubInvokeOnTemplate();
+        doAnswer(invocation -> {
+            CorrelationData correlationData = invocation.getArgument(3);
+            boolean ack = !correlationData.getId().endsWith("-2");
+            correlationData.getFuture().complete(new CorrelationData.Confirm(ack, ack ? null : "queue full"));
+            return null;
+        }).when(rabbitTemplateMock).convertAndSend(eq(""), anyString(), any(Object.class), any(CorrelationData.class));
+
+        //when
+        BatchPublishResult result = emailProducer.publishBatch(List.of(digest, verification, anotherDigest));
+
+        //then
+        assertThat(result.getAckedCount()).isEqualTo(2);
+        verify(notificationMetricsMock).emailsQueued(EmailMessage.EmailType.NEW_BOOK_NOTIFICATION, 1);
+        verify(notificationMetricsMock).emailsQueued(EmailMessage.EmailType.VERIFICATION, 1);
+        verify(notificationMetricsMock).emailsPublishFailed(EmailMessage.EmailType.NEW_BOOK_NOTIFICATION, 1);
+        verify(notificationMetricsMock, never()).emailsPublishFailed(eq(EmailMessage.EmailType.VERIFICATION), anyInt());
+    }
+
+    @Test
+    void shouldTreatMissingConfirmsAsFailedAfterTimeout() {
+        //given
+        EmailMessage message = EmailMessage.builder().to(testEmail).build();
+        when(notificationPropertiesMock.getPublishConfirmTimeoutMs()).thenReturn(10L);
+        stubInvokeOnTemplate();
+
+        //when
+        BatchPublishResult result = emailProducer.publishBatch(List.of(message));
+
+        //then
+        assertThat(result.getAckedCount()).isEqualTo(0);
+        assertThat(result.getFailed()).containsExactly(message);
+    }
+
+    @Test
+    void shouldFailWholeBatchWhenChannelCannotBeUsed() {
+        //given
+        EmailMessage message = EmailMessage.builder().to(testEmail).build();
+        when(rabbitTemplateMock.invoke(any())).thenThrow(new AmqpConnectException(new RuntimeException("Connection refused")));
+
+        //when
+        BatchPublishResult result = emailProducer.publishBatch(List.of(message));
+
+        //then
+        assertThat(result.getAckedCount()).isEqualTo(0);
+        assertThat(result.getFailedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldNotTouchBrokerForEmptyBatch() {
+        //when
+        BatchPublishResult result = emailProducer.publishBatch(List.of());
+
+        //then
+        assertThat(result.getAckedCount()).isEqualTo(0);
+        assertThat(result.getFailed()).isEmpty();
+        verifyNoInteractions(rabbitTemplateMock, notificationMetricsMock);
+    }
+
+    private void stubInvokeOnTemplate() {
+        when(rabbitTemplateMock.invoke(any())).thenAnswer(invocation -> {
+            RabbitOperations.OperationsCallback<?> callback = invocation.getArgument(0);
+            return callback.doInRabbit(rabbitTemplateMock);
+        });
     }
-}
\ No newline at end of file
+}
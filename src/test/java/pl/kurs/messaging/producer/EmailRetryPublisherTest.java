@@ -0,0 +1,108 @@
+package pl.kurs.messaging.producer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import pl.kurs.config.NotificationProperties;
+import pl.kurs.config.RabbitConfig;
+import pl.kurs.messaging.dto.EmailMessage;
+import pl.kurs.metrics.NotificationMetrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class EmailRetryPublisherTest {
+
+    @Mock
+    private RabbitTemplate rabbitTemplateMock;
+
+    @Mock
+    private NotificationProperties notificationPropertiesMock;
+
+    @Mock
+    private NotificationMetrics notificationMetricsMock;
+
+    @InjectMocks
+    private EmailRetryPublisher emailRetryPublisher;
+
+    private final int maxRetries = 3;
+
+    @Test
+    void shouldPublishToNextRetryTierWithRetryCountHeader() {
+        //given
+        EmailMessage emailMessage = createEmailMessage();
+        when(notificationPropertiesMock.getMaxRetries()).thenReturn(maxRetries);
+
+        //when
+        emailRetryPublisher.retryOrDeadLetter(RabbitConfig.EMAIL_QUEUE, emailMessage, 1, new RuntimeException("SMTP down"));
+
+        //then
+        ArgumentCaptor<MessagePostProcessor> postProcessorCaptor = ArgumentCaptor.forClass(MessagePostProcessor.class);
+        verify(rabbitTemplateMock).convertAndSend(eq(RabbitConfig.EMAIL_RETRY_EXCHANGE), eq("email.queue.retry.2"),
+                same(emailMessage), postProcessorCaptor.capture());
+        assertThat(emailMessage.getRetryCount()).isEqualTo(2);
+        verify(notificationMetricsMock).emailRetried(emailMessage.getType());
+
+        MessageProperties properties = postProcessorCaptor.getValue()
+                .postProcessMessage(new Message(new byte[0])).getMessageProperties();
+        assertThat((Integer) properties.getHeader(RabbitConfig.RETRY_COUNT_HEADER)).isEqualTo(2);
+    }
+
+    @Test
+    void shouldDeadLetterWhenMaxRetriesReached() {
+        //given
+        EmailMessage emailMessage = createEmailMessage();
+        when(notificationPropertiesMock.getMaxRetries()).thenReturn(maxRetries);
+
+        //when
+        emailRetryPublisher.retryOrDeadLetter(RabbitConfig.EMAIL_QUEUE, emailMessage, maxRetries, new RuntimeException("SMTP down"));
+
+        //then
+        ArgumentCaptor<MessagePostProcessor> postProcessorCaptor = ArgumentCaptor.forClass(MessagePostProcessor.class);
+        verify(rabbitTemplateMock).convertAndSend(eq(RabbitConfig.EMAIL_RETRY_EXCHANGE), eq(RabbitConfig.EMAIL_DEAD_LETTER_QUEUE),
+                same(emailMessage), postProcessorCaptor.capture());
+        verify(notificationMetricsMock).emailDeadLettered(emailMessage.getType());
+
+        MessageProperties properties = postProcessorCaptor.getValue()
+                .postProcessMessage(new Message(new byte[0])).getMessageProperties();
+        assertThat((Integer) properties.getHeader(RabbitConfig.RETRY_COUNT_HEADER)).isEqualTo(maxRetries);
+        assertThat((String) properties.getHeader(RabbitConfig.SOURCE_QUEUE_HEADER)).isEqualTo(RabbitConfig.EMAIL_QUEUE);
+        assertThat((String) properties.getHeader(RabbitConfig.FAILURE_REASON_HEADER)).isEqualTo("SMTP down");
+    }
+
+    @Test
+    void shouldUseMaxRetriesFromProperties() {
+        //given
+        int customMaxRetries = 5;
+        EmailMessage emailMessage = createEmailMessage();
+        when(notificationPropertiesMock.getMaxRetries()).thenReturn(customMaxRetries);
+
+        //when
+        emailRetryPublisher.retryOrDeadLetter(RabbitConfig.EMAIL_QUEUE, emailMessage, 4, new RuntimeException("SMTP down"));
+
+        //then
+        verify(rabbitTemplateMock).convertAndSend(eq(RabbitConfig.EMAIL_RETRY_EXCHANGE), eq("email.queue.retry.5"),
+                same(emailMessage), any(MessagePostProcessor.class));
+    }
+
+    private EmailMessage createEmailMessage() {
+        return EmailMessage.builder()
+                .to("test@example.com")
+                .subject("Test Subject")
+                .content("Test Content")
+                .type(EmailMessage.EmailType.NEW_BOOK_NOTIFICATION)
+                .build();
+    }
+}
@@ -0,0 +1,63 @@
+package pl.kurs.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import pl.kurs.config.CreditGatedExecutor;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExecutorMetricsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ThreadPoolTaskExecutor threadPool = new ThreadPoolTaskExecutor();
+
+    @AfterEach
+    void tearDown() {
+        threadPool.shutdown();
+    }
+
+    @Test
+    void shouldExposeCreditAndThreadPoolGauges() throws InterruptedException {
+        //given
+        threadPool.setCorePoolSize(1);
+        threadPool.setMaxPoolSize(1);
+        threadPool.setQueueCapacity(5);
+        threadPool.initialize();
+        CreditGatedExecutor executor = new CreditGatedExecutor("Test-", threadPool, 4);
+        new ExecutorMetrics(Map.of("testExecutor", executor)).bindTo(meterRegistry);
+
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        executor.execute(() -> {
+            started.countDown();
+            awaitQuietly(release);
+        });
+        executor.execute(() -> { });
+        started.await(5, TimeUnit.SECONDS);
+
+        try {
+            //then
+            assertThat(meterRegistry.get("executor.credits").tag("name", "testExecutor").gauge().value()).isEqualTo(4);
+            assertThat(meterRegistry.get("executor.credits.in.flight").tag("name", "testExecutor").gauge().value())
+                    .isEqualTo(2);
+            assertThat(meterRegistry.get("executor.active").tag("name", "testExecutor").gauge().value()).isEqualTo(1);
+            assertThat(meterRegistry.get("executor.queued").tag("name", "testExecutor").gauge().value()).isEqualTo(1);
+        } finally {
+            release.countDown();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
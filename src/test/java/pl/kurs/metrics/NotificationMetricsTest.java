@@ -0,0 +1,58 @@
+package pl.kurs.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import pl.kurs.messaging.dto.EmailMessage;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NotificationMetricsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final NotificationMetrics notificationMetrics = new NotificationMetrics(meterRegistry);
+
+    @Test
+    void shouldCountEmailsPerType() {
+        //when
+        notificationMetrics.emailsQueued(EmailMessage.EmailType.NEW_BOOK_NOTIFICATION, 3);
+        notificationMetrics.emailsQueued(EmailMessage.EmailType.NEW_BOOK_NOTIFICATION, 2);
+        notificationMetrics.emailsQueued(EmailMessage.EmailType.VERIFICATION, 1);
+        notificationMetrics.emailSent(EmailMessage.EmailType.VERIFICATION);
+
+        //then
+        assertThat(meterRegistry.get(NotificationMetrics.EMAIL_QUEUED).tag("type", "NEW_BOOK_NOTIFICATION")
+                .counter().count()).isEqualTo(5);
+        assertThat(meterRegistry.get(NotificationMetrics.EMAIL_QUEUED).tag("type", "VERIFICATION")
+                .counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(NotificationMetrics.EMAIL_SENT).tag("type", "VERIFICATION")
+                .counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldTagEmailsWithoutTypeAsUnknown() {
+        //when
+        notificationMetrics.emailFailed(null);
+
+        //then
+        assertThat(meterRegistry.get(NotificationMetrics.EMAIL_SEND_FAILED).tag("type", "UNKNOWN")
+                .counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldRecordBatchAndQueryTimesPerPagingMode() {
+        //when
+        notificationMetrics.recordDigestQuery("keyset", TimeUnit.MILLISECONDS.toNanos(40));
+        notificationMetrics.recordBatch("keyset", TimeUnit.MILLISECONDS.toNanos(120));
+        notificationMetrics.recordBatch("keyset", TimeUnit.MILLISECONDS.toNanos(80));
+
+        //then
+        assertThat(meterRegistry.get(NotificationMetrics.DIGEST_QUERY_TIMER).tag("paging", "keyset")
+                .timer().totalTime(TimeUnit.MILLISECONDS)).isEqualTo(40);
+        assertThat(meterRegistry.get(NotificationMetrics.BATCH_TIMER).tag("paging", "keyset")
+                .timer().count()).isEqualTo(2);
+        assertThat(meterRegistry.get(NotificationMetrics.BATCH_TIMER).tag("paging", "keyset")
+                .timer().max(TimeUnit.MILLISECONDS)).isEqualTo(120);
+    }
+}
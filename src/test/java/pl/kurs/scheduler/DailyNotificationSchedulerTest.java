@@ -2,11 +2,14 @@ package pl.kurs.scheduler;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
+import pl.kurs.config.NotificationProperties;
 import pl.kurs.service.NotificationBatchService;
+import pl.kurs.service.SubscriptionTargetBackfillService;
 
 import java.time.LocalDate;
 
@@ -19,6 +22,12 @@ class DailyNotificationSchedulerTest {
     @Mock
     private NotificationBatchService notificationBatchServiceMock;
 
+    @Mock
+    private NotificationProperties notificationPropertiesMock;
+
+    @Mock
+    private SubscriptionTargetBackfillService subscriptionTargetBackfillServiceMock;
+
     @InjectMocks
     private DailyNotificationScheduler scheduler;
 
@@ -62,4 +71,72 @@ class DailyNotificationSchedulerTest {
         assertThatCode(() -> scheduler.runDailyNotificationJob())
                 .doesNotThrowAnyException();
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldResumeUnfinishedRunsBeforeYesterdaysRun() {
+        //when
+        scheduler.runDailyNotificationJob();
+
+        //then
+        InOrder inOrder = inOrder(notificationBatchServiceMock);
+        inOrder.verify(notificationBatchServiceMock).resumeUnfinishedRuns();
+        inOrder.verify(notificationBatchServiceMock).processAllNotifications(any(LocalDate.class));
+    }
+
+    @Test
+    void shouldLinkUnlinkedSubscriptionTargetsBeforeRunning() {
+        //when
+        scheduler.runDailyNotificationJob();
+
+        //then
+        InOrder inOrder = inOrder(subscriptionTargetBackfillServiceMock, notificationBatchServiceMock);
+        inOrder.verify(subscriptionTargetBackfillServiceMock).catchUp();
+        inOrder.verify(notificationBatchServiceMock).resumeUnfinishedRuns();
+        inOrder.verify(notificationBatchServiceMock).processAllNotifications(any(LocalDate.class));
+    }
+
+    @Test
+    void shouldResumeInterruptedRunsOnStartup() {
+        //given
+        doThrow(new RuntimeException("Database connection failed"))
+                .when(notificationBatchServiceMock).resumeUnfinishedRuns();
+
+        //when then
+        assertThatCode(() -> scheduler.resumeInterruptedRuns()).doesNotThrowAnyException();
+        verify(notificationBatchServiceMock).resumeUnfinishedRuns();
+    }
+
+    @Test
+    void shouldReclaimAbandonedPartitionsPeriodically() {
+        //when
+        scheduler.reclaimAbandonedPartitions();
+
+        //then
+        verify(notificationBatchServiceMock).resumeAbandonedRuns();
+        verify(notificationBatchServiceMock, never()).processAllNotifications(any(LocalDate.class));
+    }
+
+    @Test
+    void shouldNotResumeRunsOnStartupInRealtimeDeliveryMode() {
+        //given
+        when(notificationPropertiesMock.getDeliveryMode()).thenReturn(NotificationProperties.DeliveryMode.REALTIME);
+
+        //when
+        scheduler.resumeInterruptedRuns();
+
+        //then
+        verifyNoInteractions(notificationBatchServiceMock);
+    }
+
+    @Test
+    void shouldSkipDailyJobInRealtimeDeliveryMode() {
+        //given
+        when(notificationPropertiesMock.getDeliveryMode()).thenReturn(NotificationProperties.DeliveryMode.REALTIME);
+
+        //when
+        scheduler.runDailyNotificationJob();
+
+        //then
+        verifyNoInteractions(notificationBatchServiceMock, subscriptionTargetBackfillServiceMock);
+    }
+}
@@ -0,0 +1,133 @@
+package pl.kurs.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import pl.kurs.config.CacheConfig;
+import pl.kurs.repository.AuthorBulkRepository;
+import pl.kurs.repository.AuthorRepository;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuthorServiceTest {
+
+    @Mock
+    private AuthorRepository authorRepositoryMock;
+
+    @Mock
+    private AuthorBulkRepository authorBulkRepositoryMock;
+
+    @Spy
+    private CacheManager cacheManager = new ConcurrentMapCacheManager(CacheConfig.AUTHOR_IDS_BY_NAME);
+
+    @InjectMocks
+    private AuthorService authorService;
+
+    @Test
+    void shouldReturnExistingAuthorIdsWithoutInserting() {
+        //given
+        List<String> names = List.of("J.R.R. Tolkien", "Stephen King");
+        when(authorRepositoryMock.findIdsByNameIn(names)).thenReturn(Arrays.asList(
+                new Object[]{"J.R.R. Tolkien", 1L},
+                new Object[]{"Stephen King", 2L}
+        ));
+
+        //when
+        Map<String, Long> result = authorService.internAuthors(names);
+
+        //then
+        assertThat(result).containsExactlyInAnyOrderEntriesOf(Map.of("J.R.R. Tolkien", 1L, "Stephen King", 2L));
+        verifyNoInteractions(authorBulkRepositoryMock);
+    }
+
+    @Test
+    void shouldInsertOnlyMissingAuthors() {
+        //given
+        List<String> names = List.of("J.R.R. Tolkien", "Ursula K. Le Guin");
+        when(authorRepositoryMock.findIdsByNameIn(names)).thenReturn(Collections.singletonList(
+                new Object[]{"J.R.R. Tolkien", 1L}));
+        when(authorRepositoryMock.findIdsByNameIn(Set.of("Ursula K. Le Guin"))).thenReturn(Collections.singletonList(
+                new Object[]{"Ursula K. Le Guin", 7L}));
+
+        //when
+        Map<String, Long> result = authorService.internAuthors(names);
+
+        //then
+        assertThat(result).containsExactlyInAnyOrderEntriesOf(Map.of("J.R.R. Tolkien", 1L, "Ursula K. Le Guin", 7L));
+        verify(authorBulkRepositoryMock).insertIgnoringExisting(Set.of("Ursula K. Le Guin"));
+    }
+
+    @Test
+    void shouldInternSingleAuthor() {
+        //given
+        when(authorRepositoryMock.findIdsByNameIn(anyCollection())).thenReturn(Collections.singletonList(
+                new Object[]{"J.R.R. Tolkien", 1L}));
+
+        //when
+        Long result = authorService.internAuthor("J.R.R. Tolkien");
+
+        //then
+        assertThat(result).isEqualTo(1L);
+    }
+
+    @Test
+    void shouldSkipLookupForNoNames() {
+        //when
+        Map<String, Long> result = authorService.internAuthors(List.of());
+
+        //then
+        assertThat(result).isEmpty();
+        verifyNoInteractions(authorRepositoryMock, authorBulkRepositoryMock);
+    }
+
+    @Test
+    void shouldServeInternedAuthorFromCacheWithoutQuerying() {
+        //given
+        when(authorRepositoryMock.findIdsByNameIn(anyCollection())).thenReturn(Collections.singletonList(
+                new Object[]{"J.R.R. Tolkien", 1L}));
+        authorService.internAuthor("J.R.R. Tolkien");
+
+        //when
+        Long result = authorService.internAuthor("J.R.R. Tolkien");
+
+        //then
+        assertThat(result).isEqualTo(1L);
+        verify(authorRepositoryMock, times(1)).findIdsByNameIn(anyCollection());
+    }
+
+    @Test
+    void shouldNotCacheIdsOfTransactionThatRollsBack() {
+        //given
+        when(authorRepositoryMock.findIdsByNameIn(anyCollection()))
+                .thenReturn(Collections.emptyList())
+                .thenReturn(Collections.singletonList(new Object[]{"Ursula K. Le Guin", 7L}));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            //when
+            authorService.internAuthor("Ursula K. Le Guin");
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        //then
+        assertThat(cacheManager.getCache(CacheConfig.AUTHOR_IDS_BY_NAME).get("Ursula K. Le Guin")).isNull();
+    }
+}
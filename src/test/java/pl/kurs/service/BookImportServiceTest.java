@@ -0,0 +1,259 @@
+package pl.kurs.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import pl.kurs.config.ImportProperties;
+import pl.kurs.dto.BookDto;
+import pl.kurs.dto.BulkImportResultDto;
+import pl.kurs.entity.Book;
+import pl.kurs.entity.Category;
+import pl.kurs.event.BookCreatedEvent;
+import pl.kurs.exception.InvalidImportFormatException;
+import pl.kurs.exception.ResourceNotFoundException;
+import pl.kurs.mapper.BookMapper;
+import pl.kurs.repository.BookRepository;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookImportServiceTest {
+
+    @Mock
+    private BookRepository bookRepositoryMock;
+
+    @Mock
+    private CategoryService categoryServiceMock;
+
+    @Mock
+    private AuthorService authorServiceMock;
+
+    @Mock
+    private BookMapper bookMapperMock;
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Mock
+    private ImportProperties importPropertiesMock;
+
+    @Mock
+    private TransactionTemplate transactionTemplateMock;
+
+    @Mock
+    private EntityManager entityManagerMock;
+
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisherMock;
+
+    @InjectMocks
+    private BookImportService bookImportService;
+
+    @Captor
+    private ArgumentCaptor<List<Book>> booksCaptor;
+
+    private final Category fantasy = new Category(3L, "Fantasy");
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(importPropertiesMock.getBatchSize()).thenReturn(2);
+        lenient().when(importPropertiesMock.getMaxReportedErrors()).thenReturn(100);
+        lenient().when(transactionTemplateMock.execute(any()))
+                .thenAnswer(invocation -> ((TransactionCallback<?>) invocation.getArgument(0)).doInTransaction(null));
+        lenient().when(bookMapperMock.dtoToEntity(any(BookDto.class))).thenAnswer(invocation -> {
+            BookDto dto = invocation.getArgument(0);
+            Book book = new Book();
+            book.setAuthor(dto.getAuthor());
+            book.setTitle(dto.getTitle());
+            book.setPageCount(dto.getPageCount());
+            return book;
+        });
+        lenient().when(authorServiceMock.internAuthors(anyCollection())).thenAnswer(invocation -> {
+            Collection<String> names = invocation.getArgument(0);
+            Map<String, Long> ids = new HashMap<>();
+            names.forEach(name -> ids.put(name, (long) name.length()));
+            return ids;
+        });
+        lenient().when(bookRepositoryMock.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Book> books = invocation.getArgument(0);
+            long id = 100;
+            for (Book book : books) {
+                book.setId(id++);
+            }
+            return books;
+        });
+    }
+
+    @Test
+    void shouldImportJsonArrayInConfiguredBatches() {
+        //given
+        when(categoryServiceMock.findById(3L)).thenReturn(fantasy);
+        String json = """
+                [
+                  {"author": "J.R.R. Tolkien", "title": "The Hobbit", "categoryId": 3, "pageCount": 310},
+                  {"author": "J.R.R. Tolkien", "title": "The Silmarillion", "categoryId": 3},
+                  {"author": "Ursula K. Le Guin", "title": "A Wizard of Earthsea", "categoryId": 3}
+                ]
+                """;
+
+        //when
+        BulkImportResultDto result = bookImportService.importJson(stream(json));
+
+        //then
+        assertThat(result.getImportedCount()).isEqualTo(3);
+        assertThat(result.getFailedCount()).isEqualTo(0);
+        assertThat(result.getErrors()).isEmpty();
+        verify(transactionTemplateMock, times(2)).execute(any());
+        verify(categoryServiceMock, times(2)).findById(3L);
+        verify(bookRepositoryMock, times(2)).flush();
+        verify(entityManagerMock, times(2)).clear();
+        verify(applicationEventPublisherMock, times(3)).publishEvent(any(BookCreatedEvent.class));
+
+        verify(bookRepositoryMock, times(2)).saveAll(booksCaptor.capture());
+        assertThat(booksCaptor.getAllValues().get(0)).hasSize(2);
+        assertThat(booksCaptor.getAllValues().get(0).get(0).getCategory()).isSameAs(fantasy);
+        assertThat(booksCaptor.getAllValues().get(0).get(0).getAuthorId()).isEqualTo((long) "J.R.R. Tolkien".length());
+        verify(authorServiceMock).internAuthors(Set.of("J.R.R. Tolkien"));
+        verify(authorServiceMock).internAuthors(Set.of("Ursula K. Le Guin"));
+    }
+
+    @Test
+    void shouldReportInvalidRowsAndImportTheRest() {
+        //given
+        when(categoryServiceMock.findById(3L)).thenReturn(fantasy);
+        when(categoryServiceMock.findById(99L)).thenThrow(new ResourceNotFoundException("Category ID: 99 not found"));
+        String json = """
+                [
+                  {"author": "", "title": "No Author", "categoryId": 3},
+                  {"author": "Frank Herbert", "title": "Dune", "categoryId": 99},
+                  {"author": "J.R.R. Tolkien", "title": "The Hobbit", "categoryId": "abc"},
+                  {"author": "J.R.R. Tolkien", "title": "The Hobbit", "categoryId": 3}
+                ]
+                """;
+
+        //when
+        BulkImportResultDto result = bookImportService.importJson(stream(json));
+
+        //then
+        assertThat(result.getImportedCount()).isEqualTo(1);
+        assertThat(result.getFailedCount()).isEqualTo(3);
+        assertThat(result.getErrors()).extracting(error -> error.getRow()).containsExactlyInAnyOrder(1L, 2L, 3L);
+        assertThat(result.getErrors()).filteredOn(error -> error.getRow() == 1L)
+                .extracting(error -> error.getMessage()).containsExactly("Author is required");
+        assertThat(result.getErrors()).filteredOn(error -> error.getRow() == 2L)
+                .extracting(error -> error.getMessage()).containsExactly("Category ID: 99 not found");
+    }
+
+    @Test
+    void shouldMarkWholeBatchFailedWhenInsertFails() {
+        //given
+        when(categoryServiceMock.findById(3L)).thenReturn(fantasy);
+        doThrow(new RuntimeException("Connection lost")).when(bookRepositoryMock).flush();
+        String json = """
+                [
+                  {"author": "J.R.R. Tolkien", "title": "The Hobbit", "categoryId": 3},
+                  {"author": "J.R.R. Tolkien", "title": "The Silmarillion", "categoryId": 3}
+                ]
+                """;
+
+        //when
+        BulkImportResultDto result = bookImportService.importJson(stream(json));
+
+        //then
+        assertThat(result.getImportedCount()).isEqualTo(0);
+        assertThat(result.getFailedCount()).isEqualTo(2);
+        assertThat(result.getErrors()).extracting(error -> error.getMessage())
+                .containsOnly("Batch insert failed: Connection lost");
+        verify(applicationEventPublisherMock, never()).publishEvent(any());
+    }
+
+    @Test
+    void shouldImportCsvWithQuotedFields() {
+        //given
+        when(categoryServiceMock.findById(3L)).thenReturn(fantasy);
+        String csv = """
+                title,author,categoryId,pageCount
+                "The Hobbit, or There and Back Again",J.R.R. Tolkien,3,310
+                The Silmarillion,J.R.R. Tolkien,3,
+                Broken,Author,three,100
+                Missing column,Author,3
+                """;
+
+        //when
+        BulkImportResultDto result = bookImportService.importCsv(stream(csv));
+
+        //then
+        assertThat(result.getImportedCount()).isEqualTo(2);
+        assertThat(result.getFailedCount()).isEqualTo(2);
+        assertThat(result.getErrors()).extracting(error -> error.getRow()).containsExactly(3L, 4L);
+
+        verify(bookRepositoryMock).saveAll(booksCaptor.capture());
+        assertThat(booksCaptor.getValue().get(0).getTitle()).isEqualTo("The Hobbit, or There and Back Again");
+        assertThat(booksCaptor.getValue().get(0).getPageCount()).isEqualTo(310);
+        assertThat(booksCaptor.getValue().get(1).getPageCount()).isNull();
+    }
+
+    @Test
+    void shouldLimitReportedErrors() {
+        //given
+        when(importPropertiesMock.getMaxReportedErrors()).thenReturn(1);
+        String json = """
+                [{"title": "No Author", "categoryId": 3}, {"title": "No Author Either", "categoryId": 3}]
+                """;
+
+        //when
+        BulkImportResultDto result = bookImportService.importJson(stream(json));
+
+        //then
+        assertThat(result.getFailedCount()).isEqualTo(2);
+        assertThat(result.getErrors()).hasSize(1);
+    }
+
+    @Test
+    void shouldRejectBodyThatIsNotJsonArray() {
+        //when then
+        assertThatThrownBy(() -> bookImportService.importJson(stream("{\"title\": \"The Hobbit\"}")))
+                .isInstanceOf(InvalidImportFormatException.class)
+                .hasMessage("Expected a JSON array");
+    }
+
+    @Test
+    void shouldRejectCsvWithoutRequiredColumns() {
+        //when then
+        assertThatThrownBy(() -> bookImportService.importCsv(stream("title,author\nThe Hobbit,J.R.R. Tolkien\n")))
+                .isInstanceOf(InvalidImportFormatException.class)
+                .hasMessage("CSV header must contain column: categoryId");
+    }
+
+    private InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -9,6 +9,7 @@ import org.springframework.context.ApplicationEventPublisher;
 import pl.kurs.dto.BookDto;
 import pl.kurs.entity.Book;
 import pl.kurs.entity.Category;
+import pl.kurs.event.BookCreatedEvent;
 import pl.kurs.mapper.BookMapper;
 import pl.kurs.repository.BookRepository;
 
@@ -17,6 +18,8 @@ import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -28,6 +31,9 @@ public class BookServiceTest {
     @Mock
     private CategoryService categoryServiceMock;
 
+    @Mock
+    private AuthorService authorServiceMock;
+
     @Mock
     private BookMapper bookMapperMock;
 
@@ -43,10 +49,11 @@ public class BookServiceTest {
         BookDto expectedDto = new BookDto(2L, "Test author", "Test title", 1L, 300);
         BookDto bookDto = new BookDto(null, "Test author", "Test title", 1L, 300);
         Category category = new Category(1L, "Fantasy");
-        Book book = new Book(null, "Test author", "Test title", null, 300, LocalDate.of(2025, 1, 15));
-        Book savedBook = new Book(2L, "Test author", "Test title", category, 300, LocalDate.of(2025, 1, 15));
+        Book book = new Book(null, "Test author", null, "Test title", null, 300, LocalDate.of(2025, 1, 15));
+        Book savedBook = new Book(2L, "Test author", 7L, "Test title", category, 300, LocalDate.of(2025, 1, 15));
 
         when(categoryServiceMock.findById(1L)).thenReturn(category);
+        when(authorServiceMock.internAuthor("Test author")).thenReturn(7L);
         when(bookMapperMock.dtoToEntity(bookDto)).thenReturn(book);
         when(bookRepositoryMock.save(any(Book.class))).thenReturn(savedBook);
         when(bookMapperMock.entityToDto(savedBook)).thenReturn(expectedDto);
@@ -61,12 +68,15 @@ public class BookServiceTest {
         assertThat(result.getAuthor()).isEqualTo("Test author");
         assertThat(result.getCategoryId()).isEqualTo(1L);
         assertThat(result.getPageCount()).isEqualTo(300);
+        verify(bookRepositoryMock).save(argThat(saved -> saved.getAuthorId().equals(7L)));
+        verify(applicationEventPublisherMock).publishEvent(argThat(event ->
+                event instanceof BookCreatedEvent bookCreatedEvent && bookCreatedEvent.getBookId().equals(2L)));
     }
 
     @Test
     void shouldFindBookById() {
         // given
-        Book savedBook = new Book(2L, "Test author", "Test title", new Category(), 300, LocalDate.of(2025, 1, 15));
+        Book savedBook = new Book(2L, "Test author", 7L, "Test title", new Category(), 300, LocalDate.of(2025, 1, 15));
         Long bookId = 2L;
         when(bookRepositoryMock.findById(bookId)).thenReturn(Optional.of(savedBook));
 
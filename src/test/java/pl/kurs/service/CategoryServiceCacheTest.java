@@ -0,0 +1,101 @@
+package pl.kurs.service;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import pl.kurs.config.CacheConfig;
+import pl.kurs.entity.Category;
+import pl.kurs.exception.ResourceNotFoundException;
+import pl.kurs.repository.CategoryRepository;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@SpringJUnitConfig
+class CategoryServiceCacheTest {
+
+    @Configuration
+    @EnableCaching
+    @Import(CategoryService.class)
+    static class CacheTestConfig {
+
+        @Bean
+        public CacheManager cacheManager() {
+            CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+            cacheManager.setCacheSpecification("maximumSize=100,recordStats");
+            return cacheManager;
+        }
+    }
+
+    @MockitoBean
+    private CategoryRepository categoryRepositoryMock;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Test
+    void shouldServeRepeatedLookupsByIdFromCache() {
+        //given
+        when(categoryRepositoryMock.findById(1L)).thenReturn(Optional.of(new Category(1L, "Fantasy")));
+        CaffeineCache cache = (CaffeineCache) cacheManager.getCache(CacheConfig.CATEGORIES);
+        CacheStats before = cache.getNativeCache().stats();
+
+        //when
+        categoryService.findById(1L);
+        Category result = categoryService.findById(1L);
+
+        //then
+        assertThat(result.getName()).isEqualTo("Fantasy");
+        verify(categoryRepositoryMock, times(1)).findById(1L);
+
+        CacheStats stats = cache.getNativeCache().stats().minus(before);
+        assertThat(stats.hitCount()).isEqualTo(1);
+        assertThat(stats.missCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldServeRepeatedLookupsByNameFromCache() {
+        //given
+        when(categoryRepositoryMock.findByName("Horror")).thenReturn(Optional.of(new Category(10L, "Horror")));
+
+        //when
+        categoryService.findIdByName("Horror");
+        Optional<Long> result = categoryService.findIdByName("Horror");
+
+        //then
+        assertThat(result).contains(10L);
+        verify(categoryRepositoryMock, times(1)).findByName("Horror");
+    }
+
+    @Test
+    void shouldNotCacheMissingCategories() {
+        //given
+        when(categoryRepositoryMock.findById(999L)).thenReturn(Optional.empty());
+        when(categoryRepositoryMock.findByName("Unknown")).thenReturn(Optional.empty());
+
+        //when
+        assertThatThrownBy(() -> categoryService.findById(999L)).isInstanceOf(ResourceNotFoundException.class);
+        assertThatThrownBy(() -> categoryService.findById(999L)).isInstanceOf(ResourceNotFoundException.class);
+        categoryService.findIdByName("Unknown");
+        categoryService.findIdByName("Unknown");
+
+        //then
+        verify(categoryRepositoryMock, times(2)).findById(999L);
+        verify(categoryRepositoryMock, times(2)).findByName("Unknown");
+    }
+}
@@ -51,4 +51,28 @@ public class CategoryServiceTest {
                 .hasMessage("Category ID: 999 not found");
     }
 
-}
\ No newline at end of file
+    @Test
+    void shouldReturnCategoryIdByName() {
+        //given
+        when(categoryRepositoryMock.findByName("Fantasy")).thenReturn(Optional.of(new Category(3L, "Fantasy")));
+
+        //when
+        Optional<Long> result = categoryService.findIdByName("Fantasy");
+
+        //then
+        assertThat(result).contains(3L);
+    }
+
+    @Test
+    void shouldReturnEmptyWhenCategoryNameNotExists() {
+        //given
+        when(categoryRepositoryMock.findByName("Unknown")).thenReturn(Optional.empty());
+
+        //when
+        Optional<Long> result = categoryService.findIdByName("Unknown");
+
+        //then
+        assertThat(result).isEmpty();
+    }
+
+}
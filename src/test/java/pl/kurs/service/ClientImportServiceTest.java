@@ -0,0 +1,232 @@
+package pl.kurs.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import pl.kurs.config.ImportProperties;
+import pl.kurs.dto.ClientDto;
+import pl.kurs.dto.ClientImportResultDto;
+import pl.kurs.entity.Client;
+import pl.kurs.mapper.ClientMapper;
+import pl.kurs.messaging.dto.BatchPublishResult;
+import pl.kurs.messaging.dto.EmailMessage;
+import pl.kurs.messaging.producer.EmailProducer;
+import pl.kurs.repository.ClientBulkRepository;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ClientImportServiceTest {
+
+    @Mock
+    private ClientBulkRepository clientBulkRepositoryMock;
+
+    @Mock
+    private ClientMapper clientMapperMock;
+
+    @Mock
+    private EmailProducer emailProducerMock;
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Mock
+    private ImportProperties importPropertiesMock;
+
+    @Mock
+    private TransactionTemplate transactionTemplateMock;
+
+    @Mock
+    private VerificationTokenService verificationTokenServiceMock;
+
+    @InjectMocks
+    private ClientImportService clientImportService;
+
+    @Captor
+    private ArgumentCaptor<List<Client>> clientsCaptor;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(importPropertiesMock.getBatchSize()).thenReturn(2);
+        lenient().when(importPropertiesMock.getMaxReportedErrors()).thenReturn(100);
+        lenient().when(transactionTemplateMock.execute(any()))
+                .thenAnswer(invocation -> ((TransactionCallback<?>) invocation.getArgument(0)).doInTransaction(null));
+        lenient().when(clientMapperMock.dtoToEntity(any(ClientDto.class))).thenAnswer(invocation -> {
+            ClientDto dto = invocation.getArgument(0);
+            return Client.builder()
+                    .firstName(dto.getFirstName())
+                    .lastName(dto.getLastName())
+                    .email(dto.getEmail())
+                    .city(dto.getCity())
+                    .emailVerified(false)
+                    .build();
+        });
+        lenient().when(verificationTokenServiceMock.issue(anyLong()))
+                .thenAnswer(invocation -> "token-" + invocation.getArgument(0));
+        lenient().when(emailProducerMock.createVerificationEmail(anyString(), anyString()))
+                .thenAnswer(invocation -> EmailMessage.builder().to(invocation.getArgument(0)).build());
+        lenient().when(emailProducerMock.publishBatch(anyList())).thenAnswer(invocation -> {
+            List<EmailMessage> messages = invocation.getArgument(0);
+            return new BatchPublishResult(messages.size(), List.of());
+        });
+    }
+
+    @Test
+    void shouldImportNdjsonInBatchesAndQueueVerificationEmails() {
+        //given
+        stubInsertAllExcept();
+        String ndjson = """
+                {"firstName": "Anna", "lastName": "Kowalska", "email": "anna@example.com", "city": "Warszawa"}
+                {"firstName": "Jan", "lastName": "Nowak", "email": "jan@example.com", "city": "Kraków"}
+
+                {"firstName": "Maria", "lastName": "Wiśniewska", "email": "maria@example.com", "city": "Gdańsk"}
+                """;
+
+        //when
+        ClientImportResultDto result = clientImportService.importNdjson(stream(ndjson));
+
+        //then
+        assertThat(result.getImportedCount()).isEqualTo(3);
+        assertThat(result.getFailedCount()).isEqualTo(0);
+        assertThat(result.getVerificationEmailsQueued()).isEqualTo(3);
+        assertThat(result.getVerificationPendingClientIds()).isEmpty();
+        verify(clientBulkRepositoryMock, times(2)).insertIgnoringDuplicateEmails(anyList());
+        verify(emailProducerMock, times(2)).publishBatch(anyList());
+        verify(emailProducerMock, never()).sendVerificationEmail(anyString(), anyString());
+
+        verify(clientBulkRepositoryMock, times(2)).insertIgnoringDuplicateEmails(clientsCaptor.capture());
+        Client firstClient = clientsCaptor.getAllValues().get(0).get(0);
+        assertThat(firstClient.getVerificationToken()).isNull();
+        verify(emailProducerMock).createVerificationEmail("anna@example.com", "token-1");
+    }
+
+    @Test
+    void shouldReportDuplicateEmailsPerRow() {
+        //given
+        stubInsertAllExcept("existing@example.com");
+        String csv = """
+                firstName,lastName,email,city
+                Anna,Kowalska,existing@example.com,Warszawa
+                Jan,Nowak,jan@example.com,Kraków
+                Jan,Nowak,jan@example.com,Kraków
+                """;
+
+        //when
+        ClientImportResultDto result = clientImportService.importCsv(stream(csv));
+
+        //then
+        assertThat(result.getImportedCount()).isEqualTo(1);
+        assertThat(result.getFailedCount()).isEqualTo(2);
+        assertThat(result.getErrors()).extracting(error -> error.getRow()).containsExactlyInAnyOrder(1L, 3L);
+        assertThat(result.getErrors()).extracting(error -> error.getMessage())
+                .containsOnly("Client with this email already exists");
+        verify(emailProducerMock).publishBatch(argThat(messages -> messages.size() == 1
+                && messages.get(0).getTo().equals("jan@example.com")));
+    }
+
+    @Test
+    void shouldRejectInvalidAndMalformedRows() {
+        //given
+        stubInsertAllExcept();
+        String ndjson = """
+                {"firstName": "Anna", "lastName": "Kowalska", "email": "not-an-email", "city": "Warszawa"}
+                {"firstName": "Jan", "lastName": "Nowak", "email": "jan@example.com"
+                {"firstName": "Maria", "lastName": "Wiśniewska", "email": "maria@example.com", "city": "Gdańsk"}
+                """;
+
+        //when
+        ClientImportResultDto result = clientImportService.importNdjson(stream(ndjson));
+
+        //then
+        assertThat(result.getImportedCount()).isEqualTo(1);
+        assertThat(result.getFailedCount()).isEqualTo(2);
+        assertThat(result.getErrors()).filteredOn(error -> error.getRow() == 1L)
+                .extracting(error -> error.getMessage()).containsExactly("Email must be valid");
+        assertThat(result.getErrors()).filteredOn(error -> error.getRow() == 2L)
+                .extracting(error -> error.getMessage()).allMatch(message -> message.startsWith("Malformed row"));
+    }
+
+    @Test
+    void shouldMarkWholeBatchFailedWhenInsertFails() {
+        //given
+        when(clientBulkRepositoryMock.insertIgnoringDuplicateEmails(anyList()))
+                .thenThrow(new RuntimeException("Connection lost"));
+        String ndjson = """
+                {"firstName": "Anna", "lastName": "Kowalska", "email": "anna@example.com", "city": "Warszawa"}
+                """;
+
+        //when
+        ClientImportResultDto result = clientImportService.importNdjson(stream(ndjson));
+
+        //then
+        assertThat(result.getImportedCount()).isEqualTo(0);
+        assertThat(result.getFailedCount()).isEqualTo(1);
+        verify(emailProducerMock, never()).publishBatch(anyList());
+    }
+
+    @Test
+    void shouldCountOnlyConfirmedVerificationEmails() {
+        //given
+        stubInsertAllExcept();
+        when(emailProducerMock.publishBatch(anyList())).thenAnswer(invocation -> {
+            List<EmailMessage> messages = invocation.getArgument(0);
+            return new BatchPublishResult(messages.size() - 1, List.of(messages.get(0)));
+        });
+        String ndjson = """
+                {"firstName": "Anna", "lastName": "Kowalska", "email": "anna@example.com", "city": "Warszawa"}
+                {"firstName": "Jan", "lastName": "Nowak", "email": "jan@example.com", "city": "Kraków"}
+                """;
+
+        //when
+        ClientImportResultDto result = clientImportService.importNdjson(stream(ndjson));
+
+        //then
+        assertThat(result.getImportedCount()).isEqualTo(2);
+        assertThat(result.getVerificationEmailsQueued()).isEqualTo(1);
+        assertThat(result.getVerificationPendingClientIds()).containsExactly(1L);
+    }
+
+    private void stubInsertAllExcept(String... existingEmails) {
+        Set<String> existing = new HashSet<>(List.of(existingEmails));
+        when(clientBulkRepositoryMock.insertIgnoringDuplicateEmails(anyList())).thenAnswer(invocation -> {
+            List<Client> clients = invocation.getArgument(0);
+            Map<String, Long> inserted = new HashMap<>();
+            long id = 1;
+            for (Client client : clients) {
+                if (existing.add(client.getEmail())) {
+                    inserted.put(client.getEmail(), id++);
+                }
+            }
+            return inserted;
+        });
+    }
+
+    private InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -4,9 +4,9 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
-import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
 import pl.kurs.dto.ClientDto;
+import pl.kurs.dto.ClientIdRange;
 import pl.kurs.entity.Client;
 import pl.kurs.exception.EmailNotVerifiedException;
 import pl.kurs.exception.ResourceNotFoundException;
@@ -14,8 +14,12 @@ import pl.kurs.mapper.ClientMapper;
 import pl.kurs.messaging.producer.EmailProducer;
 import pl.kurs.repository.ClientRepository;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.UUID;
+import java.util.OptionalLong;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -33,6 +37,9 @@ public class ClientServiceTest {
     @Mock
     private ClientMapper clientMapperMock;
 
+    @Mock
+    private VerificationTokenService verificationTokenServiceMock;
+
     @InjectMocks
     private ClientService clientService;
 
@@ -42,33 +49,27 @@ public class ClientServiceTest {
         ClientDto clientDto = createClientDto();
         Client client = createClient();
         Client savedClient = createSavedClient();
-        String expectedToken = "generated-uuid-token";
+        String expectedToken = "1.1736899200.signature";
 
-        try (MockedStatic<UUID> uuidMock = mockStatic(UUID.class)) {
-            UUID mockUuid = mock(UUID.class);
-            uuidMock.when(UUID::randomUUID).thenReturn(mockUuid);
-            when(mockUuid.toString()).thenReturn(expectedToken);
+        when(clientMapperMock.dtoToEntity(clientDto)).thenReturn(client);
+        when(clientRepositoryMock.save(any(Client.class))).thenReturn(savedClient);
+        when(verificationTokenServiceMock.issue(1L)).thenReturn(expectedToken);
+        when(clientMapperMock.entityToDto(savedClient)).thenReturn(clientDto);
 
-            when(clientMapperMock.dtoToEntity(clientDto)).thenReturn(client);
-            when(clientRepositoryMock.save(any(Client.class))).thenReturn(savedClient);
-            when(clientMapperMock.entityToDto(savedClient)).thenReturn(clientDto);
-
-            //when
-            ClientDto result = clientService.registerClient(clientDto);
+        //when
+        ClientDto result = clientService.registerClient(clientDto);
 
-            //then
-            assertThat(result).isEqualTo(clientDto);
-        }
+        //then
+        assertThat(result).isEqualTo(clientDto);
+        verify(emailProducerMock).sendVerificationEmail("test@example.com", expectedToken);
     }
 
     @Test
     void shouldVerifyEmailSuccessfully() {
         //given
         String token = "valid-token";
-        Client unverifiedClient = createClientWithToken(token);
-
-        when(clientRepositoryMock.findByVerificationToken(token)).thenReturn(Optional.of(unverifiedClient));
-        when(clientRepositoryMock.save(any(Client.class))).thenReturn(unverifiedClient);
+        when(verificationTokenServiceMock.verify(token)).thenReturn(OptionalLong.of(1L));
+        when(clientRepositoryMock.markEmailVerified(1L)).thenReturn(1);
 
         //when
         boolean result = clientService.verifyEmail(token);
@@ -77,6 +78,88 @@ public class ClientServiceTest {
         assertThat(result).isTrue();
     }
 
+    @Test
+    void shouldRejectInvalidTokenWithoutTouchingRepository() {
+        //given
+        when(verificationTokenServiceMock.verify("forged-token")).thenReturn(OptionalLong.empty());
+
+        //when
+        boolean result = clientService.verifyEmail("forged-token");
+
+        //then
+        assertThat(result).isFalse();
+        verifyNoInteractions(clientRepositoryMock);
+    }
+
+    @Test
+    void shouldVerifyEmailWithLegacyStoredToken() {
+        //given
+        String legacyToken = "3f2b8c1e-7d4a-4e5b-9c6d-0a1b2c3d4e5f";
+        when(verificationTokenServiceMock.verify(legacyToken)).thenReturn(OptionalLong.empty());
+        when(clientRepositoryMock.markEmailVerifiedByLegacyToken(legacyToken)).thenReturn(1);
+
+        //when
+        boolean result = clientService.verifyEmail(legacyToken);
+
+        //then
+        assertThat(result).isTrue();
+        verify(clientRepositoryMock, never()).markEmailVerified(anyLong());
+    }
+
+    @Test
+    void shouldRejectUnknownLegacyToken() {
+        //given
+        String legacyToken = "3f2b8c1e-7d4a-4e5b-9c6d-0a1b2c3d4e5f";
+        when(verificationTokenServiceMock.verify(legacyToken)).thenReturn(OptionalLong.empty());
+        when(clientRepositoryMock.markEmailVerifiedByLegacyToken(legacyToken)).thenReturn(0);
+
+        //when
+        boolean result = clientService.verifyEmail(legacyToken);
+
+        //then
+        assertThat(result).isFalse();
+    }
+
+    @Test
+    void shouldRejectTokenOfDeletedClient() {
+        //given
+        when(verificationTokenServiceMock.verify("valid-token")).thenReturn(OptionalLong.of(42L));
+        when(clientRepositoryMock.markEmailVerified(42L)).thenReturn(0);
+
+        //when
+        boolean result = clientService.verifyEmail("valid-token");
+
+        //then
+        assertThat(result).isFalse();
+    }
+
+    @Test
+    void shouldResendVerificationEmailToUnverifiedClient() {
+        //given
+        when(clientRepositoryMock.findById(1L)).thenReturn(Optional.of(createSavedClient()));
+        when(verificationTokenServiceMock.issue(1L)).thenReturn("1.1736899200.signature");
+
+        //when
+        boolean resent = clientService.resendVerificationEmail(1L);
+
+        //then
+        assertThat(resent).isTrue();
+        verify(emailProducerMock).sendVerificationEmail("test@example.com", "1.1736899200.signature");
+    }
+
+    @Test
+    void shouldNotResendVerificationEmailToVerifiedClient() {
+        //given
+        when(clientRepositoryMock.findById(2L)).thenReturn(Optional.of(createVerifiedClient(2L)));
+
+        //when
+        boolean resent = clientService.resendVerificationEmail(2L);
+
+        //then
+        assertThat(resent).isFalse();
+        verifyNoInteractions(emailProducerMock, verificationTokenServiceMock);
+    }
+
     @Test
     void shouldGetClientByIdSuccessfully() {
         //given
@@ -133,6 +216,66 @@ public class ClientServiceTest {
                 .hasMessage("Email must be verified before creating subscription");
     }
 
+    @Test
+    void shouldReturnVerifiedClientIdRange() {
+        //given
+        when(clientRepositoryMock.findVerifiedClientIdRange())
+                .thenReturn(Collections.singletonList(new Object[]{3L, 250L}));
+
+        //when
+        Optional<ClientIdRange> result = clientService.findVerifiedClientIdRange();
+
+        //then
+        assertThat(result).isPresent();
+        assertThat(result.get().getMinId()).isEqualTo(3L);
+        assertThat(result.get().getMaxId()).isEqualTo(250L);
+    }
+
+    @Test
+    void shouldReturnEmptyRangeWhenNoVerifiedClients() {
+        //given
+        when(clientRepositoryMock.findVerifiedClientIdRange())
+                .thenReturn(Collections.singletonList(new Object[]{null, null}));
+
+        //when
+        Optional<ClientIdRange> result = clientService.findVerifiedClientIdRange();
+
+        //then
+        assertThat(result).isEmpty();
+    }
+
+    @Test
+    void shouldReturnVerifiedEmailsByIds() {
+        //given
+        List<Long> ids = List.of(1L, 2L, 3L);
+        when(clientRepositoryMock.findVerifiedEmailsByIdIn(ids)).thenReturn(Arrays.asList(
+                new Object[]{1L, "first@example.com"},
+                new Object[]{3L, "third@example.com"}
+        ));
+
+        //when
+        Map<Long, String> result = clientService.findVerifiedEmailsByIds(ids);
+
+        //then
+        assertThat(result).containsExactlyInAnyOrderEntriesOf(Map.of(1L, "first@example.com", 3L, "third@example.com"));
+    }
+
+    @Test
+    void shouldReturnVerificationStatusByIds() {
+        //given
+        List<Long> ids = List.of(1L, 2L, 3L);
+        when(clientRepositoryMock.findVerificationStatusByIdIn(ids)).thenReturn(Arrays.asList(
+                new Object[]{1L, true},
+                new Object[]{2L, false}
+        ));
+
+        //when
+        Map<Long, Boolean> result = clientService.findVerificationStatusByIds(ids);
+
+        //then
+        assertThat(result).containsExactlyInAnyOrderEntriesOf(Map.of(1L, true, 2L, false));
+    }
+
     private ClientDto createClientDto() {
         return new ClientDto(1L, "Jan", "Kowalski", "test@example.com", false, "Warszawa");
     }
@@ -159,18 +302,6 @@ public class ClientServiceTest {
                 .build();
     }
 
-    private Client createClientWithToken(String token) {
-        return Client.builder()
-                .id(1L)
-                .firstName("Jan")
-                .lastName("Kowalski")
-                .email("test@example.com")
-                .city("Warszawa")
-                .emailVerified(false)
-                .verificationToken(token)
-                .build();
-    }
-
     private Client createVerifiedClient(Long id) {
         return Client.builder()
                 .id(id)
@@ -0,0 +1,114 @@
+package pl.kurs.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import pl.kurs.config.NotificationProperties;
+import pl.kurs.dto.RenderedDigest;
+import pl.kurs.entity.DigestBody;
+import pl.kurs.repository.DigestBodyBulkRepository;
+import pl.kurs.repository.DigestBodyRepository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DigestBodyStoreTest {
+
+    @Mock
+    private DigestBodyRepository digestBodyRepositoryMock;
+
+    @Mock
+    private DigestBodyBulkRepository digestBodyBulkRepositoryMock;
+
+    @Mock
+    private NotificationProperties notificationPropertiesMock;
+
+    @InjectMocks
+    private DigestBodyStore digestBodyStore;
+
+    private final LocalDate testDate = LocalDate.of(2025, 8, 15);
+
+    @Test
+    void shouldStoreEachDistinctBodyOnceAndReturnKeyPerMessage() {
+        //given
+        RenderedDigest fantasy = new RenderedDigest("Fantasy", "<li>Fantasy</li>");
+        RenderedDigest crime = new RenderedDigest("Crime", "<li>Crime</li>");
+        when(digestBodyBulkRepositoryMock.insertIgnoringExisting(anyCollection())).thenReturn(2);
+
+        //when
+        List<String> keys = digestBodyStore.storeAll(testDate,
+                List.of(fantasy, crime, new RenderedDigest("Fantasy", "<li>Fantasy</li>")));
+
+        //then
+        assertThat(keys).hasSize(3);
+        assertThat(keys.get(0)).hasSize(64).isEqualTo(keys.get(2)).isNotEqualTo(keys.get(1));
+        ArgumentCaptor<Collection<DigestBody>> bodiesCaptor = ArgumentCaptor.forClass(Collection.class);
+        verify(digestBodyBulkRepositoryMock).insertIgnoringExisting(bodiesCaptor.capture());
+        assertThat(bodiesCaptor.getValue()).extracting(DigestBody::getTextContent).containsExactly("Fantasy", "Crime");
+        assertThat(bodiesCaptor.getValue()).allSatisfy(body -> assertThat(body.getDigestDate()).isEqualTo(testDate));
+    }
+
+    @Test
+    void shouldInsertAgainOnRerunSoPurgedBodiesAreRestored() {
+        //given
+        RenderedDigest fantasy = new RenderedDigest("Fantasy", "<li>Fantasy</li>");
+        digestBodyStore.storeAll(testDate, List.of(fantasy));
+        digestBodyStore.purgeExpiredBodies();
+
+        //when
+        List<String> keys = digestBodyStore.storeAll(testDate, List.of(new RenderedDigest("Fantasy", "<li>Fantasy</li>")));
+
+        //then
+        assertThat(keys).hasSize(1);
+        verify(digestBodyBulkRepositoryMock, times(2)).insertIgnoringExisting(anyCollection());
+    }
+
+    @Test
+    void shouldKeyBodiesByDate() {
+        //given
+        RenderedDigest digest = new RenderedDigest("Fantasy", null);
+
+        //when
+        String today = DigestBodyStore.digestKey(testDate, digest);
+        String tomorrow = DigestBodyStore.digestKey(testDate.plusDays(1), digest);
+
+        //then
+        assertThat(today).isNotEqualTo(tomorrow);
+    }
+
+    @Test
+    void shouldLoadStoredBody() {
+        //given
+        when(digestBodyRepositoryMock.findById("key")).thenReturn(Optional.of(DigestBody.builder()
+                .digestKey("key").textContent("Fantasy").htmlContent("<li>Fantasy</li>").build()));
+
+        //when
+        RenderedDigest body = digestBodyStore.findBody("key");
+
+        //then
+        assertThat(body.getText()).isEqualTo("Fantasy");
+        assertThat(body.getHtml()).isEqualTo("<li>Fantasy</li>");
+    }
+
+    @Test
+    void shouldPurgeBodiesOlderThanRetention() {
+        //given
+        when(notificationPropertiesMock.getDigestBodyRetentionDays()).thenReturn(7);
+
+        //when
+        digestBodyStore.purgeExpiredBodies();
+
+        //then
+        verify(digestBodyRepositoryMock).deleteByDigestDateBefore(LocalDate.now().minusDays(7));
+    }
+}
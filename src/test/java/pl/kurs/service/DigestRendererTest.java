@@ -0,0 +1,112 @@
+package pl.kurs.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import pl.kurs.dto.RenderedDigest;
+import pl.kurs.entity.Book;
+import pl.kurs.entity.Category;
+import pl.kurs.repository.BookRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DigestRendererTest {
+
+    @Mock
+    private BookRepository bookRepositoryMock;
+
+    @InjectMocks
+    private DigestRenderer digestRenderer;
+
+    private final LocalDate testDate = LocalDate.of(2025, 8, 15);
+
+    @Test
+    void shouldRenderTextDigestInRequestedBookOrder() {
+        //given
+        when(bookRepositoryMock.findAllWithCategoryByAddedDate(testDate)).thenReturn(List.of(
+                createBook(1L, "The Hobbit", "J.R.R. Tolkien", "Fantasy"),
+                createBook(2L, "Dune", "Frank Herbert", "Sci-Fi")));
+
+        //when
+        RenderedDigest digest = digestRenderer.render(testDate, List.of(2L, 1L));
+
+        //then
+        assertThat(digest.getText()).isEqualTo(
+                "Here are the new books added to the library today, matching your subscriptions:\n\n"
+                + "Dune - Frank Herbert (Sci-Fi)\nThe Hobbit - J.R.R. Tolkien (Fantasy)");
+    }
+
+    @Test
+    void shouldRenderEscapedHtmlDigest() {
+        //given
+        when(bookRepositoryMock.findAllWithCategoryByAddedDate(testDate)).thenReturn(List.of(
+                createBook(1L, "Cats & <Dogs>", "A. \"Quoted\" Author", "Pets")));
+
+        //when
+        RenderedDigest digest = digestRenderer.render(testDate, List.of(1L));
+
+        //then
+        assertThat(digest.getHtml()).isEqualTo("<html><body><p>Here are the new books added to the library today, "
+                + "matching your subscriptions:</p><ul><li>Cats &amp; &lt;Dogs&gt; - A. &quot;Quoted&quot; Author (Pets)</li>"
+                + "</ul></body></html>");
+    }
+
+    @Test
+    void shouldLoadBookMetadataOncePerDate() {
+        //given
+        when(bookRepositoryMock.findAllWithCategoryByAddedDate(testDate)).thenReturn(List.of(
+                createBook(1L, "The Hobbit", "J.R.R. Tolkien", "Fantasy")));
+
+        //when
+        digestRenderer.render(testDate, List.of(1L));
+        RenderedDigest second = digestRenderer.render(testDate, List.of(1L));
+
+        //then
+        assertThat(second.getText()).endsWith("The Hobbit - J.R.R. Tolkien (Fantasy)");
+        verify(bookRepositoryMock, times(1)).findAllWithCategoryByAddedDate(testDate);
+        verify(bookRepositoryMock, never()).findAllWithCategoryByIdIn(any());
+    }
+
+    @Test
+    void shouldLoadBooksMissingFromCachedDate() {
+        //given
+        when(bookRepositoryMock.findAllWithCategoryByAddedDate(testDate)).thenReturn(List.of(
+                createBook(1L, "The Hobbit", "J.R.R. Tolkien", "Fantasy")));
+        when(bookRepositoryMock.findAllWithCategoryByIdIn(List.of(2L))).thenReturn(List.of(
+                createBook(2L, "Dune", "Frank Herbert", "Sci-Fi")));
+
+        //when
+        RenderedDigest digest = digestRenderer.render(testDate, List.of(1L, 2L));
+
+        //then
+        assertThat(digest.getText()).endsWith("The Hobbit - J.R.R. Tolkien (Fantasy)\nDune - Frank Herbert (Sci-Fi)");
+    }
+
+    @Test
+    void shouldNotLeakBufferContentBetweenRenders() {
+        //given
+        when(bookRepositoryMock.findAllWithCategoryByAddedDate(testDate)).thenReturn(List.of(
+                createBook(1L, "The Hobbit", "J.R.R. Tolkien", "Fantasy"),
+                createBook(2L, "Dune", "Frank Herbert", "Sci-Fi")));
+
+        //when
+        digestRenderer.render(testDate, List.of(1L));
+        RenderedDigest digest = digestRenderer.render(testDate, List.of(2L));
+
+        //then
+        assertThat(digest.getText()).doesNotContain("The Hobbit");
+        assertThat(digest.getHtml()).doesNotContain("The Hobbit");
+    }
+
+    private Book createBook(Long id, String title, String author, String category) {
+        return new Book(id, author, null, title, new Category(1L, category), 300, testDate);
+    }
+}
@@ -0,0 +1,173 @@
+package pl.kurs.service;
+
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.Envelope;
+import com.rabbitmq.client.GetResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.ChannelCallback;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import pl.kurs.config.NotificationProperties;
+import pl.kurs.config.RabbitConfig;
+import pl.kurs.messaging.dto.EmailMessage;
+
+import java.io.IOException;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EmailDeadLetterServiceTest {
+
+    @Mock
+    private RabbitTemplate rabbitTemplateMock;
+
+    @Mock
+    private Jackson2JsonMessageConverter jackson2JsonMessageConverterMock;
+
+    @Mock
+    private NotificationProperties notificationPropertiesMock;
+
+    @Mock
+    private Channel channelMock;
+
+    @InjectMocks
+    private EmailDeadLetterService emailDeadLetterService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        lenient().when(notificationPropertiesMock.getPublishConfirmTimeoutMs()).thenReturn(10000L);
+        lenient().when(rabbitTemplateMock.execute(any())).thenAnswer(invocation ->
+                invocation.<ChannelCallback<?>>getArgument(0).doInRabbit(channelMock));
+        lenient().when(jackson2JsonMessageConverterMock.fromMessage(any(Message.class)))
+                .thenAnswer(invocation -> EmailMessage.builder().to("test@example.com").retryCount(3).build());
+        lenient().when(jackson2JsonMessageConverterMock.toMessage(any(), any(MessageProperties.class)))
+                .thenAnswer(invocation -> new Message("{}".getBytes(), invocation.getArgument(1)));
+    }
+
+    @Test
+    void shouldReplayDeadLettersToSourceQueueWithResetRetryCountAndAckAfterConfirm() throws Exception {
+        //given
+        when(channelMock.basicGet(RabbitConfig.EMAIL_DEAD_LETTER_QUEUE, false))
+                .thenReturn(deadLetter(1L, RabbitConfig.VERIFICATION_QUEUE), (GetResponse) null);
+
+        //when
+        int replayed = emailDeadLetterService.replayDeadLetters(10);
+
+        //then
+        assertThat(replayed).isEqualTo(1);
+        ArgumentCaptor<Object> messageCaptor = ArgumentCaptor.forClass(Object.class);
+        verify(jackson2JsonMessageConverterMock).toMessage(messageCaptor.capture(), any(MessageProperties.class));
+        assertThat(((EmailMessage) messageCaptor.getValue()).getTo()).isEqualTo("test@example.com");
+        assertThat(((EmailMessage) messageCaptor.getValue()).getRetryCount()).isEqualTo(0);
+
+        InOrder inOrder = inOrder(channelMock);
+        inOrder.verify(channelMock).basicPublish(eq(""), eq(RabbitConfig.VERIFICATION_QUEUE), eq(false),
+                any(AMQP.BasicProperties.class), any(byte[].class));
+        inOrder.verify(channelMock).waitForConfirmsOrDie(10000L);
+        inOrder.verify(channelMock).basicAck(1L, false);
+    }
+
+    @Test
+    void shouldFallBackToEmailQueueWithoutSourceHeader() throws Exception {
+        //given
+        when(channelMock.basicGet(RabbitConfig.EMAIL_DEAD_LETTER_QUEUE, false))
+                .thenReturn(deadLetter(1L, null), (GetResponse) null);
+
+        //when
+        emailDeadLetterService.replayDeadLetters(10);
+
+        //then
+        verify(channelMock).basicPublish(eq(""), eq(RabbitConfig.EMAIL_QUEUE), eq(false),
+                any(AMQP.BasicProperties.class), any(byte[].class));
+    }
+
+    @Test
+    void shouldStopReplayingAtLimit() throws Exception {
+        //given
+        when(channelMock.basicGet(RabbitConfig.EMAIL_DEAD_LETTER_QUEUE, false))
+                .thenReturn(deadLetter(1L, RabbitConfig.EMAIL_QUEUE), deadLetter(2L, RabbitConfig.EMAIL_QUEUE));
+
+        //when
+        int replayed = emailDeadLetterService.replayDeadLetters(2);
+
+        //then
+        assertThat(replayed).isEqualTo(2);
+        verify(channelMock, times(2)).basicGet(RabbitConfig.EMAIL_DEAD_LETTER_QUEUE, false);
+        verify(channelMock).basicAck(1L, false);
+        verify(channelMock).basicAck(2L, false);
+    }
+
+    @Test
+    void shouldRequeueDeadLetterWhenRepublishFails() throws Exception {
+        //given
+        when(channelMock.basicGet(RabbitConfig.EMAIL_DEAD_LETTER_QUEUE, false))
+                .thenReturn(deadLetter(1L, RabbitConfig.EMAIL_QUEUE), deadLetter(2L, RabbitConfig.EMAIL_QUEUE));
+        doThrow(new IOException("connection reset")).when(channelMock)
+                .basicPublish(anyString(), anyString(), anyBoolean(), any(AMQP.BasicProperties.class), any(byte[].class));
+
+        //when
+        int replayed = emailDeadLetterService.replayDeadLetters(10);
+
+        //then
+        assertThat(replayed).isEqualTo(0);
+        verify(channelMock).basicNack(1L, false, true);
+        verify(channelMock, never()).basicAck(anyLong(), anyBoolean());
+        verify(channelMock, times(1)).basicGet(RabbitConfig.EMAIL_DEAD_LETTER_QUEUE, false);
+    }
+
+    @Test
+    void shouldRequeueDeadLetterWhenBrokerDoesNotConfirm() throws Exception {
+        //given
+        when(channelMock.basicGet(RabbitConfig.EMAIL_DEAD_LETTER_QUEUE, false))
+                .thenReturn(deadLetter(1L, RabbitConfig.EMAIL_QUEUE));
+        doThrow(new IOException("nacked")).when(channelMock).waitForConfirmsOrDie(anyLong());
+
+        //when
+        int replayed = emailDeadLetterService.replayDeadLetters(10);
+
+        //then
+        assertThat(replayed).isEqualTo(0);
+        verify(channelMock).basicNack(1L, false, true);
+        verify(channelMock, never()).basicAck(anyLong(), anyBoolean());
+    }
+
+    @Test
+    void shouldReturnZeroWhenDeadLetterQueueIsEmpty() throws Exception {
+        //given
+        when(channelMock.basicGet(RabbitConfig.EMAIL_DEAD_LETTER_QUEUE, false)).thenReturn(null);
+
+        //when
+        int replayed = emailDeadLetterService.replayDeadLetters(10);
+
+        //then
+        assertThat(replayed).isEqualTo(0);
+        verify(channelMock, never()).basicPublish(anyString(), anyString(), anyBoolean(),
+                any(AMQP.BasicProperties.class), any(byte[].class));
+    }
+
+    private GetResponse deadLetter(long deliveryTag, String sourceQueue) {
+        AMQP.BasicProperties properties = new AMQP.BasicProperties.Builder()
+                .contentType(MessageProperties.CONTENT_TYPE_JSON)
+                .headers(sourceQueue != null ? Map.of(RabbitConfig.SOURCE_QUEUE_HEADER, sourceQueue) : Map.of())
+                .build();
+        Envelope envelope = new Envelope(deliveryTag, false, RabbitConfig.EMAIL_RETRY_EXCHANGE, RabbitConfig.EMAIL_DEAD_LETTER_QUEUE);
+        return new GetResponse(envelope, properties, "{}".getBytes(), 0);
+    }
+}
@@ -0,0 +1,224 @@
+package pl.kurs.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
+import org.springframework.data.domain.PageRequest;
+import pl.kurs.config.NotificationProperties;
+import pl.kurs.entity.Book;
+import pl.kurs.entity.Category;
+import pl.kurs.entity.PendingBookNotification;
+import pl.kurs.event.BookCreatedEvent;
+import pl.kurs.messaging.dto.BatchPublishResult;
+import pl.kurs.messaging.dto.EmailMessage;
+import pl.kurs.messaging.producer.EmailProducer;
+import pl.kurs.repository.BookRepository;
+import pl.kurs.repository.PendingBookNotificationRepository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NewBookNotificationServiceTest {
+
+    @Mock
+    private BookRepository bookRepositoryMock;
+
+    @Mock
+    private PendingBookNotificationRepository pendingBookNotificationRepositoryMock;
+
+    @Mock
+    private SubscriptionIndexService subscriptionIndexServiceMock;
+
+    @Mock
+    private ClientService clientServiceMock;
+
+    @Mock
+    private EmailProducer emailProducerMock;
+
+    @Mock
+    private NotificationProperties notificationPropertiesMock;
+
+    @InjectMocks
+    private NewBookNotificationService newBookNotificationService;
+
+    @Captor
+    private ArgumentCaptor<List<EmailMessage>> messagesCaptor;
+
+    @Test
+    void shouldPersistPendingBookInRealtimeMode() {
+        //given
+        when(notificationPropertiesMock.getDeliveryMode()).thenReturn(NotificationProperties.DeliveryMode.REALTIME);
+
+        //when
+        newBookNotificationService.onBookCreated(new BookCreatedEvent(this, 1L));
+
+        //then
+        ArgumentCaptor<PendingBookNotification> pendingCaptor = ArgumentCaptor.forClass(PendingBookNotification.class);
+        verify(pendingBookNotificationRepositoryMock).save(pendingCaptor.capture());
+        assertThat(pendingCaptor.getValue().getBookId()).isEqualTo(1L);
+        assertThat(pendingCaptor.getValue().getCreatedAt()).isNotNull();
+    }
+
+    @Test
+    void shouldIgnoreEventsInDailyDeliveryMode() {
+        //given
+        when(notificationPropertiesMock.getDeliveryMode()).thenReturn(NotificationProperties.DeliveryMode.DAILY);
+
+        //when
+        newBookNotificationService.onBookCreated(new BookCreatedEvent(this, 1L));
+
+        //then
+        verifyNoInteractions(pendingBookNotificationRepositoryMock);
+    }
+
+    @Test
+    void shouldGroupBooksFromOneWindowIntoSingleNotificationPerClient() {
+        //given
+        when(notificationPropertiesMock.getBatchSize()).thenReturn(100);
+        List<PendingBookNotification> pending = pending(1L, 2L);
+        when(pendingBookNotificationRepositoryMock.claimPending(PageRequest.of(0, 100))).thenReturn(pending);
+        Book hobbit = createBook(1L, "The Hobbit", "J.R.R. Tolkien", 100L, "Fantasy", 3L);
+        Book silmarillion = createBook(2L, "The Silmarillion", "J.R.R. Tolkien", 100L, "Fantasy", 3L);
+
+        when(bookRepositoryMock.findAllWithCategoryByIdIn(List.of(1L, 2L))).thenReturn(Arrays.asList(hobbit, silmarillion));
+        when(subscriptionIndexServiceMock.findAudience(100L, 3L))
+                .thenAnswer(invocation -> Roaring64NavigableMap.bitmapOf(10L, 11L));
+        when(clientServiceMock.findVerifiedEmailsByIds(List.of(10L, 11L)))
+                .thenReturn(Map.of(10L, "reader10@example.com", 11L, "reader11@example.com"));
+        when(emailProducerMock.publishBatch(anyList())).thenReturn(new BatchPublishResult(2, List.of()));
+
+        //when
+        newBookNotificationService.flushPendingBooks();
+
+        //then
+        verify(emailProducerMock).publishBatch(messagesCaptor.capture());
+        String expectedContent = "Here are the new books added to the library, matching your subscriptions:\n\n"
+                + "The Hobbit - J.R.R. Tolkien (Fantasy)\nThe Silmarillion - J.R.R. Tolkien (Fantasy)";
+        assertThat(messagesCaptor.getValue())
+                .extracting(EmailMessage::getTo, EmailMessage::getSubject, EmailMessage::getContent, EmailMessage::getType)
+                .containsExactly(
+                        tuple("reader10@example.com", "New books in the library", expectedContent,
+                                EmailMessage.EmailType.NEW_BOOK_NOTIFICATION),
+                        tuple("reader11@example.com", "New books in the library", expectedContent,
+                                EmailMessage.EmailType.NEW_BOOK_NOTIFICATION));
+        verify(pendingBookNotificationRepositoryMock).deleteAllInBatch(pending);
+    }
+
+    @Test
+    void shouldOnlyListBooksMatchingClientSubscriptions() {
+        //given
+        when(notificationPropertiesMock.getBatchSize()).thenReturn(100);
+        when(pendingBookNotificationRepositoryMock.claimPending(any())).thenReturn(pending(1L, 2L));
+        Book hobbit = createBook(1L, "The Hobbit", "J.R.R. Tolkien", 100L, "Fantasy", 3L);
+        Book it = createBook(2L, "It", "Stephen King", 101L, "Horror", 10L);
+
+        when(bookRepositoryMock.findAllWithCategoryByIdIn(List.of(1L, 2L))).thenReturn(Arrays.asList(hobbit, it));
+        when(subscriptionIndexServiceMock.findAudience(100L, 3L))
+                .thenReturn(Roaring64NavigableMap.bitmapOf(10L));
+        when(subscriptionIndexServiceMock.findAudience(101L, 10L))
+                .thenReturn(Roaring64NavigableMap.bitmapOf(11L, 12L));
+        when(clientServiceMock.findVerifiedEmailsByIds(List.of(10L, 11L, 12L)))
+                .thenReturn(Map.of(10L, "reader10@example.com", 11L, "reader11@example.com"));
+        when(emailProducerMock.publishBatch(anyList())).thenReturn(new BatchPublishResult(2, List.of()));
+
+        //when
+        newBookNotificationService.flushPendingBooks();
+
+        //then
+        verify(emailProducerMock).publishBatch(messagesCaptor.capture());
+        List<EmailMessage> messages = messagesCaptor.getValue();
+        assertThat(messages).hasSize(2);
+        assertThat(messages.get(0).getTo()).isEqualTo("reader10@example.com");
+        assertThat(messages.get(0).getContent()).endsWith("\n\nThe Hobbit - J.R.R. Tolkien (Fantasy)");
+        assertThat(messages.get(1).getTo()).isEqualTo("reader11@example.com");
+        assertThat(messages.get(1).getContent()).endsWith("\n\nIt - Stephen King (Horror)");
+    }
+
+    @Test
+    void shouldDoNothingWhenNoBooksPending() {
+        //given
+        when(notificationPropertiesMock.getBatchSize()).thenReturn(100);
+        when(pendingBookNotificationRepositoryMock.claimPending(any())).thenReturn(List.of());
+
+        //when
+        newBookNotificationService.flushPendingBooks();
+
+        //then
+        verify(pendingBookNotificationRepositoryMock, never()).deleteAllInBatch(anyList());
+        verifyNoInteractions(bookRepositoryMock, subscriptionIndexServiceMock, clientServiceMock, emailProducerMock);
+    }
+
+    @Test
+    void shouldRetryUnconfirmedNotificationsBeforeClearingPendingBooks() {
+        //given
+        when(notificationPropertiesMock.getBatchSize()).thenReturn(1);
+        List<PendingBookNotification> pending = pending(1L);
+        when(pendingBookNotificationRepositoryMock.claimPending(any())).thenReturn(pending);
+        Book hobbit = createBook(1L, "The Hobbit", "J.R.R. Tolkien", 100L, "Fantasy", 3L);
+
+        when(bookRepositoryMock.findAllWithCategoryByIdIn(List.of(1L))).thenReturn(List.of(hobbit));
+        when(subscriptionIndexServiceMock.findAudience(100L, 3L))
+                .thenReturn(Roaring64NavigableMap.bitmapOf(10L, 11L));
+        when(clientServiceMock.findVerifiedEmailsByIds(List.of(10L))).thenReturn(Map.of(10L, "failing@example.com"));
+        when(clientServiceMock.findVerifiedEmailsByIds(List.of(11L))).thenReturn(Map.of(11L, "reader@example.com"));
+        when(emailProducerMock.publishBatch(anyList()))
+                .thenAnswer(invocation -> new BatchPublishResult(0, invocation.getArgument(0)))
+                .thenAnswer(invocation -> new BatchPublishResult(1, List.of()))
+                .thenAnswer(invocation -> new BatchPublishResult(1, List.of()));
+
+        //when
+        newBookNotificationService.flushPendingBooks();
+
+        //then
+        verify(emailProducerMock, times(3)).publishBatch(messagesCaptor.capture());
+        assertThat(messagesCaptor.getAllValues().get(2))
+                .extracting(EmailMessage::getTo)
+                .containsExactly("failing@example.com");
+        verify(pendingBookNotificationRepositoryMock).deleteAllInBatch(pending);
+    }
+
+    @Test
+    void shouldKeepBooksPendingWhenNotificationsStayUnconfirmed() {
+        //given
+        when(notificationPropertiesMock.getBatchSize()).thenReturn(100);
+        when(pendingBookNotificationRepositoryMock.claimPending(any())).thenReturn(pending(1L));
+        Book hobbit = createBook(1L, "The Hobbit", "J.R.R. Tolkien", 100L, "Fantasy", 3L);
+
+        when(bookRepositoryMock.findAllWithCategoryByIdIn(List.of(1L))).thenReturn(List.of(hobbit));
+        when(subscriptionIndexServiceMock.findAudience(100L, 3L)).thenReturn(Roaring64NavigableMap.bitmapOf(10L));
+        when(clientServiceMock.findVerifiedEmailsByIds(List.of(10L))).thenReturn(Map.of(10L, "reader@example.com"));
+        when(emailProducerMock.publishBatch(anyList()))
+                .thenAnswer(invocation -> new BatchPublishResult(0, invocation.getArgument(0)));
+
+        //when
+        newBookNotificationService.flushPendingBooks();
+
+        //then
+        verify(emailProducerMock, times(2)).publishBatch(anyList());
+        verify(pendingBookNotificationRepositoryMock, never()).deleteAllInBatch(anyList());
+    }
+
+    private List<PendingBookNotification> pending(Long... bookIds) {
+        return Arrays.stream(bookIds)
+                .map(bookId -> new PendingBookNotification(bookId, LocalDateTime.of(2025, 8, 15, 12, 0)))
+                .toList();
+    }
+
+    private Book createBook(Long id, String title, String author, Long authorId, String category, Long categoryId) {
+        return new Book(id, author, authorId, title, new Category(categoryId, category), 300, LocalDate.of(2025, 8, 15));
+    }
+}
@@ -3,21 +3,37 @@ package pl.kurs.service;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.SliceImpl;
 import pl.kurs.config.NotificationProperties;
+import pl.kurs.dto.ClientIdRange;
+import pl.kurs.dto.NotificationBatchResult;
+import pl.kurs.dto.RenderedDigest;
+import pl.kurs.entity.NotificationRun;
+import pl.kurs.entity.NotificationRunState;
+import pl.kurs.messaging.dto.BatchPublishResult;
+import pl.kurs.messaging.dto.EmailMessage;
 import pl.kurs.messaging.producer.EmailProducer;
+import pl.kurs.metrics.NotificationMetrics;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatCode;
@@ -36,15 +52,55 @@ class NotificationBatchServiceTest {
     @Mock
     private NotificationProperties notificationPropertiesMock;
 
+    @Mock
+    private ClientService clientServiceMock;
+
+    @Mock
+    private Executor notificationExecutorMock;
+
+    @Mock
+    private DigestRenderer digestRendererMock;
+
+    @Mock
+    private NotificationRunService notificationRunServiceMock;
+
+    @Mock
+    private NotificationMetrics notificationMetricsMock;
+
+    @Mock
+    private DigestBodyStore digestBodyStoreMock;
+
     @InjectMocks
     private NotificationBatchService notificationBatchService;
 
+    @Captor
+    private ArgumentCaptor<List<long[]>> boundsCaptor;
+
+    @Captor
+    private ArgumentCaptor<List<RenderedDigest>> bodiesCaptor;
+
+    @Captor
+    private ArgumentCaptor<List<EmailMessage>> messagesCaptor;
+
     private final LocalDate testDate = LocalDate.of(2025, 8, 15);
     private final int batchSize = 10;
+    private final Map<Long, NotificationRun> runsById = new HashMap<>();
 
     @BeforeEach
     void setUp() {
-        when(notificationPropertiesMock.getBatchSize()).thenReturn(batchSize);
+        lenient().when(notificationPropertiesMock.getBatchSize()).thenReturn(batchSize);
+        lenient().when(notificationRunServiceMock.startRuns(eq(testDate), anyList())).thenAnswer(invocation -> {
+            List<long[]> bounds = invocation.getArgument(1);
+            List<NotificationRun> runs = new ArrayList<>();
+            for (long[] partitionBounds : bounds) {
+                runs.add(createRun(runs.size() + 1L, runs.size(), partitionBounds[0], partitionBounds[1],
+                        partitionBounds[0], NotificationRunState.PENDING));
+            }
+            return runs;
+        });
+        lenient().when(notificationRunServiceMock.claim(anyLong()))
+                .thenAnswer(invocation -> Optional.ofNullable(runsById.get(invocation.<Long>getArgument(0))));
+        lenient().when(notificationRunServiceMock.checkpoint(anyLong(), anyLong(), any(NotificationBatchResult.class))).thenReturn(true);
     }
 
     @Test
@@ -322,4 +378,562 @@ class NotificationBatchServiceTest {
                 PageRequest.of(0, customBatchSize)
         );
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldProcessBatchAfterClientIdAndReturnCursor() throws ExecutionException, InterruptedException {
+        //given
+        Object[] row1 = {3L, "user1@example.com", 101L};
+        Object[] row2 = {3L, "user1@example.com", 102L};
+        Object[] row3 = {7L, "user2@example.com", 102L};
+        when(subscriptionServiceMock.findDigestRowsForDateAfterClient(testDate, 0L, Long.MAX_VALUE, batchSize))
+                .thenReturn(Arrays.asList(row1, row2, row3));
+        when(digestRendererMock.render(testDate, List.of(101L, 102L)))
+                .thenReturn(new RenderedDigest("Book 1\nBook 2", "<li>Book 1</li><li>Book 2</li>"));
+        when(digestRendererMock.render(testDate, List.of(102L)))
+                .thenReturn(new RenderedDigest("Book 2", "<li>Book 2</li>"));
+        stubPublishBatchAcksAll();
+
+        //when
+        NotificationBatchResult result = notificationBatchService.processBatchAfter(testDate, 0L, Long.MAX_VALUE).get();
+
+        //then
+        assertThat(result.getFetchedCount()).isEqualTo(2);
+        assertThat(result.getProcessedCount()).isEqualTo(2);
+        assertThat(result.getFailedCount()).isEqualTo(0);
+        assertThat(result.getLastClientId()).isEqualTo(7L);
+
+        verify(emailProducerMock).publishBatch(messagesCaptor.capture());
+        List<EmailMessage> messages = messagesCaptor.getValue();
+        assertThat(messages).extracting(EmailMessage::getTo).containsExactly("user1@example.com", "user2@example.com");
+        assertThat(messages.get(0).getSubject()).isEqualTo("New books in the library - 2025-08-15");
+        assertThat(messages.get(0).getContent()).isEqualTo("Book 1\nBook 2");
+        assertThat(messages.get(0).getHtmlContent()).isEqualTo("<li>Book 1</li><li>Book 2</li>");
+        assertThat(messages.get(0).getType()).isEqualTo(EmailMessage.EmailType.NEW_BOOK_NOTIFICATION);
+        verify(emailProducerMock, never()).sendDailyBookList(anyString(), anyString(), anyString());
+        verify(notificationMetricsMock).recordDigestQuery(eq("keyset"), anyLong());
+        verify(notificationMetricsMock).recordBatch(eq("keyset"), anyLong());
+    }
+
+    @Test
+    void shouldPublishDigestKeysInsteadOfBodiesInClaimCheckMode() throws ExecutionException, InterruptedException {
+        //given
+        when(notificationPropertiesMock.getPayloadMode()).thenReturn(NotificationProperties.PayloadMode.CLAIM_CHECK);
+        when(subscriptionServiceMock.findDigestRowsForDateAfterClient(testDate, 0L, Long.MAX_VALUE, batchSize))
+                .thenReturn(Arrays.asList(new Object[]{3L, "user1@example.com", 101L},
+                        new Object[]{7L, "user2@example.com", 101L}));
+        RenderedDigest shared = new RenderedDigest("Book 1", "<li>Book 1</li>");
+        when(digestRendererMock.render(testDate, List.of(101L))).thenReturn(shared);
+        when(digestBodyStoreMock.storeAll(eq(testDate), anyList())).thenReturn(List.of("key-1", "key-1"));
+        stubPublishBatchAcksAll();
+
+        //when
+        NotificationBatchResult result = notificationBatchService.processBatchAfter(testDate, 0L, Long.MAX_VALUE).get();
+
+        //then
+        assertThat(result.getProcessedCount()).isEqualTo(2);
+        verify(digestBodyStoreMock).storeAll(eq(testDate), bodiesCaptor.capture());
+        assertThat(bodiesCaptor.getValue()).extracting(RenderedDigest::getText).containsExactly("Book 1", "Book 1");
+
+        verify(emailProducerMock).publishBatch(messagesCaptor.capture());
+        assertThat(messagesCaptor.getValue()).allSatisfy(message -> {
+            assertThat(message.getDigestKey()).isEqualTo("key-1");
+            assertThat(message.getContent()).isNull();
+            assertThat(message.getHtmlContent()).isNull();
+        });
+    }
+
+    @Test
+    void shouldRetryUnconfirmedMessagesOnceInKeysetBatch() throws ExecutionException, InterruptedException {
+        //given
+        Object[] row1 = {3L, "flaky@example.com", 103L};
+        Object[] row2 = {7L, "success@example.com", 107L};
+        when(subscriptionServiceMock.findDigestRowsForDateAfterClient(testDate, 0L, Long.MAX_VALUE, batchSize))
+                .thenReturn(Arrays.asList(row1, row2));
+        stubDigestRenderer();
+        when(emailProducerMock.publishBatch(anyList()))
+                .thenAnswer(invocation -> {
+                    List<EmailMessage> messages = invocation.getArgument(0);
+                    return new BatchPublishResult(1, List.of(messages.get(0)));
+                })
+                .thenAnswer(invocation -> new BatchPublishResult(1, List.of()));
+
+        //when
+        NotificationBatchResult result = notificationBatchService.processBatchAfter(testDate, 0L, Long.MAX_VALUE).get();
+
+        //then
+        assertThat(result.getProcessedCount()).isEqualTo(2);
+        assertThat(result.getFailedCount()).isEqualTo(0);
+        assertThat(result.getUnconfirmedCount()).isEqualTo(0);
+        assertThat(result.getLastClientId()).isEqualTo(7L);
+        verify(emailProducerMock).publishBatch(argThat(messages -> messages.size() == 1
+                && messages.get(0).getTo().equals("flaky@example.com")));
+    }
+
+    @Test
+    void shouldNotMoveCursorPastFirstUnconfirmedRecipient() throws ExecutionException, InterruptedException {
+        //given
+        Object[] row1 = {3L, "success@example.com", 103L};
+        Object[] row2 = {7L, "failing@example.com", 107L};
+        Object[] row3 = {9L, "another@example.com", 109L};
+        when(subscriptionServiceMock.findDigestRowsForDateAfterClient(testDate, 0L, Long.MAX_VALUE, batchSize))
+                .thenReturn(Arrays.asList(row1, row2, row3));
+        stubDigestRenderer();
+        when(emailProducerMock.publishBatch(anyList())).thenAnswer(invocation -> {
+            List<EmailMessage> messages = invocation.getArgument(0);
+            List<EmailMessage> failed = messages.stream()
+                    .filter(message -> message.getTo().equals("failing@example.com"))
+                    .toList();
+            return new BatchPublishResult(messages.size() - failed.size(), failed);
+        });
+
+        //when
+        NotificationBatchResult result = notificationBatchService.processBatchAfter(testDate, 0L, Long.MAX_VALUE).get();
+
+        //then
+        assertThat(result.getFetchedCount()).isEqualTo(3);
+        assertThat(result.getProcessedCount()).isEqualTo(2);
+        assertThat(result.getFailedCount()).isEqualTo(1);
+        assertThat(result.getUnconfirmedCount()).isEqualTo(1);
+        assertThat(result.getLastClientId()).isEqualTo(6L);
+        verify(emailProducerMock, times(2)).publishBatch(anyList());
+    }
+
+    @Test
+    void shouldResumePartitionBeforeUnconfirmedRecipient() {
+        //given
+        when(notificationPropertiesMock.getPagingMode()).thenReturn(NotificationProperties.PagingMode.KEYSET);
+        stubDigestRenderer();
+        when(subscriptionServiceMock.findDigestRowsForDateAfterClient(testDate, 0L, Long.MAX_VALUE, batchSize))
+                .thenReturn(Arrays.asList(new Object[]{3L, "success@example.com", 103L},
+                        new Object[]{7L, "failing@example.com", 107L}));
+        when(subscriptionServiceMock.findDigestRowsForDateAfterClient(testDate, 6L, Long.MAX_VALUE, batchSize))
+                .thenReturn(Collections.singletonList(new Object[]{7L, "failing@example.com", 107L}));
+        when(emailProducerMock.publishBatch(anyList()))
+                .thenAnswer(invocation -> new BatchPublishResult(1, List.of(invocation.<List<EmailMessage>>getArgument(0).get(1))))
+                .thenAnswer(invocation -> new BatchPublishResult(0, invocation.getArgument(0)))
+                .thenAnswer(invocation -> new BatchPublishResult(1, List.of()));
+
+        //when
+        notificationBatchService.processAllNotifications(testDate);
+
+        //then
+        verify(notificationRunServiceMock).checkpoint(eq(1L), eq(0L), batchResult(6L, 1, 1));
+        verify(notificationRunServiceMock).checkpoint(eq(1L), eq(6L), batchResult(7L, 1, 0));
+        verify(notificationRunServiceMock).complete(1L);
+    }
+
+    @Test
+    void shouldFailPartitionWhenBrokerKeepsRejectingFirstRecipient() {
+        //given
+        when(notificationPropertiesMock.getPagingMode()).thenReturn(NotificationProperties.PagingMode.KEYSET);
+        stubDigestRenderer();
+        when(subscriptionServiceMock.findDigestRowsForDateAfterClient(eq(testDate), anyLong(), eq(Long.MAX_VALUE), eq(batchSize)))
+                .thenReturn(Collections.singletonList(new Object[]{3L, "failing@example.com", 103L}));
+        when(emailProducerMock.publishBatch(anyList()))
+                .thenAnswer(invocation -> new BatchPublishResult(0, invocation.getArgument(0)));
+
+        //when
+        assertThatCode(() -> notificationBatchService.processAllNotifications(testDate))
+                .doesNotThrowAnyException();
+
+        //then
+        verify(notificationRunServiceMock).checkpoint(eq(1L), eq(0L), batchResult(2L, 0, 1));
+        verify(notificationRunServiceMock).checkpoint(eq(1L), eq(2L), batchResult(2L, 0, 1));
+        verify(notificationRunServiceMock).fail(1L, "Broker did not confirm the daily book list after client id 2");
+        verify(notificationRunServiceMock, never()).complete(anyLong());
+    }
+
+    @Test
+    void shouldCountRenderingFailuresAndKeepCursorMoving() throws ExecutionException, InterruptedException {
+        //given
+        Object[] row1 = {3L, "broken@example.com", 103L};
+        Object[] row2 = {7L, "success@example.com", 107L};
+        when(subscriptionServiceMock.findDigestRowsForDateAfterClient(testDate, 0L, Long.MAX_VALUE, batchSize))
+                .thenReturn(Arrays.asList(row1, row2));
+        when(digestRendererMock.render(testDate, List.of(103L))).thenThrow(new RuntimeException("Rendering failed"));
+        when(digestRendererMock.render(testDate, List.of(107L))).thenReturn(new RenderedDigest("Book 7", "<li>Book 7</li>"));
+        stubPublishBatchAcksAll();
+
+        //when
+        NotificationBatchResult result = notificationBatchService.processBatchAfter(testDate, 0L, Long.MAX_VALUE).get();
+
+        //then
+        assertThat(result.getFetchedCount()).isEqualTo(2);
+        assertThat(result.getProcessedCount()).isEqualTo(1);
+        assertThat(result.getFailedCount()).isEqualTo(1);
+        assertThat(result.getLastClientId()).isEqualTo(7L);
+        verify(emailProducerMock).publishBatch(argThat(messages -> messages.size() == 1));
+    }
+
+    @Test
+    void shouldProcessAllNotificationsWithKeysetPaging() {
+        //given
+        when(notificationPropertiesMock.getPagingMode()).thenReturn(NotificationProperties.PagingMode.KEYSET);
+        stubPublishBatchAcksAll();
+        stubDigestRenderer();
+        List<Object[]> firstBatch = new ArrayList<>();
+        for (long id = 1; id <= batchSize; id++) {
+            firstBatch.add(new Object[]{id, "user" + id + "@example.com", 100 + id});
+        }
+        List<Object[]> secondBatch = Collections.singletonList(new Object[]{42L, "user42@example.com", 1042L});
+
+        when(subscriptionServiceMock.findDigestRowsForDateAfterClient(testDate, 0L, Long.MAX_VALUE, batchSize))
+                .thenReturn(firstBatch);
+        when(subscriptionServiceMock.findDigestRowsForDateAfterClient(testDate, 10L, Long.MAX_VALUE, batchSize))
+                .thenReturn(secondBatch);
+
+        //when
+        assertThatCode(() -> notificationBatchService.processAllNotifications(testDate))
+                .doesNotThrowAnyException();
+
+        //then
+        verify(subscriptionServiceMock).findDigestRowsForDateAfterClient(testDate, 0L, Long.MAX_VALUE, batchSize);
+        verify(subscriptionServiceMock).findDigestRowsForDateAfterClient(testDate, 10L, Long.MAX_VALUE, batchSize);
+        verify(subscriptionServiceMock, never()).findEmailsAndBooksForDatePaginated(any(), any());
+        verify(emailProducerMock, times(2)).publishBatch(anyList());
+    }
+
+    @Test
+    void shouldStopKeysetProcessingWhenBatchThrowsException() {
+        //given
+        when(notificationPropertiesMock.getPagingMode()).thenReturn(NotificationProperties.PagingMode.KEYSET);
+        when(subscriptionServiceMock.findDigestRowsForDateAfterClient(eq(testDate), anyLong(), anyLong(), anyInt()))
+                .thenThrow(new RuntimeException("Database connection failed"));
+
+        //when
+        assertThatCode(() -> notificationBatchService.processAllNotifications(testDate))
+                .doesNotThrowAnyException();
+
+        //then
+        verify(subscriptionServiceMock, times(1)).findDigestRowsForDateAfterClient(eq(testDate), anyLong(), anyLong(), anyInt());
+    }
+
+    @Test
+    void shouldProcessPartitionsConcurrentlyOnNotificationExecutor() {
+        //given
+        when(notificationPropertiesMock.getParallelism()).thenReturn(2);
+        when(clientServiceMock.findVerifiedClientIdRange()).thenReturn(Optional.of(new ClientIdRange(1L, 100L)));
+        doAnswer(invocation -> {
+            ((Runnable) invocation.getArgument(0)).run();
+            return null;
+        }).when(notificationExecutorMock).execute(any(Runnable.class));
+        stubPublishBatchAcksAll();
+        stubDigestRenderer();
+
+        when(subscriptionServiceMock.findDigestRowsForDateAfterClient(testDate, 0L, 50L, batchSize))
+                .thenReturn(Collections.singletonList(new Object[]{7L, "user7@example.com", 107L}));
+        when(subscriptionServiceMock.findDigestRowsForDateAfterClient(testDate, 50L, 100L, batchSize))
+                .thenReturn(Collections.singletonList(new Object[]{77L, "user77@example.com", 1077L}));
+
+        //when
+        assertThatCode(() -> notificationBatchService.processAllNotifications(testDate))
+                .doesNotThrowAnyException();
+
+        //then
+        verify(notificationExecutorMock, times(2)).execute(any(Runnable.class));
+        verify(emailProducerMock).publishBatch(argThat(messages -> messages.get(0).getTo().equals("user7@example.com")));
+        verify(emailProducerMock).publishBatch(argThat(messages -> messages.get(0).getTo().equals("user77@example.com")));
+    }
+
+    @Test
+    void shouldContinueOtherPartitionsWhenOnePartitionFails() {
+        //given
+        when(notificationPropertiesMock.getParallelism()).thenReturn(2);
+        when(clientServiceMock.findVerifiedClientIdRange()).thenReturn(Optional.of(new ClientIdRange(1L, 100L)));
+        doAnswer(invocation -> {
+            ((Runnable) invocation.getArgument(0)).run();
+            return null;
+        }).when(notificationExecutorMock).execute(any(Runnable.class));
+        stubPublishBatchAcksAll();
+        stubDigestRenderer();
+
+        when(subscriptionServiceMock.findDigestRowsForDateAfterClient(testDate, 0L, 50L, batchSize))
+                .thenThrow(new RuntimeException("Database connection failed"));
+        when(subscriptionServiceMock.findDigestRowsForDateAfterClient(testDate, 50L, 100L, batchSize))
+                .thenReturn(Collections.singletonList(new Object[]{77L, "user77@example.com", 1077L}));
+
+        //when
+        assertThatCode(() -> notificationBatchService.processAllNotifications(testDate))
+                .doesNotThrowAnyException();
+
+        //then
+        verify(emailProducerMock).publishBatch(argThat(messages -> messages.get(0).getTo().equals("user77@example.com")));
+    }
+
+    @Test
+    void shouldSkipPartitionedRunWhenNoVerifiedClients() {
+        //given
+        when(notificationPropertiesMock.getParallelism()).thenReturn(4);
+        when(clientServiceMock.findVerifiedClientIdRange()).thenReturn(Optional.empty());
+
+        //when
+        assertThatCode(() -> notificationBatchService.processAllNotifications(testDate))
+                .doesNotThrowAnyException();
+
+        //then
+        verify(notificationExecutorMock, never()).execute(any(Runnable.class));
+        verify(subscriptionServiceMock, never()).findDigestRowsForDateAfterClient(any(), anyLong(), anyLong(), anyInt());
+    }
+
+    @Test
+    void shouldRecordKeysetRunInLedgerAndCheckpointEveryBatch() {
+        //given
+        when(notificationPropertiesMock.getPagingMode()).thenReturn(NotificationProperties.PagingMode.KEYSET);
+        stubPublishBatchAcksAll();
+        stubDigestRenderer();
+        List<Object[]> firstBatch = new ArrayList<>();
+        for (long id = 1; id <= batchSize; id++) {
+            firstBatch.add(new Object[]{id, "user" + id + "@example.com", 100 + id});
+        }
+        when(subscriptionServiceMock.findDigestRowsForDateAfterClient(testDate, 0L, Long.MAX_VALUE, batchSize))
+                .thenReturn(firstBatch);
+        when(subscriptionServiceMock.findDigestRowsForDateAfterClient(testDate, 10L, Long.MAX_VALUE, batchSize))
+                .thenReturn(Collections.singletonList(new Object[]{42L, "user42@example.com", 1042L}));
+
+        //when
+        notificationBatchService.processAllNotifications(testDate);
+
+        //then
+        verify(notificationRunServiceMock).startRuns(eq(testDate), boundsCaptor.capture());
+        assertThat(boundsCaptor.getValue()).containsExactly(new long[]{0L, Long.MAX_VALUE});
+        verify(notificationRunServiceMock).claim(1L);
+        verify(notificationRunServiceMock).checkpoint(eq(1L), eq(0L), batchResult(10L, batchSize, 0));
+        verify(notificationRunServiceMock).checkpoint(eq(1L), eq(10L), batchResult(42L, 1, 0));
+        verify(notificationRunServiceMock).complete(1L);
+        verify(notificationRunServiceMock, never()).fail(anyLong(), any());
+    }
+
+    @Test
+    void shouldResumeExistingRunFromLastCheckpoint() {
+        //given
+        when(notificationRunServiceMock.findRuns(testDate)).thenReturn(List.of(
+                createRun(5L, 0, 0L, 50L, 50L, NotificationRunState.COMPLETED),
+                createRun(6L, 1, 50L, 100L, 73L, NotificationRunState.RUNNING)));
+        stubPublishBatchAcksAll();
+        stubDigestRenderer();
+        when(subscriptionServiceMock.findDigestRowsForDateAfterClient(testDate, 73L, 100L, batchSize))
+                .thenReturn(Collections.singletonList(new Object[]{77L, "user77@example.com", 1077L}));
+
+        //when
+        notificationBatchService.processAllNotifications(testDate);
+
+        //then
+        verify(subscriptionServiceMock).findDigestRowsForDateAfterClient(testDate, 73L, 100L, batchSize);
+        verify(subscriptionServiceMock, times(1)).findDigestRowsForDateAfterClient(any(), anyLong(), anyLong(), anyInt());
+        verify(notificationRunServiceMock, never()).startRuns(any(), anyList());
+        verify(notificationRunServiceMock, never()).claim(5L);
+        verify(notificationRunServiceMock).checkpoint(eq(6L), eq(73L), batchResult(77L, 1, 0));
+        verify(notificationRunServiceMock).complete(6L);
+        verifyNoInteractions(clientServiceMock);
+    }
+
+    @Test
+    void shouldNotReprocessCompletedRun() {
+        //given
+        when(notificationRunServiceMock.findRuns(testDate)).thenReturn(List.of(
+                createRun(5L, 0, 0L, Long.MAX_VALUE, 42L, NotificationRunState.COMPLETED)));
+
+        //when
+        notificationBatchService.processAllNotifications(testDate);
+
+        //then
+        verifyNoInteractions(subscriptionServiceMock, emailProducerMock);
+        verify(notificationRunServiceMock, never()).claim(anyLong());
+    }
+
+    @Test
+    void shouldRecordFailedRunAndKeepCheckpointOfPublishedBatches() {
+        //given
+        when(notificationPropertiesMock.getPagingMode()).thenReturn(NotificationProperties.PagingMode.KEYSET);
+        stubPublishBatchAcksAll();
+        stubDigestRenderer();
+        List<Object[]> firstBatch = new ArrayList<>();
+        for (long id = 1; id <= batchSize; id++) {
+            firstBatch.add(new Object[]{id, "user" + id + "@example.com", 100 + id});
+        }
+        when(subscriptionServiceMock.findDigestRowsForDateAfterClient(testDate, 0L, Long.MAX_VALUE, batchSize))
+                .thenReturn(firstBatch);
+        when(subscriptionServiceMock.findDigestRowsForDateAfterClient(testDate, 10L, Long.MAX_VALUE, batchSize))
+                .thenThrow(new RuntimeException("Database connection failed"));
+
+        //when
+        assertThatCode(() -> notificationBatchService.processAllNotifications(testDate))
+                .doesNotThrowAnyException();
+
+        //then
+        verify(notificationRunServiceMock).checkpoint(eq(1L), eq(0L), batchResult(10L, batchSize, 0));
+        verify(notificationRunServiceMock).fail(1L, "Database connection failed");
+        verify(notificationRunServiceMock, never()).complete(anyLong());
+    }
+
+    @Test
+    void shouldResumeEveryUnfinishedRunDate() {
+        //given
+        LocalDate earlierDate = testDate.minusDays(1);
+        when(notificationRunServiceMock.findUnfinishedRunDates()).thenReturn(List.of(earlierDate));
+        when(notificationRunServiceMock.findRuns(earlierDate)).thenReturn(List.of(
+                createRun(3L, 0, 0L, Long.MAX_VALUE, 20L, NotificationRunState.FAILED)));
+        when(subscriptionServiceMock.findDigestRowsForDateAfterClient(earlierDate, 20L, Long.MAX_VALUE, batchSize))
+                .thenReturn(Collections.emptyList());
+        when(emailProducerMock.publishBatch(anyList())).thenReturn(new BatchPublishResult(0, List.of()));
+
+        //when
+        notificationBatchService.resumeUnfinishedRuns();
+
+        //then
+        verify(subscriptionServiceMock).findDigestRowsForDateAfterClient(earlierDate, 20L, Long.MAX_VALUE, batchSize);
+        verify(notificationRunServiceMock).complete(3L);
+    }
+
+    @Test
+    void shouldSplitRunIntoShardCountPartitionsWithoutLocalParallelism() {
+        //given
+        when(notificationPropertiesMock.getParallelism()).thenReturn(1);
+        when(notificationPropertiesMock.getShardCount()).thenReturn(3);
+        when(clientServiceMock.findVerifiedClientIdRange()).thenReturn(Optional.of(new ClientIdRange(1L, 90L)));
+        when(subscriptionServiceMock.findDigestRowsForDateAfterClient(eq(testDate), anyLong(), anyLong(), eq(batchSize)))
+                .thenReturn(Collections.emptyList());
+        when(emailProducerMock.publishBatch(anyList())).thenReturn(new BatchPublishResult(0, List.of()));
+
+        //when
+        notificationBatchService.processAllNotifications(testDate);
+
+        //then
+        verify(subscriptionServiceMock).findDigestRowsForDateAfterClient(testDate, 0L, 30L, batchSize);
+        verify(subscriptionServiceMock).findDigestRowsForDateAfterClient(testDate, 30L, 60L, batchSize);
+        verify(subscriptionServiceMock).findDigestRowsForDateAfterClient(testDate, 60L, 90L, batchSize);
+        verify(notificationExecutorMock, never()).execute(any(Runnable.class));
+    }
+
+    @Test
+    void shouldSkipPartitionLeasedByAnotherNode() {
+        //given
+        NotificationRun leased = createRun(5L, 0, 0L, 50L, 10L, NotificationRunState.RUNNING);
+        NotificationRun free = createRun(6L, 1, 50L, 100L, 50L, NotificationRunState.PENDING);
+        when(notificationRunServiceMock.findRuns(testDate)).thenReturn(List.of(leased, free));
+        when(notificationRunServiceMock.claim(5L)).thenReturn(Optional.empty());
+        when(subscriptionServiceMock.findDigestRowsForDateAfterClient(testDate, 50L, 100L, batchSize))
+                .thenReturn(Collections.emptyList());
+        when(emailProducerMock.publishBatch(anyList())).thenReturn(new BatchPublishResult(0, List.of()));
+
+        //when
+        notificationBatchService.processAllNotifications(testDate);
+
+        //then
+        verify(subscriptionServiceMock, never()).findDigestRowsForDateAfterClient(testDate, 10L, 50L, batchSize);
+        verify(notificationRunServiceMock, never()).complete(5L);
+        verify(notificationRunServiceMock).complete(6L);
+    }
+
+    @Test
+    void shouldContinueFromCheckpointReadWhenClaimingRun() {
+        //given
+        when(notificationRunServiceMock.findRuns(testDate)).thenReturn(List.of(
+                createRun(6L, 0, 0L, 100L, 10L, NotificationRunState.RUNNING)));
+        when(notificationRunServiceMock.claim(6L)).thenReturn(Optional.of(
+                createRun(6L, 0, 0L, 100L, 40L, NotificationRunState.RUNNING)));
+        when(subscriptionServiceMock.findDigestRowsForDateAfterClient(testDate, 40L, 100L, batchSize))
+                .thenReturn(Collections.emptyList());
+        when(emailProducerMock.publishBatch(anyList())).thenReturn(new BatchPublishResult(0, List.of()));
+
+        //when
+        notificationBatchService.processAllNotifications(testDate);
+
+        //then
+        verify(subscriptionServiceMock).findDigestRowsForDateAfterClient(testDate, 40L, 100L, batchSize);
+        verify(subscriptionServiceMock, never()).findDigestRowsForDateAfterClient(testDate, 10L, 100L, batchSize);
+    }
+
+    @Test
+    void shouldStopPartitionWhenLeaseIsLost() {
+        //given
+        when(notificationPropertiesMock.getPagingMode()).thenReturn(NotificationProperties.PagingMode.KEYSET);
+        stubPublishBatchAcksAll();
+        stubDigestRenderer();
+        List<Object[]> firstBatch = new ArrayList<>();
+        for (long id = 1; id <= batchSize; id++) {
+            firstBatch.add(new Object[]{id, "user" + id + "@example.com", 100 + id});
+        }
+        when(subscriptionServiceMock.findDigestRowsForDateAfterClient(testDate, 0L, Long.MAX_VALUE, batchSize))
+                .thenReturn(firstBatch);
+        when(notificationRunServiceMock.checkpoint(eq(1L), eq(0L), batchResult(10L, batchSize, 0))).thenReturn(false);
+
+        //when
+        notificationBatchService.processAllNotifications(testDate);
+
+        //then
+        verify(subscriptionServiceMock, times(1)).findDigestRowsForDateAfterClient(any(), anyLong(), anyLong(), anyInt());
+        verify(notificationRunServiceMock, never()).complete(anyLong());
+        verify(notificationRunServiceMock, never()).fail(anyLong(), any());
+    }
+
+    @Test
+    void shouldJoinRunStartedConcurrentlyByAnotherNode() {
+        //given
+        when(notificationPropertiesMock.getPagingMode()).thenReturn(NotificationProperties.PagingMode.KEYSET);
+        NotificationRun started = createRun(9L, 0, 0L, Long.MAX_VALUE, 0L, NotificationRunState.RUNNING);
+        when(notificationRunServiceMock.findRuns(testDate)).thenReturn(List.of(), List.of(started));
+        when(notificationRunServiceMock.startRuns(eq(testDate), anyList()))
+                .thenThrow(new DataIntegrityViolationException("uk_notification_run_partition"));
+        when(notificationRunServiceMock.claim(9L)).thenReturn(Optional.empty());
+
+        //when
+        assertThatCode(() -> notificationBatchService.processAllNotifications(testDate))
+                .doesNotThrowAnyException();
+
+        //then
+        verify(notificationRunServiceMock).claim(9L);
+        verifyNoInteractions(subscriptionServiceMock);
+    }
+
+    @Test
+    void shouldLeaveFailedRunsToDailyJobWhenReclaimingAbandonedPartitions() {
+        //given
+        when(notificationRunServiceMock.findInterruptedRunDates()).thenReturn(List.of(testDate));
+        when(notificationRunServiceMock.findRuns(testDate)).thenReturn(List.of(
+                createRun(5L, 0, 0L, 50L, 20L, NotificationRunState.FAILED),
+                createRun(6L, 1, 50L, 100L, 60L, NotificationRunState.RUNNING)));
+        when(subscriptionServiceMock.findDigestRowsForDateAfterClient(testDate, 60L, 100L, batchSize))
+                .thenReturn(Collections.emptyList());
+        when(emailProducerMock.publishBatch(anyList())).thenReturn(new BatchPublishResult(0, List.of()));
+
+        //when
+        notificationBatchService.resumeAbandonedRuns();
+
+        //then
+        verify(notificationRunServiceMock, never()).claim(5L);
+        verify(notificationRunServiceMock).complete(6L);
+    }
+
+    private NotificationRun createRun(Long id, int partition, long from, long to, long last, NotificationRunState state) {
+        NotificationRun run = NotificationRun.builder()
+                .id(id)
+                .runDate(testDate)
+                .partitionIndex(partition)
+                .fromClientId(from)
+                .toClientId(to)
+                .lastClientId(last)
+                .state(state)
+                .build();
+        runsById.put(id, run);
+        return run;
+    }
+
+    private void stubDigestRenderer() {
+        when(digestRendererMock.render(eq(testDate), anyList()))
+                .thenAnswer(invocation -> new RenderedDigest("Books " + invocation.getArgument(1), "<ul></ul>"));
+    }
+
+    private void stubPublishBatchAcksAll() {
+        when(emailProducerMock.publishBatch(anyList())).thenAnswer(invocation -> {
+            List<EmailMessage> messages = invocation.getArgument(0);
+            return new BatchPublishResult(messages.size(), List.of());
+        });
+    }
+
+    private static NotificationBatchResult batchResult(long lastClientId, int processedCount, int failedCount) {
+        return argThat(result -> result.getLastClientId() == lastClientId
+                && result.getProcessedCount() == processedCount
+                && result.getFailedCount() == failedCount);
+    }
+}
@@ -0,0 +1,162 @@
+package pl.kurs.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mapstruct.factory.Mappers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import pl.kurs.dto.NotificationPartitionReportDto;
+import pl.kurs.dto.NotificationRunReportDto;
+import pl.kurs.dto.NotificationRunSummaryDto;
+import pl.kurs.entity.NotificationRun;
+import pl.kurs.entity.NotificationRunBatch;
+import pl.kurs.entity.NotificationRunState;
+import pl.kurs.exception.ResourceNotFoundException;
+import pl.kurs.mapper.NotificationRunMapper;
+import pl.kurs.repository.NotificationRunBatchRepository;
+import pl.kurs.repository.NotificationRunRepository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationRunReportServiceTest {
+
+    @Mock
+    private NotificationRunRepository notificationRunRepositoryMock;
+
+    @Mock
+    private NotificationRunBatchRepository notificationRunBatchRepositoryMock;
+
+    @Spy
+    private NotificationRunMapper notificationRunMapper = Mappers.getMapper(NotificationRunMapper.class);
+
+    @InjectMocks
+    private NotificationRunReportService notificationRunReportService;
+
+    private final LocalDate testDate = LocalDate.of(2025, 8, 15);
+    private final LocalDateTime startedAt = LocalDateTime.of(2025, 8, 16, 0, 0);
+
+    @Test
+    void shouldReportPartitionsWithTheirBatchTimings() {
+        //given
+        when(notificationRunRepositoryMock.findByRunDateOrderByPartitionIndex(testDate)).thenReturn(List.of(
+                createRun(1L, 0, NotificationRunState.COMPLETED, 1000, startedAt.plusMinutes(4)),
+                createRun(2L, 1, NotificationRunState.FAILED, 400, startedAt.plusMinutes(7))));
+        when(notificationRunBatchRepositoryMock.findByRunIdInOrderById(List.of(1L, 2L))).thenReturn(List.of(
+                createBatch(1L, 0L, 500L, 30, 10, 50),
+                createBatch(1L, 500L, 1000L, 45, 12, 60),
+                createBatch(2L, 1000L, 1400L, 300, 8, 40)));
+
+        //when
+        NotificationRunReportDto report = notificationRunReportService.findRun(testDate);
+
+        //then
+        NotificationRunSummaryDto summary = report.getSummary();
+        assertThat(summary.getState()).isEqualTo("FAILED");
+        assertThat(summary.getPartitionCount()).isEqualTo(2);
+        assertThat(summary.getCompletedPartitions()).isEqualTo(1);
+        assertThat(summary.getFailedPartitions()).isEqualTo(1);
+        assertThat(summary.getProcessedCount()).isEqualTo(1400);
+        assertThat(summary.getBatchCount()).isEqualTo(3);
+        assertThat(summary.getQueryTimeMs()).isEqualTo(375);
+        assertThat(summary.getRenderTimeMs()).isEqualTo(30);
+        assertThat(summary.getPublishTimeMs()).isEqualTo(150);
+        assertThat(summary.getStartedAt()).isEqualTo(startedAt);
+        assertThat(summary.getUpdatedAt()).isEqualTo(startedAt.plusMinutes(7));
+
+        assertThat(report.getPartitions()).extracting(NotificationPartitionReportDto::getPartitionIndex)
+                .containsExactly(0, 1);
+        assertThat(report.getPartitions().get(0).getBatches()).hasSize(2);
+        assertThat(report.getPartitions().get(1).getError()).isEqualTo("boom");
+        assertThat(report.getPartitions().get(1).getBatches().get(0).getQueryTimeMs()).isEqualTo(300);
+    }
+
+    @Test
+    void shouldThrowWhenNoRunWasRecordedForDate() {
+        //given
+        when(notificationRunRepositoryMock.findByRunDateOrderByPartitionIndex(testDate)).thenReturn(List.of());
+
+        //when //then
+        assertThatThrownBy(() -> notificationRunReportService.findRun(testDate))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessageContaining("2025-08-15");
+    }
+
+    @Test
+    void shouldSummarizeRecentRunsPerDate() {
+        //given
+        LocalDate earlierDate = testDate.minusDays(1);
+        when(notificationRunRepositoryMock.findRecentRunDates(any(Pageable.class))).thenReturn(List.of(testDate, earlierDate));
+        NotificationRun running = createRun(3L, 0, NotificationRunState.RUNNING, 200, startedAt.plusMinutes(1));
+        NotificationRun pending = createRun(4L, 1, NotificationRunState.PENDING, 0, startedAt);
+        NotificationRun earlier = createRun(1L, 0, NotificationRunState.COMPLETED, 900, startedAt.minusDays(1).plusMinutes(3));
+        earlier.setRunDate(earlierDate);
+        when(notificationRunRepositoryMock.findByRunDateInOrderByRunDateDescPartitionIndex(List.of(testDate, earlierDate)))
+                .thenReturn(List.of(running, pending, earlier));
+        when(notificationRunBatchRepositoryMock.summarizeByRunIds(anyList())).thenReturn(List.of(
+                new Object[]{3L, 1L, 20L, 5L, 30L, 60L},
+                new Object[]{1L, 2L, 80L, 10L, 70L, 170L}));
+
+        //when
+        List<NotificationRunSummaryDto> summaries = notificationRunReportService.findRecentRuns(30);
+
+        //then
+        assertThat(summaries).extracting(NotificationRunSummaryDto::getRunDate).containsExactly(testDate, earlierDate);
+        assertThat(summaries.get(0).getState()).isEqualTo("RUNNING");
+        assertThat(summaries.get(0).getBatchCount()).isEqualTo(1);
+        assertThat(summaries.get(0).getBatchTimeMs()).isEqualTo(60);
+        assertThat(summaries.get(1).getState()).isEqualTo("COMPLETED");
+        assertThat(summaries.get(1).getQueryTimeMs()).isEqualTo(80);
+        assertThat(summaries.get(1).getProcessedCount()).isEqualTo(900);
+    }
+
+    @Test
+    void shouldReturnEmptyListWhenNoRunsWereRecorded() {
+        //given
+        when(notificationRunRepositoryMock.findRecentRunDates(any(Pageable.class))).thenReturn(List.of());
+
+        //when
+        List<NotificationRunSummaryDto> summaries = notificationRunReportService.findRecentRuns(30);
+
+        //then
+        assertThat(summaries).isEmpty();
+    }
+
+    private NotificationRun createRun(Long id, int partition, NotificationRunState state, int processed,
+                                      LocalDateTime updatedAt) {
+        return NotificationRun.builder()
+                .id(id)
+                .runDate(testDate)
+                .partitionIndex(partition)
+                .state(state)
+                .processedCount(processed)
+                .error(state == NotificationRunState.FAILED ? "boom" : null)
+                .startedAt(startedAt)
+                .updatedAt(updatedAt)
+                .build();
+    }
+
+    private NotificationRunBatch createBatch(Long runId, long after, long last, long queryMs, long renderMs, long publishMs) {
+        return NotificationRunBatch.builder()
+                .runId(runId)
+                .afterClientId(after)
+                .lastClientId(last)
+                .queryTimeMs(queryMs)
+                .renderTimeMs(renderMs)
+                .publishTimeMs(publishMs)
+                .totalTimeMs(queryMs + renderMs + publishMs)
+                .recordedAt(startedAt)
+                .build();
+    }
+}
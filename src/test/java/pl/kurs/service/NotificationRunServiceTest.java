@@ -0,0 +1,197 @@
+package pl.kurs.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import pl.kurs.config.NotificationProperties;
+import pl.kurs.dto.NotificationBatchResult;
+import pl.kurs.entity.NotificationRun;
+import pl.kurs.entity.NotificationRunBatch;
+import pl.kurs.entity.NotificationRunState;
+import pl.kurs.repository.NotificationRunBatchRepository;
+import pl.kurs.repository.NotificationRunRepository;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationRunServiceTest {
+
+    @Mock
+    private NotificationRunRepository notificationRunRepositoryMock;
+
+    @Mock
+    private NotificationRunBatchRepository notificationRunBatchRepositoryMock;
+
+    @Mock
+    private NotificationProperties notificationPropertiesMock;
+
+    private NotificationRunService notificationRunService;
+
+    private final LocalDate testDate = LocalDate.of(2025, 8, 15);
+
+    @BeforeEach
+    void setUp() {
+        when(notificationPropertiesMock.getNodeId()).thenReturn("node-a");
+        when(notificationPropertiesMock.getLeaseDurationMs()).thenReturn(300000L);
+        when(notificationPropertiesMock.getRunBatchRetentionDays()).thenReturn(30);
+        notificationRunService = new NotificationRunService(notificationRunRepositoryMock,
+                notificationRunBatchRepositoryMock, notificationPropertiesMock);
+    }
+
+    @Test
+    void shouldStartPendingRunPerPartitionAtItsLowerBound() {
+        //given
+        when(notificationRunRepositoryMock.saveAllAndFlush(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        //when
+        List<NotificationRun> runs = notificationRunService.startRuns(testDate,
+                List.of(new long[]{0L, 50L}, new long[]{50L, 100L}));
+
+        //then
+        assertThat(runs).hasSize(2);
+        assertThat(runs).extracting(NotificationRun::getPartitionIndex).containsExactly(0, 1);
+        assertThat(runs).extracting(NotificationRun::getLastClientId).containsExactly(0L, 50L);
+        assertThat(runs).extracting(NotificationRun::getToClientId).containsExactly(50L, 100L);
+        assertThat(runs).allSatisfy(run -> {
+            assertThat(run.getRunDate()).isEqualTo(testDate);
+            assertThat(run.getState()).isEqualTo(NotificationRunState.PENDING);
+            assertThat(run.getProcessedCount()).isZero();
+        });
+    }
+
+    @Test
+    void shouldClaimRunWithLeaseAndReturnItsLatestCheckpoint() {
+        //given
+        NotificationRun run = NotificationRun.builder().id(3L).lastClientId(42L).build();
+        when(notificationRunRepositoryMock.claim(eq(3L), eq("node-a"), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(1);
+        when(notificationRunRepositoryMock.findById(3L)).thenReturn(Optional.of(run));
+
+        //when
+        Optional<NotificationRun> claimed = notificationRunService.claim(3L);
+
+        //then
+        assertThat(claimed).contains(run);
+        ArgumentCaptor<LocalDateTime> nowCaptor = ArgumentCaptor.forClass(LocalDateTime.class);
+        ArgumentCaptor<LocalDateTime> leaseCaptor = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(notificationRunRepositoryMock).claim(eq(3L), eq("node-a"), nowCaptor.capture(), leaseCaptor.capture());
+        assertThat(Duration.between(nowCaptor.getValue(), leaseCaptor.getValue())).isEqualTo(Duration.ofMinutes(5));
+    }
+
+    @Test
+    void shouldNotClaimRunLeasedByAnotherNode() {
+        //given
+        when(notificationRunRepositoryMock.claim(eq(3L), eq("node-a"), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(0);
+
+        //when
+        Optional<NotificationRun> claimed = notificationRunService.claim(3L);
+
+        //then
+        assertThat(claimed).isEmpty();
+        verify(notificationRunRepositoryMock, never()).findById(anyLong());
+    }
+
+    @Test
+    void shouldCheckpointCursorAndRenewLease() {
+        //given
+        when(notificationRunRepositoryMock.checkpoint(eq(3L), eq("node-a"), eq(42L), eq(10), eq(1),
+                any(LocalDateTime.class), any(LocalDateTime.class))).thenReturn(1);
+
+        //when
+        boolean renewed = notificationRunService.checkpoint(3L, 30L, createBatchResult());
+
+        //then
+        assertThat(renewed).isTrue();
+        ArgumentCaptor<NotificationRunBatch> batchCaptor = ArgumentCaptor.forClass(NotificationRunBatch.class);
+        verify(notificationRunBatchRepositoryMock).save(batchCaptor.capture());
+        NotificationRunBatch batch = batchCaptor.getValue();
+        assertThat(batch.getRunId()).isEqualTo(3L);
+        assertThat(batch.getOwner()).isEqualTo("node-a");
+        assertThat(batch.getAfterClientId()).isEqualTo(30L);
+        assertThat(batch.getLastClientId()).isEqualTo(42L);
+        assertThat(batch.getFetchedCount()).isEqualTo(11);
+        assertThat(batch.getQueryTimeMs()).isEqualTo(15);
+        assertThat(batch.getRenderTimeMs()).isEqualTo(4);
+        assertThat(batch.getPublishTimeMs()).isEqualTo(20);
+        assertThat(batch.getTotalTimeMs()).isEqualTo(40);
+    }
+
+    @Test
+    void shouldReportLostLeaseOnCheckpoint() {
+        //given
+        when(notificationRunRepositoryMock.checkpoint(anyLong(), anyString(), anyLong(), anyInt(), anyInt(),
+                any(LocalDateTime.class), any(LocalDateTime.class))).thenReturn(0);
+
+        //when
+        boolean renewed = notificationRunService.checkpoint(3L, 30L, createBatchResult());
+
+        //then
+        assertThat(renewed).isFalse();
+        verifyNoInteractions(notificationRunBatchRepositoryMock);
+    }
+
+    @Test
+    void shouldReleaseCompletedRun() {
+        //when
+        notificationRunService.complete(3L);
+
+        //then
+        verify(notificationRunRepositoryMock).release(eq(3L), eq("node-a"), eq(NotificationRunState.COMPLETED), isNull(),
+                any(LocalDateTime.class));
+    }
+
+    @Test
+    void shouldTruncateLongFailureMessage() {
+        //given
+        String error = "x".repeat(1500);
+
+        //when
+        notificationRunService.fail(3L, error);
+
+        //then
+        ArgumentCaptor<String> errorCaptor = ArgumentCaptor.forClass(String.class);
+        verify(notificationRunRepositoryMock).release(eq(3L), eq("node-a"), eq(NotificationRunState.FAILED),
+                errorCaptor.capture(), any(LocalDateTime.class));
+        assertThat(errorCaptor.getValue()).hasSize(1000);
+    }
+
+    @Test
+    void shouldFindDatesOfRunsThatAreNotCompleted() {
+        //given
+        when(notificationRunRepositoryMock.findRunDatesWithStateNot(NotificationRunState.COMPLETED))
+                .thenReturn(List.of(testDate));
+
+        //when
+        List<LocalDate> dates = notificationRunService.findUnfinishedRunDates();
+
+        //then
+        assertThat(dates).containsExactly(testDate);
+    }
+
+    @Test
+    void shouldPurgeBatchesRecordedBeforeRetention() {
+        //when
+        notificationRunService.purgeExpiredBatches();
+
+        //then
+        verify(notificationRunBatchRepositoryMock).deleteByRecordedAtBefore(LocalDate.now().minusDays(30).atStartOfDay());
+    }
+
+    private static NotificationBatchResult createBatchResult() {
+        return new NotificationBatchResult(11, 10, 1, 0, 42L, TimeUnit.MILLISECONDS.toNanos(15),
+                TimeUnit.MILLISECONDS.toNanos(4), TimeUnit.MILLISECONDS.toNanos(20), TimeUnit.MILLISECONDS.toNanos(40));
+    }
+}
@@ -0,0 +1,241 @@
+package pl.kurs.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import pl.kurs.config.ImportProperties;
+import pl.kurs.dto.SubscriptionBulkCancelResultDto;
+import pl.kurs.dto.SubscriptionBulkCreateResultDto;
+import pl.kurs.dto.SubscriptionKey;
+import pl.kurs.entity.SubscriptionType;
+import pl.kurs.repository.SubscriptionBulkRepository;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SubscriptionBulkServiceTest {
+
+    @Mock
+    private SubscriptionBulkRepository subscriptionBulkRepositoryMock;
+
+    @Mock
+    private SubscriptionIndexService subscriptionIndexServiceMock;
+
+    @Mock
+    private ClientService clientServiceMock;
+
+    @Mock
+    private AuthorService authorServiceMock;
+
+    @Mock
+    private CategoryService categoryServiceMock;
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Mock
+    private ImportProperties importPropertiesMock;
+
+    @Mock
+    private TransactionTemplate transactionTemplateMock;
+
+    @InjectMocks
+    private SubscriptionBulkService subscriptionBulkService;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(importPropertiesMock.getBatchSize()).thenReturn(2);
+        lenient().when(importPropertiesMock.getMaxReportedErrors()).thenReturn(100);
+        lenient().when(transactionTemplateMock.execute(any()))
+                .thenAnswer(invocation -> ((TransactionCallback<?>) invocation.getArgument(0)).doInTransaction(null));
+        lenient().when(categoryServiceMock.findIdByName(anyString())).thenReturn(Optional.empty());
+        lenient().when(categoryServiceMock.findIdByName("Fantasy")).thenReturn(Optional.of(3L));
+        lenient().when(authorServiceMock.internAuthors(anyCollection())).thenAnswer(invocation -> {
+            Collection<String> names = invocation.getArgument(0);
+            return names.stream().collect(Collectors.toMap(Function.identity(), name -> 100L));
+        });
+    }
+
+    @Test
+    void shouldCreateSubscriptionsInBatchesAndReportExistingOnes() {
+        //given
+        when(clientServiceMock.findVerificationStatusByIds(anyCollection())).thenReturn(Map.of(1L, true, 2L, true));
+        Set<SubscriptionKey> existing = new HashSet<>(Set.of(
+                new SubscriptionKey(2L, SubscriptionType.AUTHOR, "Tolkien")));
+        when(subscriptionBulkRepositoryMock.insertIgnoringExisting(anyList())).thenAnswer(invocation -> {
+            List<SubscriptionKey> keys = invocation.getArgument(0);
+            Set<SubscriptionKey> inserted = new HashSet<>();
+            keys.stream().filter(existing::add).forEach(inserted::add);
+            return inserted;
+        });
+        String json = """
+                [
+                  {"clientId": 1, "subscriptionType": "category", "subscriptionValue": "Fantasy"},
+                  {"clientId": 2, "subscriptionType": "AUTHOR", "subscriptionValue": "Tolkien"},
+                  {"clientId": 1, "subscriptionType": "AUTHOR", "subscriptionValue": "Tolkien"}
+                ]
+                """;
+
+        //when
+        SubscriptionBulkCreateResultDto result = subscriptionBulkService.createSubscriptions(stream(json));
+
+        //then
+        assertThat(result.getCreatedCount()).isEqualTo(2);
+        assertThat(result.getExistingCount()).isEqualTo(1);
+        assertThat(result.getRejectedCount()).isEqualTo(0);
+        verify(clientServiceMock, times(2)).findVerificationStatusByIds(anyCollection());
+        verify(subscriptionBulkRepositoryMock, times(2)).insertIgnoringExisting(anyList());
+        verify(subscriptionIndexServiceMock).onSubscriptionCreated(SubscriptionType.CATEGORY, 3L, 1L);
+        verify(subscriptionIndexServiceMock).onSubscriptionCreated(SubscriptionType.AUTHOR, 100L, 1L);
+        verify(subscriptionIndexServiceMock, never()).onSubscriptionCreated(SubscriptionType.AUTHOR, 100L, 2L);
+    }
+
+    @Test
+    void shouldRejectUnknownUnverifiedAndInvalidRowsWithoutInserting() {
+        //given
+        when(clientServiceMock.findVerificationStatusByIds(anyCollection())).thenReturn(Map.of(2L, false));
+        String json = """
+                [
+                  {"clientId": 1, "subscriptionType": "CATEGORY", "subscriptionValue": "Fantasy"},
+                  {"clientId": 2, "subscriptionType": "CATEGORY", "subscriptionValue": "Fantasy"},
+                  {"clientId": 3, "subscriptionType": "GENRE", "subscriptionValue": "Fantasy"},
+                  {"clientId": 3, "subscriptionType": "AUTHOR", "subscriptionValue": ""}
+                ]
+                """;
+
+        //when
+        SubscriptionBulkCreateResultDto result = subscriptionBulkService.createSubscriptions(stream(json));
+
+        //then
+        assertThat(result.getCreatedCount()).isEqualTo(0);
+        assertThat(result.getRejectedCount()).isEqualTo(4);
+        assertThat(result.getErrors()).extracting(error -> error.getMessage()).containsExactly(
+                "Client not found with id: 1",
+                "Email must be verified before creating subscription",
+                "Unknown subscription type: GENRE",
+                "Subscription value is required");
+        verify(subscriptionBulkRepositoryMock, never()).insertIgnoringExisting(anyList());
+        verifyNoInteractions(subscriptionIndexServiceMock);
+    }
+
+    @Test
+    void shouldResolveTargetIdsAndRejectUnknownCategories() {
+        //given
+        when(clientServiceMock.findVerificationStatusByIds(anyCollection())).thenReturn(Map.of(1L, true));
+        when(subscriptionBulkRepositoryMock.insertIgnoringExisting(anyList()))
+                .thenAnswer(invocation -> new HashSet<>(invocation.<List<SubscriptionKey>>getArgument(0)));
+        String json = """
+                [
+                  {"clientId": 1, "subscriptionType": "CATEGORY", "subscriptionValue": "Poetry"},
+                  {"clientId": 1, "subscriptionType": "AUTHOR", "subscriptionValue": "Tolkien"}
+                ]
+                """;
+
+        //when
+        SubscriptionBulkCreateResultDto result = subscriptionBulkService.createSubscriptions(stream(json));
+
+        //then
+        assertThat(result.getCreatedCount()).isEqualTo(1);
+        assertThat(result.getRejectedCount()).isEqualTo(1);
+        assertThat(result.getErrors()).extracting(error -> error.getMessage())
+                .containsExactly("Category not found with name: Poetry");
+        verify(authorServiceMock).internAuthors(Set.of("Tolkien"));
+        verify(subscriptionBulkRepositoryMock).insertIgnoringExisting(argThat(keys -> keys.size() == 1
+                && keys.get(0).getTargetId().equals(100L)));
+    }
+
+    @Test
+    void shouldCountDuplicateRowsWithinBatchAsExisting() {
+        //given
+        when(clientServiceMock.findVerificationStatusByIds(anyCollection())).thenReturn(Map.of(1L, true));
+        when(subscriptionBulkRepositoryMock.insertIgnoringExisting(anyList()))
+                .thenAnswer(invocation -> new HashSet<>(invocation.<List<SubscriptionKey>>getArgument(0)));
+        String json = """
+                [
+                  {"clientId": 1, "subscriptionType": "CATEGORY", "subscriptionValue": "Fantasy"},
+                  {"clientId": 1, "subscriptionType": "category", "subscriptionValue": "Fantasy"}
+                ]
+                """;
+
+        //when
+        SubscriptionBulkCreateResultDto result = subscriptionBulkService.createSubscriptions(stream(json));
+
+        //then
+        assertThat(result.getCreatedCount()).isEqualTo(1);
+        assertThat(result.getExistingCount()).isEqualTo(1);
+        verify(subscriptionBulkRepositoryMock).insertIgnoringExisting(argThat(keys -> keys.size() == 1));
+    }
+
+    @Test
+    void shouldRejectWholeBatchWhenInsertFails() {
+        //given
+        when(clientServiceMock.findVerificationStatusByIds(anyCollection())).thenReturn(Map.of(1L, true));
+        when(subscriptionBulkRepositoryMock.insertIgnoringExisting(anyList()))
+                .thenThrow(new RuntimeException("Connection lost"));
+        String json = """
+                [{"clientId": 1, "subscriptionType": "CATEGORY", "subscriptionValue": "Fantasy"}]
+                """;
+
+        //when
+        SubscriptionBulkCreateResultDto result = subscriptionBulkService.createSubscriptions(stream(json));
+
+        //then
+        assertThat(result.getCreatedCount()).isEqualTo(0);
+        assertThat(result.getRejectedCount()).isEqualTo(1);
+        assertThat(result.getErrors()).extracting(error -> error.getMessage())
+                .containsExactly("Batch insert failed: Connection lost");
+    }
+
+    @Test
+    void shouldCancelSubscriptionsAndReportMissingOnes() {
+        //given
+        SubscriptionKey existing = new SubscriptionKey(1L, SubscriptionType.CATEGORY, "Fantasy", 3L);
+        when(subscriptionBulkRepositoryMock.deleteExisting(anyList())).thenReturn(Set.of(existing));
+        String json = """
+                [
+                  {"clientId": 1, "subscriptionType": "CATEGORY", "subscriptionValue": "Fantasy"},
+                  {"clientId": 1, "subscriptionType": "AUTHOR", "subscriptionValue": "Tolkien"}
+                ]
+                """;
+
+        //when
+        SubscriptionBulkCancelResultDto result = subscriptionBulkService.cancelSubscriptions(stream(json));
+
+        //then
+        assertThat(result.getCancelledCount()).isEqualTo(1);
+        assertThat(result.getNotFoundCount()).isEqualTo(1);
+        assertThat(result.getRejectedCount()).isEqualTo(0);
+        verify(subscriptionIndexServiceMock).onSubscriptionCancelled(SubscriptionType.CATEGORY, 3L, 1L);
+        verifyNoInteractions(clientServiceMock, authorServiceMock);
+    }
+
+    private InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,172 @@
+package pl.kurs.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import pl.kurs.entity.Client;
+import pl.kurs.entity.Subscription;
+import pl.kurs.entity.SubscriptionType;
+import pl.kurs.repository.SubscriptionRepository;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SubscriptionIndexServiceTest {
+
+    @Mock
+    private SubscriptionRepository subscriptionRepositoryMock;
+
+    @InjectMocks
+    private SubscriptionIndexService subscriptionIndexService;
+
+    @Test
+    void shouldRebuildIndexFromRepository() {
+        //given
+        when(subscriptionRepositoryMock.findIndexEntriesAfter(eq(0L), any(Pageable.class)))
+                .thenReturn(Arrays.asList(
+                        new Object[]{1L, 10L, SubscriptionType.CATEGORY, 3L},
+                        new Object[]{2L, 11L, SubscriptionType.CATEGORY, 3L},
+                        new Object[]{3L, 11L, SubscriptionType.AUTHOR, 100L}
+                ));
+
+        //when
+        subscriptionIndexService.rebuild();
+
+        //then
+        assertThat(subscriptionIndexService.findSubscribers(SubscriptionType.CATEGORY, 3L).toArray())
+                .containsExactly(10L, 11L);
+        assertThat(subscriptionIndexService.findSubscribers(SubscriptionType.AUTHOR, 100L).toArray())
+                .containsExactly(11L);
+    }
+
+    @Test
+    void shouldReturnEmptySubscribersForUnknownValue() {
+        //when
+        Roaring64NavigableMap subscribers = subscriptionIndexService.findSubscribers(SubscriptionType.AUTHOR, 999L);
+
+        //then
+        assertThat(subscribers.isEmpty()).isTrue();
+    }
+
+    @Test
+    void shouldAddAndRemoveSubscriptionsIncrementally() {
+        //given
+        Subscription fantasy = createSubscription(10L, SubscriptionType.CATEGORY, 3L);
+        Subscription tolkien = createSubscription(11L, SubscriptionType.AUTHOR, 100L);
+
+        //when
+        subscriptionIndexService.onSubscriptionCreated(fantasy);
+        subscriptionIndexService.onSubscriptionCreated(tolkien);
+        subscriptionIndexService.onSubscriptionCancelled(fantasy);
+
+        //then
+        assertThat(subscriptionIndexService.findSubscribers(SubscriptionType.CATEGORY, 3L).isEmpty()).isTrue();
+        assertThat(subscriptionIndexService.findSubscribers(SubscriptionType.AUTHOR, 100L).toArray())
+                .containsExactly(11L);
+    }
+
+    @Test
+    void shouldComputeAudienceAsUnionOfAuthorAndCategorySubscribers() {
+        //given
+        subscriptionIndexService.onSubscriptionCreated(createSubscription(10L, SubscriptionType.CATEGORY, 3L));
+        subscriptionIndexService.onSubscriptionCreated(createSubscription(11L, SubscriptionType.AUTHOR, 100L));
+        subscriptionIndexService.onSubscriptionCreated(createSubscription(12L, SubscriptionType.CATEGORY, 10L));
+
+        //when
+        Roaring64NavigableMap audience = subscriptionIndexService.findAudience(100L, 3L);
+
+        //then
+        assertThat(audience.toArray()).containsExactly(10L, 11L);
+    }
+
+    @Test
+    void shouldNotExposeInternalBitmaps() {
+        //given
+        subscriptionIndexService.onSubscriptionCreated(createSubscription(10L, SubscriptionType.CATEGORY, 3L));
+
+        //when
+        subscriptionIndexService.findSubscribers(SubscriptionType.CATEGORY, 3L).addLong(99L);
+
+        //then
+        assertThat(subscriptionIndexService.findSubscribers(SubscriptionType.CATEGORY, 3L).toArray())
+                .containsExactly(10L);
+    }
+
+    @Test
+    void shouldMatchAudienceByCategoryOnlyWhenBookHasNoAuthorId() {
+        //given
+        subscriptionIndexService.onSubscriptionCreated(createSubscription(10L, SubscriptionType.CATEGORY, 3L));
+        subscriptionIndexService.onSubscriptionCreated(createSubscription(11L, SubscriptionType.AUTHOR, 100L));
+
+        //when
+        Roaring64NavigableMap audience = subscriptionIndexService.findAudience(null, 3L);
+
+        //then
+        assertThat(audience.toArray()).containsExactly(10L);
+    }
+
+    @Test
+    void shouldIgnoreSubscriptionsWithoutTargetId() {
+        //when
+        subscriptionIndexService.onSubscriptionCreated(createSubscription(10L, SubscriptionType.CATEGORY, null));
+
+        //then
+        assertThat(subscriptionIndexService.findSubscribers(SubscriptionType.CATEGORY, 3L).isEmpty()).isTrue();
+    }
+
+    @Test
+    void shouldReplaceIndexContentWithRepositoryStateOnRebuild() {
+        //given
+        subscriptionIndexService.onSubscriptionCreated(createSubscription(10L, SubscriptionType.CATEGORY, 3L));
+        when(subscriptionRepositoryMock.findIndexEntriesAfter(eq(0L), any(Pageable.class)))
+                .thenReturn(Collections.emptyList());
+
+        //when
+        subscriptionIndexService.rebuild();
+
+        //then
+        assertThat(subscriptionIndexService.findSubscribers(SubscriptionType.CATEGORY, 3L).isEmpty()).isTrue();
+    }
+
+    @Test
+    void shouldRebuildAfterCommitWhenTargetsWereLinked() {
+        //given
+        when(subscriptionRepositoryMock.findIndexEntriesAfter(eq(0L), any(Pageable.class)))
+                .thenReturn(Collections.singletonList(new Object[]{1L, 10L, SubscriptionType.AUTHOR, 100L}));
+        TransactionSynchronizationManager.initSynchronization();
+
+        try {
+            //when
+            subscriptionIndexService.rebuildAfterCommit();
+
+            //then
+            assertThat(subscriptionIndexService.findSubscribers(SubscriptionType.AUTHOR, 100L).isEmpty()).isTrue();
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            assertThat(subscriptionIndexService.findSubscribers(SubscriptionType.AUTHOR, 100L).toArray())
+                    .containsExactly(10L);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private Subscription createSubscription(Long clientId, SubscriptionType type, Long targetId) {
+        Client client = Client.builder().id(clientId).build();
+        return Subscription.builder()
+                .client(client)
+                .subscriptionType(type)
+                .targetId(targetId)
+                .build();
+    }
+}
@@ -21,12 +21,15 @@ import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 
 @ExtendWith(MockitoExtension.class)
@@ -41,6 +44,15 @@ class SubscriptionServiceTest {
     @Mock
     private SubscriptionMapper subscriptionMapperMock;
 
+    @Mock
+    private SubscriptionIndexService subscriptionIndexServiceMock;
+
+    @Mock
+    private AuthorService authorServiceMock;
+
+    @Mock
+    private CategoryService categoryServiceMock;
+
     @InjectMocks
     private SubscriptionService subscriptionService;
 
@@ -54,6 +66,7 @@ class SubscriptionServiceTest {
         SubscriptionDto expectedDto = createExpectedSubscriptionDto();
 
         given(clientServiceMock.getVerifiedClientById(1L)).willReturn(client);
+        given(categoryServiceMock.findIdByName("Fantasy")).willReturn(Optional.of(3L));
         given(subscriptionMapperMock.dtoToEntity(subscriptionDto)).willReturn(subscription);
         given(subscriptionRepositoryMock.save(any(Subscription.class))).willReturn(savedSubscription);
         given(subscriptionMapperMock.entityToDto(savedSubscription)).willReturn(expectedDto);
@@ -67,6 +80,43 @@ class SubscriptionServiceTest {
         assertThat(result.getClientId()).isEqualTo(1L);
         assertThat(result.getSubscriptionType()).isEqualTo("CATEGORY");
         assertThat(result.getSubscriptionValue()).isEqualTo("Fantasy");
+        then(subscriptionRepositoryMock).should().save(argThat(saved -> saved.getTargetId().equals(3L)));
+        then(subscriptionIndexServiceMock).should().onSubscriptionCreated(savedSubscription);
+    }
+
+    @Test
+    void shouldInternAuthorWhenCreatingAuthorSubscription() {
+        //given
+        SubscriptionDto subscriptionDto = new SubscriptionDto(null, 1L, "AUTHOR", "J.R.R. Tolkien");
+        Subscription subscription = Subscription.builder()
+                .subscriptionType(SubscriptionType.AUTHOR)
+                .subscriptionValue("J.R.R. Tolkien")
+                .build();
+        given(clientServiceMock.getVerifiedClientById(1L)).willReturn(createClient());
+        given(authorServiceMock.internAuthor("J.R.R. Tolkien")).willReturn(100L);
+        given(subscriptionMapperMock.dtoToEntity(subscriptionDto)).willReturn(subscription);
+        given(subscriptionRepositoryMock.save(any(Subscription.class))).willAnswer(invocation -> invocation.getArgument(0));
+
+        //when
+        subscriptionService.createSubscription(subscriptionDto);
+
+        //then
+        then(subscriptionRepositoryMock).should().save(argThat(saved -> saved.getTargetId().equals(100L)));
+    }
+
+    @Test
+    void shouldThrowExceptionWhenCategoryNotFound() {
+        //given
+        SubscriptionDto subscriptionDto = new SubscriptionDto(null, 1L, "CATEGORY", "Poetry");
+        given(clientServiceMock.getVerifiedClientById(1L)).willReturn(createClient());
+        given(subscriptionMapperMock.dtoToEntity(subscriptionDto)).willReturn(new Subscription());
+        given(categoryServiceMock.findIdByName("Poetry")).willReturn(Optional.empty());
+
+        //when then
+        assertThatThrownBy(() -> subscriptionService.createSubscription(subscriptionDto))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessage("Category not found with name: Poetry");
+        then(subscriptionRepositoryMock).should(never()).save(any(Subscription.class));
     }
 
     @Test
@@ -95,6 +145,20 @@ class SubscriptionServiceTest {
         then(subscriptionRepositoryMock).should(times(1)).deleteById(subscriptionId);
     }
 
+    @Test
+    void shouldRemoveCancelledSubscriptionFromIndex() {
+        //given
+        Subscription savedSubscription = createSavedSubscription();
+        given(subscriptionRepositoryMock.findById(1L)).willReturn(Optional.of(savedSubscription));
+
+        //when
+        subscriptionService.cancelSubscriptionById(1L);
+
+        //then
+        then(subscriptionIndexServiceMock).should().onSubscriptionCancelled(savedSubscription);
+        then(subscriptionRepositoryMock).should().deleteById(1L);
+    }
+
     @Test
     void shouldReturnEmailsAndBooksWhenSubscriptionsFoundForDate() {
         //given
@@ -154,6 +218,24 @@ class SubscriptionServiceTest {
         assertThat(result.hasNext()).isFalse();
     }
 
+    @Test
+    void shouldReturnDigestRowsAfterClientId() {
+        //given
+        LocalDate testDate = LocalDate.of(2025, 1, 15);
+        Object[] row = {5L, "user1@example.com", 12L};
+        List<Object[]> rows = Collections.singletonList(row);
+
+        given(subscriptionRepositoryMock.findDigestRowsForDateAfterClient(testDate, 4L, 100L, 1000))
+                .willReturn(rows);
+
+        //when
+        List<Object[]> result = subscriptionService.findDigestRowsForDateAfterClient(testDate, 4L, 100L, 1000);
+
+        //then
+        assertThat(result).hasSize(1);
+        assertThat(result.get(0)).containsExactly(5L, "user1@example.com", 12L);
+    }
+
     private Client createClient() {
         return new Client(1L, "Jan", "Kowalski", "test@example.com", "Warszawa", true, null, null);
     }
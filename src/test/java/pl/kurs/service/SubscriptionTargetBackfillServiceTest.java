@@ -0,0 +1,64 @@
+package pl.kurs.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import pl.kurs.repository.SubscriptionTargetBackfillRepository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SubscriptionTargetBackfillServiceTest {
+
+    @Mock
+    private SubscriptionTargetBackfillRepository subscriptionTargetBackfillRepositoryMock;
+
+    @Mock
+    private SubscriptionIndexService subscriptionIndexServiceMock;
+
+    @InjectMocks
+    private SubscriptionTargetBackfillService subscriptionTargetBackfillService;
+
+    @Test
+    void shouldLinkBooksBeforeSubscriptions() {
+        //given
+        when(subscriptionTargetBackfillRepositoryMock.linkBookAuthors()).thenReturn(2);
+        when(subscriptionTargetBackfillRepositoryMock.linkSubscriptionTargets()).thenReturn(3);
+
+        //when
+        int linked = subscriptionTargetBackfillService.catchUp();
+
+        //then
+        assertThat(linked).isEqualTo(5);
+        InOrder inOrder = inOrder(subscriptionTargetBackfillRepositoryMock);
+        inOrder.verify(subscriptionTargetBackfillRepositoryMock).linkBookAuthors();
+        inOrder.verify(subscriptionTargetBackfillRepositoryMock).linkSubscriptionTargets();
+        verify(subscriptionIndexServiceMock).rebuildAfterCommit();
+    }
+
+    @Test
+    void shouldNotRebuildIndexWhenOnlyBooksWereLinked() {
+        //given
+        when(subscriptionTargetBackfillRepositoryMock.linkBookAuthors()).thenReturn(2);
+
+        //when
+        subscriptionTargetBackfillService.catchUp();
+
+        //then
+        verifyNoInteractions(subscriptionIndexServiceMock);
+    }
+
+    @Test
+    void shouldReturnZeroWhenEverythingIsLinked() {
+        //when
+        int linked = subscriptionTargetBackfillService.catchUp();
+
+        //then
+        assertThat(linked).isZero();
+        verifyNoInteractions(subscriptionIndexServiceMock);
+    }
+}
@@ -0,0 +1,93 @@
+package pl.kurs.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import pl.kurs.config.NotificationProperties;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class VerificationTokenServiceTest {
+
+    private final Instant now = Instant.parse("2025-01-15T10:00:00Z");
+    private NotificationProperties notificationProperties;
+
+    @BeforeEach
+    void setUp() {
+        notificationProperties = new NotificationProperties();
+        notificationProperties.setTokenSecret("test-secret");
+        notificationProperties.setTokenExpiryHours(24);
+    }
+
+    @Test
+    void shouldVerifyIssuedTokenAndReturnClientId() {
+        //given
+        VerificationTokenService tokenService = serviceAt(now);
+        String token = tokenService.issue(42L);
+
+        //when then
+        assertThat(serviceAt(now.plus(Duration.ofHours(23))).verify(token)).hasValue(42L);
+    }
+
+    @Test
+    void shouldRejectExpiredToken() {
+        //given
+        String token = serviceAt(now).issue(42L);
+
+        //when then
+        assertThat(serviceAt(now.plus(Duration.ofHours(24)).plusSeconds(1)).verify(token)).isEmpty();
+    }
+
+    @Test
+    void shouldRejectTokenWithTamperedClientId() {
+        //given
+        VerificationTokenService tokenService = serviceAt(now);
+        String token = tokenService.issue(42L);
+
+        //when then
+        assertThat(tokenService.verify("43" + token.substring(2))).isEmpty();
+    }
+
+    @Test
+    void shouldRejectTokenSignedWithDifferentSecret() {
+        //given
+        String token = serviceAt(now).issue(42L);
+        notificationProperties.setTokenSecret("other-secret");
+
+        //when then
+        assertThat(serviceAt(now).verify(token)).isEmpty();
+    }
+
+    @Test
+    void shouldRejectMalformedTokens() {
+        //given
+        VerificationTokenService tokenService = serviceAt(now);
+
+        //when then
+        assertThat(tokenService.verify(null)).isEmpty();
+        assertThat(tokenService.verify("")).isEmpty();
+        assertThat(tokenService.verify("abc123def456")).isEmpty();
+        assertThat(tokenService.verify("42.abc.signature")).isEmpty();
+        assertThat(tokenService.verify("42.1736935200.not*base64")).isEmpty();
+    }
+
+    @Test
+    void shouldFailFastWhenSecretIsBlank() {
+        //given
+        notificationProperties.setTokenSecret(" ");
+
+        //when then
+        assertThatThrownBy(() -> serviceAt(now))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("notification.token-secret");
+    }
+
+    private VerificationTokenService serviceAt(Instant instant) {
+        return new VerificationTokenService(notificationProperties, Clock.fixed(instant, ZoneOffset.UTC));
+    }
+}